@@ -0,0 +1,27 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the rules-engine benchmarks with the GC profiler attached, so every
+ * result reports allocation rate (gc.alloc.rate.norm) next to throughput.
+ * <p>
+ * Usage: {@code java -jar benchmarks/target/benchmarks-jar-with-dependencies.jar [regex]}
+ * where the optional regex selects benchmarks, e.g. {@code GameStatus}.
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws RunnerException {
+        String include = (args.length > 0) ? args[0] : "benchmarks\\..*";
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
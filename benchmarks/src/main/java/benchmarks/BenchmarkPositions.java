@@ -0,0 +1,38 @@
+package benchmarks;
+
+import chess.ChessGame;
+
+import java.util.Map;
+
+/**
+ * The corpus of positions the benchmarks run over, covering openings,
+ * middlegames, endgames and finished games, written in FEN.
+ */
+public final class BenchmarkPositions {
+    public static final Map<String, String> CORPUS = Map.of(
+            "start", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "italian", "r1bqk1nr/pppp1ppp/2n5/2b1p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4",
+            "middlegame", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "tactical", "r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ - 0 1",
+            "endgame", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "checkmate", "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3",
+            "stalemate", "k7/8/1Q6/8/8/8/8/7K b - - 0 1"
+    );
+
+    private BenchmarkPositions() {
+    }
+
+    /**
+     * Builds a game from a corpus entry
+     *
+     * @param name the corpus key
+     * @return a fresh game set up at that position
+     */
+    public static ChessGame load(String name) {
+        String fen = CORPUS.get(name);
+        if (fen == null) {
+            throw new IllegalArgumentException("Unknown benchmark position: " + name);
+        }
+        return ChessGame.fromFen(fen);
+    }
+}
@@ -0,0 +1,52 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChessBoard setup, equality, hashing and static evaluation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({"start", "middlegame", "endgame"})
+    public String position;
+
+    private ChessBoard board;
+    private ChessBoard equalBoard;
+    private final ChessBoard resetTarget = new ChessBoard();
+
+    @Setup
+    public void setup() {
+        board = BenchmarkPositions.load(position).getBoard();
+        equalBoard = BenchmarkPositions.load(position).getBoard();
+    }
+
+    @Benchmark
+    public ChessBoard resetBoard() {
+        resetTarget.resetBoard();
+        return resetTarget;
+    }
+
+    @Benchmark
+    public boolean equalsEqualBoard() {
+        return board.equals(equalBoard);
+    }
+
+    @Benchmark
+    public int hashCodeBoard() {
+        return board.hashCode();
+    }
+
+    @Benchmark
+    public int evaluate() {
+        return board.evaluate();
+    }
+}
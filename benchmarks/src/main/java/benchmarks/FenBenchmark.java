@@ -0,0 +1,61 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.Fen;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading and writing positions as FEN, next to writing and reading the same
+ * game as the Gson JSON the server stores and sends.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FenBenchmark {
+
+    @Param({"start", "middlegame", "endgame"})
+    public String position;
+
+    private final Gson gson = new Gson();
+    private final ChessGame target = new ChessGame();
+    private final StringBuilder text = new StringBuilder(100);
+    private ChessGame game;
+    private String fen;
+    private String json;
+
+    @Setup
+    public void setup() {
+        fen = BenchmarkPositions.CORPUS.get(position);
+        game = BenchmarkPositions.load(position);
+        json = gson.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame readFen() {
+        Fen.read(fen, target);
+        return target;
+    }
+
+    @Benchmark
+    public int writeFen() {
+        text.setLength(0);
+        Fen.append(game, text);
+        return text.length();
+    }
+
+    @Benchmark
+    public ChessGame readJson() {
+        return gson.fromJson(json, ChessGame.class);
+    }
+
+    @Benchmark
+    public String writeJson() {
+        return gson.toJson(game);
+    }
+}
@@ -0,0 +1,87 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.MoveList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Legal move generation and check/checkmate/stalemate detection for the side to
+ * move, as the WebSocket handler runs them after every move. The single-query
+ * benchmarks answer from the game's cached status after the first call;
+ * {@link #handlerStatusChecks} starts each invocation from a fresh copy, so it
+ * measures the one enumeration a move costs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStatusBenchmark {
+
+    @Param({"start", "italian", "middlegame", "tactical", "endgame", "checkmate", "stalemate"})
+    public String position;
+
+    private ChessGame game;
+    private final ChessGame scratch = new ChessGame();
+    private ChessGame.TeamColor toMove;
+    private ChessPosition[] ownPieces;
+    private final MoveList moves = new MoveList();
+
+    @Setup
+    public void setup() {
+        game = BenchmarkPositions.load(position);
+        toMove = game.getTeamTurn();
+
+        List<ChessPosition> found = new ArrayList<>();
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = game.getBoard().getPiece(square);
+            if (piece != null && piece.getTeamColor() == toMove) {
+                found.add(ChessPosition.of(square));
+            }
+        }
+        ownPieces = found.toArray(new ChessPosition[0]);
+    }
+
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        for (ChessPosition pos : ownPieces) {
+            blackhole.consume(game.validMoves(pos));
+        }
+    }
+
+    @Benchmark
+    public int legalMoves() {
+        game.legalMoves(toMove, moves);
+        return moves.size();
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return game.isInCheck(toMove);
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        return game.isInCheckmate(toMove);
+    }
+
+    @Benchmark
+    public boolean isInStalemate() {
+        return game.isInStalemate(toMove);
+    }
+
+    @Benchmark
+    public boolean handlerStatusChecks() {
+        // Copying discards the cached status, as loading a game from storage does
+        scratch.copyFrom(game);
+        return scratch.isInCheckmate(toMove) | scratch.isInCheck(toMove) | scratch.isInStalemate(toMove);
+    }
+}
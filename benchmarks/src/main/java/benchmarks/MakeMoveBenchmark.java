@@ -0,0 +1,61 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import chess.MoveList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validated moves through makeMove and raw doMove, each taken back with
+ * undoMove so every invocation starts from the same position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MakeMoveBenchmark {
+
+    @Param({"start", "italian", "middlegame", "tactical", "endgame"})
+    public String position;
+
+    private ChessGame game;
+    private List<ChessMove> chessMoves;
+    private final MoveList moves = new MoveList();
+    private int next;
+
+    @Setup
+    public void setup() {
+        game = BenchmarkPositions.load(position);
+        chessMoves = new ArrayList<>(game.legalMoves(game.getTeamTurn()));
+        game.legalMoves(game.getTeamTurn(), moves);
+    }
+
+    @Benchmark
+    public ChessGame.TeamColor makeMove() throws InvalidMoveException {
+        ChessMove move = chessMoves.get(next);
+        next = (next + 1) % chessMoves.size();
+
+        game.makeMove(move);
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        game.undoMove();
+        return turn;
+    }
+
+    @Benchmark
+    public long doMoveUndoMove() {
+        int move = moves.get(next);
+        next = (next + 1) % moves.size();
+
+        game.doMove(move);
+        long key = game.zobristKey();
+        game.undoMove();
+        return key;
+    }
+}
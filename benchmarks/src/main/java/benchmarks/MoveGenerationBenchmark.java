@@ -0,0 +1,70 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.MoveList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pseudo-legal move generation for every piece of one type in a position,
+ * through both the Collection API and the reusable MoveList buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+    @Param({"start", "italian", "middlegame", "tactical", "endgame"})
+    public String position;
+
+    @Param({"KING", "QUEEN", "BISHOP", "KNIGHT", "ROOK", "PAWN"})
+    public ChessPiece.PieceType pieceType;
+
+    private ChessBoard board;
+    private int[] squares;
+    private ChessPosition[] positions;
+    private final MoveList moves = new MoveList();
+
+    @Setup
+    public void setup() {
+        board = BenchmarkPositions.load(position).getBoard();
+
+        int count = 0;
+        int[] found = new int[64];
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(square);
+            if (piece != null && piece.getPieceType() == pieceType) {
+                found[count++] = square;
+            }
+        }
+        squares = Arrays.copyOf(found, count);
+        positions = new ChessPosition[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = ChessPosition.of(squares[i]);
+        }
+    }
+
+    @Benchmark
+    public void pieceMoves(Blackhole blackhole) {
+        for (ChessPosition pos : positions) {
+            blackhole.consume(board.getPiece(pos).pieceMoves(board, pos));
+        }
+    }
+
+    @Benchmark
+    public int pieceMovesIntoMoveList() {
+        moves.clear();
+        for (int square : squares) {
+            board.getPiece(square).pieceMoves(board, square, moves);
+        }
+        return moves.size();
+    }
+}
@@ -0,0 +1,70 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.search.ParallelSearch;
+import chess.search.SearchLimits;
+import chess.search.SearchResult;
+import chess.search.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to reach a fixed depth with the Lazy-SMP search at 1, 2, 4 and 8
+ * threads. Each invocation starts from an empty transposition table, so the
+ * threads cannot reuse an earlier invocation's work. The nodes counter shows
+ * how much extra searching the helper threads do per invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchScalingBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"start", "middlegame", "tactical"})
+    public String position;
+
+    @Param({"6"})
+    public int depth;
+
+    private ChessGame game;
+    private TranspositionTable table;
+    private ParallelSearch search;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Nodes {
+        public long nodes;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        game = BenchmarkPositions.load(position);
+        table = new TranspositionTable(64);
+        search = new ParallelSearch(table, threads);
+    }
+
+    // Clearing 64 MB takes a few milliseconds against searches of hundreds, so
+    // per-invocation setup does not distort the timing much
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        table.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        search.close();
+    }
+
+    @Benchmark
+    public SearchResult searchToDepth(Nodes counter) {
+        SearchResult result = search.search(game, SearchLimits.depth(depth));
+        counter.nodes += result.nodes();
+        return result;
+    }
+}
@@ -336,7 +336,7 @@ client has no state
         int col = letter.charAt(0) - 'a' + 1;
         int row = Integer.parseInt(number);
 
-        return new ChessPosition(row, col);
+        return ChessPosition.of(row, col);
     }
 
     private ChessPiece.PieceType parsePromotion(String input) {
@@ -27,7 +27,7 @@ public class PaintBoard {
             System.out.print(rowLabel(row));
 
             for (int col = colStart; col != colEnd; col += colStep) {
-                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+                ChessPiece piece = board.getPiece(ChessPosition.of(row, col));
 
                 boolean isLight = (row + col) % 2 == 0;
 
@@ -133,7 +133,7 @@ public class PaintBoard {
 
             for (int col = colStart; col != colEnd; col += colStep) {
 
-                ChessPosition current = new ChessPosition(row, col);
+                ChessPosition current = ChessPosition.of(row, col);
                 ChessPiece piece = board.getPiece(current);
 
                 boolean isLight = (row + col) % 2 == 0;
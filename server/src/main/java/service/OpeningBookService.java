@@ -0,0 +1,53 @@
+package service;
+
+import chess.ChessGame;
+import chess.book.OpeningBookBuilder;
+import dataaccess.DataAccessException;
+import dataaccess.GameDAO;
+import model.GameData;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Compiles an opening book from the finished games in the game store
+ */
+public class OpeningBookService {
+    private final GameDAO gameDAO;
+
+    public OpeningBookService(GameDAO gameDAO) {
+        this.gameDAO = gameDAO;
+    }
+
+    /**
+     * Adds every finished stored game to a builder, from the moves in its
+     * timeline. Games still being played are left out.
+     *
+     * @return the number of games added
+     */
+    public int addFinishedGames(OpeningBookBuilder builder) throws DataAccessException {
+        int added = 0;
+        for (GameData gameData : gameDAO.listGames()) {
+            ChessGame game = gameData.game();
+            if (game != null && game.isGameEnded()) {
+                builder.addGame(game.getTimeline());
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Writes a book of the finished stored games
+     *
+     * @param path      the file to create or overwrite
+     * @param maxPly    how many plies of each game to record
+     * @param minWeight the fewest occurrences a move needs to be kept
+     * @return the number of entries written
+     */
+    public int writeBook(Path path, int maxPly, int minWeight) throws DataAccessException, IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(maxPly);
+        addFinishedGames(builder);
+        return builder.write(path, minWeight);
+    }
+}
@@ -0,0 +1,86 @@
+package service;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.pgn.PgnGame;
+import chess.pgn.PgnImporter;
+import chess.pgn.PgnSink;
+import dataaccess.DataAccessException;
+import dataaccess.GameDAO;
+import model.GameData;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * Loads a PGN archive into the game store. Each legal game becomes a stored
+ * game at its final position, named after its players and with no users
+ * joined; games with a result are marked ended. Illegal games are skipped.
+ */
+public class PgnImportService {
+    private final GameDAO gameDAO;
+    private final PgnImporter importer;
+
+    public PgnImportService(GameDAO gameDAO, PgnImporter importer) {
+        this.gameDAO = gameDAO;
+        this.importer = importer;
+    }
+
+    public PgnImportService(GameDAO gameDAO) {
+        this(gameDAO, new PgnImporter());
+    }
+
+    /**
+     * Stores every legal game in the text
+     *
+     * @param reader the PGN text; it is read to the end but not closed
+     * @return the number of games stored
+     * @throws DataAccessException the first failure to store a game; the games
+     *                             stored before it are kept
+     */
+    public int importGames(Reader reader) throws IOException, DataAccessException {
+        GameStoreSink sink = new GameStoreSink();
+        importer.importGames(reader, sink);
+        if (sink.failure != null) {
+            throw sink.failure;
+        }
+        return sink.stored;
+    }
+
+    private static String gameName(PgnGame source) {
+        String white = source.tag("White");
+        String black = source.tag("Black");
+        if (white == null && black == null) {
+            return "Imported game";
+        }
+        return (white == null ? "?" : white) + " vs " + (black == null ? "?" : black);
+    }
+
+    /**
+     * Writes accepted games to the store. The importer calls it from several
+     * threads and the DAOs are not all thread-safe, so stores are serialized.
+     */
+    private class GameStoreSink implements PgnSink {
+        private int stored;
+        private DataAccessException failure;
+
+        @Override
+        public synchronized void accept(PgnGame source, List<ChessMove> moves, ChessGame finalPosition) {
+            if (failure != null) {
+                return;
+            }
+            if (!"*".equals(source.result())) {
+                finalPosition.setGameEnded();
+            }
+            try {
+                GameData created = gameDAO.createGame(gameName(source));
+                gameDAO.updateGame(created.gameID(),
+                        new GameData(created.gameID(), null, null, created.gameName(), finalPosition));
+                stored++;
+            } catch (DataAccessException e) {
+                failure = e;
+            }
+        }
+    }
+}
@@ -7,11 +7,24 @@ import websocket.messages.ServerMessage;
 import java.io.IOException;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * Tracks the sessions watching each game and sends them messages. Messages are
+ * serialized and sent on one broadcast thread, in the order they were handed
+ * over, so request threads never wait on serialization or slow clients.
+ * Messages must therefore not change after they are handed over.
+ */
 public class ConnectionManager {
 
     private final ConcurrentHashMap<Integer, Set<Session>> connections = new ConcurrentHashMap<>();
     private final Gson gson = new Gson();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "websocket-broadcast");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public void add(int gameID, Session session) {
         connections.computeIfAbsent(gameID, k -> ConcurrentHashMap.newKeySet()).add(session);
@@ -33,14 +46,29 @@ public class ConnectionManager {
             return;
         }
 
-        String json = gson.toJson(message);
+        sender.execute(() -> {
+            String json = gson.toJson(message);
 
-        for (Session s : sessions) {
-            try {
-                if (s.isOpen() && (excludeSession == null || !s.equals(excludeSession))) {
-                    s.getRemote().sendString(json);
+            for (Session s : sessions) {
+                if (excludeSession == null || !s.equals(excludeSession)) {
+                    sendString(s, json);
                 }
-            } catch (IOException ignored) {}
-        }
+            }
+        });
+    }
+
+    /**
+     * Sends a message to one session, after any messages already handed over
+     */
+    public void send(Session session, ServerMessage message) {
+        sender.execute(() -> sendString(session, gson.toJson(message)));
+    }
+
+    private static void sendString(Session session, String json) {
+        try {
+            if (session.isOpen()) {
+                session.getRemote().sendString(json);
+            }
+        } catch (IOException ignored) {}
     }
-}
\ No newline at end of file
+}
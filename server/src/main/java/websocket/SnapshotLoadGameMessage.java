@@ -0,0 +1,27 @@
+package websocket;
+
+import chess.BoardSnapshot;
+import model.GameData;
+import websocket.messages.ServerMessage;
+
+/**
+ * A LOAD_GAME message carrying a {@link BoardSnapshot} where a
+ * {@link websocket.messages.LoadGameMessage} carries the live game. It writes
+ * the same JSON, which clients read as a LoadGameMessage, and holds nothing
+ * mutable, so it can be serialized on the broadcast thread.
+ */
+class SnapshotLoadGameMessage extends ServerMessage {
+    private final Game game;
+
+    /**
+     * The fields of {@link GameData}, with the game as a snapshot
+     */
+    private record Game(int gameID, String whiteUsername, String blackUsername, String gameName,
+                        BoardSnapshot game) {}
+
+    SnapshotLoadGameMessage(GameData gameData, BoardSnapshot position) {
+        super(ServerMessageType.LOAD_GAME);
+        game = new Game(gameData.gameID(), gameData.whiteUsername(), gameData.blackUsername(),
+                gameData.gameName(), position);
+    }
+}
@@ -1,6 +1,8 @@
 package websocket;
 
+import chess.BoardSnapshot;
 import chess.ChessGame;
+import chess.GameStatus;
 import com.google.gson.Gson;
 import dataaccess.AuthDAO;
 import dataaccess.GameDAO;
@@ -117,7 +119,7 @@ public class WebSocketHandler implements WsConnectHandler, WsMessageHandler, WsC
         connections.add(gameId, ctx.session);
         sessionGameMap.put(ctx.session, gameId);
 
-        ctx.send(gson.toJson(new LoadGameMessage(gameData)));
+        connections.send(ctx.session, new SnapshotLoadGameMessage(gameData, gameData.game().snapshot()));
 
         String message = switch (role) {
             case "WHITE" -> username + " joined as white";
@@ -171,23 +173,24 @@ public class WebSocketHandler implements WsConnectHandler, WsMessageHandler, WsC
             return;
         }
 
+        BoardSnapshot position = game.snapshot();
         gameDAO.updateGame(gameId, gameData);
 
         connections.broadcast(gameId, ctx.session,
                 new NotificationMessage(username + " made a move"));
 
-        connections.broadcast(gameId, null,
-                new LoadGameMessage(gameData));
-
-        if (game.isInCheckmate(game.getTeamTurn())) {
-            connections.broadcast(gameId, null,
-                    new NotificationMessage(game.getTeamTurn() + " is in checkmate"));
-        } else if (game.isInCheck(game.getTeamTurn())) {
-            connections.broadcast(gameId, null,
-                    new NotificationMessage(game.getTeamTurn() + " is in check"));
-        } else if (game.isInStalemate(game.getTeamTurn())) {
-            connections.broadcast(gameId, null,
-                    new NotificationMessage("stalemate"));
+        connections.broadcast(gameId, null, new SnapshotLoadGameMessage(gameData, position));
+
+        GameStatus status = position.getStatus();
+        String notification = switch (status.result()) {
+            case CHECKMATE -> status.sideToMove() + " is in checkmate";
+            case STALEMATE -> "stalemate";
+            case DRAW_BY_REPETITION -> "draw by threefold repetition";
+            case DRAW_BY_FIFTY_MOVE_RULE -> "draw by the fifty-move rule";
+            case ONGOING -> status.inCheck() ? status.sideToMove() + " is in check" : null;
+        };
+        if (notification != null) {
+            connections.broadcast(gameId, null, new NotificationMessage(notification));
         }
     }
 
@@ -255,8 +258,7 @@ public class WebSocketHandler implements WsConnectHandler, WsMessageHandler, WsC
     }
 
     private void sendError(WsMessageContext ctx, String message) {
-        try {
-            ctx.send(gson.toJson(new ErrorMessage(message)));
-        } catch (Exception ignored) {}
+        // Queued behind this session's earlier messages so they arrive in order
+        connections.send(ctx.session, new ErrorMessage(message));
     }
 }
\ No newline at end of file
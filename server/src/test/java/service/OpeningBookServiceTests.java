@@ -0,0 +1,75 @@
+package service;
+
+import chess.ChessGame;
+import chess.PackedMove;
+import chess.book.OpeningBook;
+import com.google.gson.Gson;
+import dataaccess.*;
+import model.GameData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpeningBookServiceTests {
+
+    private GameDAO gameDAO;
+    private OpeningBookService bookService;
+
+    @BeforeEach
+    public void setup() {
+        gameDAO = new MemoryGameDAO();
+        bookService = new OpeningBookService(gameDAO);
+    }
+
+    /**
+     * Stores a game with some moves played, passing it through JSON as the
+     * database does
+     */
+    private void storeGame(String name, boolean finished, String... moves) throws Exception {
+        GameData created = gameDAO.createGame(name);
+        ChessGame game = created.game();
+        for (String move : moves) {
+            game.makeMove(PackedMove.toChessMove(PackedMove.fromCoordinate(move)));
+        }
+        if (finished) {
+            game.setGameEnded();
+        }
+        Gson gson = new Gson();
+        ChessGame stored = gson.fromJson(gson.toJson(game), ChessGame.class);
+        gameDAO.updateGame(created.gameID(), new GameData(created.gameID(), "white", "black", name, stored));
+    }
+
+    @Test
+    public void writeBookPositive(@TempDir Path dir) throws Exception {
+        storeGame("Game1", true, "e2e4", "e7e5", "g1f3");
+        storeGame("Game2", true, "e2e4", "c7c5");
+        storeGame("Game3", true, "d2d4", "d7d5");
+
+        Path file = dir.resolve("book.bin");
+        assertTrue(bookService.writeBook(file, 16, 1) > 0);
+        OpeningBook book = OpeningBook.open(file);
+
+        ChessGame start = new ChessGame();
+        assertEquals(PackedMove.fromCoordinate("e2e4"), book.bestMove(start));
+        assertEquals(2, book.moveCount(start.zobristKey()));
+    }
+
+    @Test
+    public void writeBookSkipsUnfinishedGames(@TempDir Path dir) throws Exception {
+        storeGame("Finished", true, "d2d4", "d7d5");
+        storeGame("Playing", false, "e2e4", "e7e5");
+        storeGame("Playing2", false, "e2e4", "c7c5");
+
+        Path file = dir.resolve("book.bin");
+        bookService.writeBook(file, 16, 1);
+        OpeningBook book = OpeningBook.open(file);
+
+        ChessGame start = new ChessGame();
+        assertEquals(1, book.moveCount(start.zobristKey()));
+        assertEquals(PackedMove.fromCoordinate("d2d4"), book.bestMove(start));
+    }
+}
@@ -0,0 +1,67 @@
+package service;
+
+import chess.ChessGame;
+import dataaccess.*;
+import model.GameData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PgnImportServiceTests {
+
+    private static final String ARCHIVE = """
+            [White "Anderssen"]
+            [Black "Kieseritzky"]
+            [Result "1-0"]
+
+            1. e4 e5 2. f4 exf4 1-0
+
+            [White "Nobody"]
+            [Black "Nowhere"]
+            [Result "*"]
+
+            1. e4 e5 2. Ke3 *
+
+            [Result "*"]
+
+            1. d4 d5 *
+            """;
+
+    private GameDAO gameDAO;
+    private PgnImportService importService;
+
+    @BeforeEach
+    public void setup() {
+        gameDAO = new MemoryGameDAO();
+        importService = new PgnImportService(gameDAO);
+    }
+
+    @Test
+    public void importGamesPositive() throws Exception {
+        assertEquals(2, importService.importGames(new StringReader(ARCHIVE)));
+
+        GameData[] games = gameDAO.listGames();
+        Arrays.sort(games, Comparator.comparing(GameData::gameName));
+        assertEquals(2, games.length);
+
+        assertEquals("Anderssen vs Kieseritzky", games[0].gameName());
+        assertNull(games[0].whiteUsername());
+        assertEquals(ChessGame.fromFen("rnbqkbnr/pppp1ppp/8/8/4Pp2/8/PPPP2PP/RNBQKBNR w KQkq - 0 3").toFen(),
+                games[0].game().toFen());
+        assertTrue(games[0].game().isGameEnded());
+
+        assertEquals("Imported game", games[1].gameName());
+        assertFalse(games[1].game().isGameEnded());
+    }
+
+    @Test
+    public void importGamesNegative() throws Exception {
+        assertEquals(0, importService.importGames(new StringReader("1. e4 e5 2. Ke3 *\n")));
+        assertEquals(0, gameDAO.listGames().length);
+    }
+}
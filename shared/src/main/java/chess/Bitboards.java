@@ -0,0 +1,248 @@
+package chess;
+
+/**
+ * Precomputed attack tables for move generation on a {@link ChessBoard}.
+ * <p>
+ * Knight, king and pawn attacks are plain 64-entry lookups built once at class
+ * load. Rook and bishop attacks use magic bitboards: the blockers on a slider's
+ * relevant rays are multiplied by a per-square magic number and shifted down to
+ * a perfect-hash index into that square's attack table. The magics are found
+ * with a fixed-seed search, so the tables are identical on every run.
+ */
+public final class Bitboards {
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    private static final int[][] KNIGHT_STEPS = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+    private static final int[][] KING_STEPS = {{0, 1}, {1, 1}, {1, 0}, {1, -1}, {0, -1}, {-1, -1}, {-1, 0}, {-1, 1}};
+    private static final int[][] ROOK_DIRECTIONS = {{0, 1}, {1, 0}, {0, -1}, {-1, 0}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, -1}, {-1, 1}};
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static long seed = 0x2545F4914F6CDD1DL;
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = stepAttacks(square, KNIGHT_STEPS);
+            KING_ATTACKS[square] = stepAttacks(square, KING_STEPS);
+            PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][square] = stepAttacks(square, new int[][] {{1, 1}, {1, -1}});
+            PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][square] = stepAttacks(square, new int[][] {{-1, 1}, {-1, -1}});
+
+            ROOK_MASKS[square] = relevantMask(square, ROOK_DIRECTIONS);
+            BISHOP_MASKS[square] = relevantMask(square, BISHOP_DIRECTIONS);
+            initMagic(square, ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_TABLE);
+            initMagic(square, BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_TABLE);
+        }
+        for (int square = 0; square < 64; square++) {
+            initLines(square, ROOK_DIRECTIONS);
+            initLines(square, BISHOP_DIRECTIONS);
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given color standing on the square attacks
+     */
+    public static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_TABLE[square][index];
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_TABLE[square][index];
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * @return the squares a non-pawn piece of the given type standing on the
+     * square attacks with the given occupancy
+     */
+    public static long attacks(ChessPiece.PieceType type, int square, long occupied) {
+        return switch (type) {
+            case KING -> KING_ATTACKS[square];
+            case QUEEN -> queenAttacks(square, occupied);
+            case BISHOP -> bishopAttacks(square, occupied);
+            case KNIGHT -> KNIGHT_ATTACKS[square];
+            case ROOK -> rookAttacks(square, occupied);
+            case PAWN -> throw new IllegalArgumentException("pawn attacks depend on color");
+        };
+    }
+
+    /**
+     * @return the squares strictly between two squares on a shared rank, file or
+     * diagonal, or 0 if they do not share one
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return the full rank, file or diagonal through both squares (edge to edge),
+     * or 0 if they do not share one
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    private static boolean onBoard(int row, int col) {
+        return row >= 0 && row < 8 && col >= 0 && col < 8;
+    }
+
+    private static long stepAttacks(int square, int[][] steps) {
+        int row = square >>> 3;
+        int col = square & 7;
+        long attacks = 0L;
+        for (int[] step : steps) {
+            if (onBoard(row + step[0], col + step[1])) {
+                attacks |= 1L << ((row + step[0]) * 8 + col + step[1]);
+            }
+        }
+        return attacks;
+    }
+
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] dir : directions) {
+            int row = (square >>> 3) + dir[0];
+            int col = (square & 7) + dir[1];
+            while (onBoard(row, col)) {
+                long bit = 1L << (row * 8 + col);
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                row += dir[0];
+                col += dir[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static long relevantMask(int square, int[][] directions) {
+        long mask = 0L;
+        for (int[] dir : directions) {
+            int row = (square >>> 3) + dir[0];
+            int col = (square & 7) + dir[1];
+            // The last square of each ray never blocks anything beyond it
+            while (onBoard(row + dir[0], col + dir[1])) {
+                mask |= 1L << (row * 8 + col);
+                row += dir[0];
+                col += dir[1];
+            }
+        }
+        return mask;
+    }
+
+    private static void initLines(int square, int[][] directions) {
+        for (int[] dir : directions) {
+            long ray = slidingAttacks(square, 0L, new int[][] {dir});
+            long backRay = slidingAttacks(square, 0L, new int[][] {{-dir[0], -dir[1]}});
+            long line = ray | backRay | (1L << square);
+
+            long between = 0L;
+            long remaining = ray;
+            while (remaining != 0) {
+                // Rays are walked outward, so the nearest square is reached first
+                int target = nearest(square, remaining);
+                LINE[square][target] = line;
+                BETWEEN[square][target] = between;
+                between |= 1L << target;
+                remaining &= ~(1L << target);
+            }
+        }
+    }
+
+    private static int nearest(int square, long squares) {
+        return square < Long.numberOfTrailingZeros(squares)
+                ? Long.numberOfTrailingZeros(squares)
+                : 63 - Long.numberOfLeadingZeros(squares);
+    }
+
+    private static long nextRandom() {
+        seed ^= seed >>> 12;
+        seed ^= seed << 25;
+        seed ^= seed >>> 27;
+        return seed * 0x2545F4914F6CDD1DL;
+    }
+
+    private static void initMagic(int square, int[][] directions, long[] masks, long[] magics,
+                                  int[] shifts, long[][] tables) {
+        long mask = masks[square];
+        int bits = Long.bitCount(mask);
+        int size = 1 << bits;
+
+        long[] occupancies = new long[size];
+        long[] reference = new long[size];
+        long subset = 0L;
+        for (int i = 0; i < size; i++) {
+            occupancies[i] = subset;
+            reference[i] = slidingAttacks(square, subset, directions);
+            subset = (subset - mask) & mask;
+        }
+
+        long[] table = new long[size];
+        int[] epoch = new int[size];
+        int attempt = 0;
+        while (true) {
+            long magic = nextRandom() & nextRandom() & nextRandom();
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+                continue;
+            }
+            attempt++;
+
+            boolean collision = false;
+            for (int i = 0; i < size && !collision; i++) {
+                int index = (int) ((occupancies[i] * magic) >>> (64 - bits));
+                if (epoch[index] < attempt) {
+                    epoch[index] = attempt;
+                    table[index] = reference[i];
+                } else if (table[index] != reference[i]) {
+                    collision = true;
+                }
+            }
+
+            if (!collision) {
+                magics[square] = magic;
+                shifts[square] = 64 - bits;
+                tables[square] = table;
+                return;
+            }
+        }
+    }
+}
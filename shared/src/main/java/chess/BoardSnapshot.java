@@ -0,0 +1,171 @@
+package chess;
+
+import com.google.gson.annotations.JsonAdapter;
+
+/**
+ * An immutable copy of a game's position: the twelve piece bitboards and the
+ * state a board cannot show, with the status worked out for it.
+ * <p>
+ * Taking one copies a few dozen primitives, not the board's objects, so a
+ * game can afford a snapshot after every move. Every field is final and the
+ * arrays are never written after construction, so a snapshot can be handed to
+ * any thread without locking, however the reference gets there. Readers such
+ * as broadcasts and analysis use it, or a {@link #toGame() game} of their own
+ * built from it, instead of the live game another thread may be changing.
+ * In JSON a snapshot takes the form of the game at its position.
+ */
+@JsonAdapter(BoardSnapshotAdapter.class)
+public final class BoardSnapshot {
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    // Indexed by color ordinal * 6 + piece type ordinal, as in ChessBoard
+    private final long[] pieces = new long[2 * TYPES.length];
+    private final long occupied;
+    private final ChessGame.TeamColor sideToMove;
+    private final int castlingRights;
+    private final int enPassantSquare;
+    private final int halfmoveClock;
+    private final int plyCount;
+    private final boolean gameEnded;
+    private final long zobristKey;
+    private final GameStatus status;
+    // The keys a repetition check can still reach, oldest first
+    private final long[] repetitionWindow;
+
+    BoardSnapshot(ChessBoard board, ChessGame.TeamColor sideToMove, int castlingRights, int enPassantSquare,
+                  int halfmoveClock, int plyCount, boolean gameEnded, long zobristKey, GameStatus status,
+                  long[] repetitionWindow) {
+        for (ChessGame.TeamColor color : COLORS) {
+            for (ChessPiece.PieceType type : TYPES) {
+                pieces[color.ordinal() * TYPES.length + type.ordinal()] = board.pieces(color, type);
+            }
+        }
+        this.occupied = board.occupied();
+        this.sideToMove = sideToMove;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        this.halfmoveClock = halfmoveClock;
+        this.plyCount = plyCount;
+        this.gameEnded = gameEnded;
+        this.zobristKey = zobristKey;
+        this.status = status;
+        this.repetitionWindow = repetitionWindow;
+    }
+
+    /**
+     * @return the piece on a 0-63 square (a1 = 0), or null if it is empty
+     */
+    public ChessPiece getPiece(int square) {
+        long bit = 1L << square;
+        if ((occupied & bit) == 0) {
+            return null;
+        }
+        for (int i = 0; i < pieces.length; i++) {
+            if ((pieces[i] & bit) != 0) {
+                return ChessPiece.of(COLORS[i / TYPES.length], TYPES[i % TYPES.length]);
+            }
+        }
+        return null;
+    }
+
+    public ChessPiece getPiece(ChessPosition position) {
+        return getPiece(ChessBoard.squareIndex(position));
+    }
+
+    /**
+     * @return bitboard of one side's pieces of one type
+     */
+    public long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieces[color.ordinal() * TYPES.length + type.ordinal()];
+    }
+
+    public long occupied() {
+        return occupied;
+    }
+
+    public ChessGame.TeamColor getTeamTurn() {
+        return sideToMove;
+    }
+
+    /**
+     * @return the {@link CastlingRights} both sides still hold
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * @return the 0-63 square the side to move can capture en passant on, or -1
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return plyCount / 2 + 1;
+    }
+
+    public boolean isGameEnded() {
+        return gameEnded || status.isOver();
+    }
+
+    public long zobristKey() {
+        return zobristKey;
+    }
+
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return a new board with the snapshot's pieces
+     */
+    public ChessBoard toBoard() {
+        ChessBoard board = new ChessBoard();
+        copyPiecesTo(board);
+        return board;
+    }
+
+    /**
+     * Replaces a board's pieces with the snapshot's
+     */
+    void copyPiecesTo(ChessBoard board) {
+        board.clear();
+        for (int i = 0; i < pieces.length; i++) {
+            ChessPiece piece = ChessPiece.of(COLORS[i / TYPES.length], TYPES[i % TYPES.length]);
+            for (long bits = pieces[i]; bits != 0; bits &= bits - 1) {
+                board.setSquare(Long.numberOfTrailingZeros(bits), piece);
+            }
+        }
+    }
+
+    /**
+     * @return a new game at the snapshot's position, owned by the caller, that
+     * still recognizes repetitions of positions reached before it
+     */
+    public ChessGame toGame() {
+        return new ChessGame(this);
+    }
+
+    int plyCount() {
+        return plyCount;
+    }
+
+    boolean endedByPlayer() {
+        return gameEnded;
+    }
+
+    long[] repetitionWindow() {
+        return repetitionWindow;
+    }
+
+    @Override
+    public String toString() {
+        return Fen.write(toGame());
+    }
+}
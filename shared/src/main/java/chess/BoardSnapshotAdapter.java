@@ -0,0 +1,82 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link BoardSnapshot} in the JSON form of a {@link ChessGame} at its
+ * position, straight from the snapshot's bitboards, so a snapshot can be sent
+ * wherever a game is expected without building the game first. Reading parses
+ * a game and takes its snapshot.
+ */
+class BoardSnapshotAdapter implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != BoardSnapshot.class) {
+            return null;
+        }
+        return (TypeAdapter<T>) new SnapshotTypeAdapter(gson.getAdapter(ChessPiece[][].class),
+                gson.getAdapter(ChessGame.class));
+    }
+
+    private static class SnapshotTypeAdapter extends TypeAdapter<BoardSnapshot> {
+        private final TypeAdapter<ChessPiece[][]> matrixAdapter;
+        private final TypeAdapter<ChessGame> gameAdapter;
+
+        SnapshotTypeAdapter(TypeAdapter<ChessPiece[][]> matrixAdapter, TypeAdapter<ChessGame> gameAdapter) {
+            this.matrixAdapter = matrixAdapter;
+            this.gameAdapter = gameAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter out, BoardSnapshot snapshot) throws IOException {
+            if (snapshot == null) {
+                out.nullValue();
+                return;
+            }
+
+            ChessPiece[][] matrix = new ChessPiece[8][8];
+            for (int square = 0; square < 64; square++) {
+                matrix[square >>> 3][square & 7] = snapshot.getPiece(square);
+            }
+
+            // The same names and order as ChessGame's fields, as Gson writes them
+            out.beginObject();
+            out.name("board").beginObject().name("piecesMatrix");
+            matrixAdapter.write(out, matrix);
+            out.endObject();
+            out.name("currentTurn").value(snapshot.getTeamTurn().name());
+            out.name("gameEnded").value(snapshot.endedByPlayer());
+            out.name("castlingRights").value(snapshot.getCastlingRights());
+            out.name("enPassantSquare").value(snapshot.getEnPassantSquare());
+            out.name("plyCount").value(snapshot.plyCount());
+            out.name("history").beginObject();
+            out.name("clock").value(snapshot.getHalfmoveClock());
+            out.name("keys").beginArray();
+            for (long key : snapshot.repetitionWindow()) {
+                out.value(key);
+            }
+            out.endArray();
+            out.endObject();
+            out.endObject();
+        }
+
+        @Override
+        public BoardSnapshot read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return gameAdapter.read(in).snapshot();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Static helpers for castling rights packed into the low four bits of an int,
+ * one bit per king and side it may still castle to.
+ * <p>
+ * Rights are only ever lost: moving the king gives up both of its side's
+ * rights and moving a rook off its corner, or capturing a piece on a corner,
+ * gives up that corner's right. A 64-entry table holds the rights each square
+ * keeps, so updating them after any move is two lookups and two ANDs.
+ */
+public final class CastlingRights {
+    public static final int NONE = 0;
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL = 15;
+
+    private static final int[] KEPT_BY_SQUARE = new int[64];
+
+    static {
+        Arrays.fill(KEPT_BY_SQUARE, ALL);
+        KEPT_BY_SQUARE[0] = ALL & ~WHITE_QUEENSIDE;
+        KEPT_BY_SQUARE[4] = ALL & ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        KEPT_BY_SQUARE[7] = ALL & ~WHITE_KINGSIDE;
+        KEPT_BY_SQUARE[56] = ALL & ~BLACK_QUEENSIDE;
+        KEPT_BY_SQUARE[60] = ALL & ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        KEPT_BY_SQUARE[63] = ALL & ~BLACK_KINGSIDE;
+    }
+
+    private CastlingRights() {
+    }
+
+    /**
+     * @return the rights left after a move between the two 0-63 squares
+     */
+    public static int afterMove(int rights, int from, int to) {
+        return rights & KEPT_BY_SQUARE[from] & KEPT_BY_SQUARE[to];
+    }
+
+    /**
+     * @return the kingside right of the given color
+     */
+    public static int kingside(ChessGame.TeamColor color) {
+        return (color == ChessGame.TeamColor.WHITE) ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+    }
+
+    /**
+     * @return the queenside right of the given color
+     */
+    public static int queenside(ChessGame.TeamColor color) {
+        return (color == ChessGame.TeamColor.WHITE) ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+    }
+
+    /**
+     * Infers the rights of a position set up without a move history: a side may
+     * castle to every corner where its king and that rook still stand on their
+     * starting squares.
+     */
+    public static int fromBoard(ChessBoard board) {
+        int rights = NONE;
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            int rank = (color == ChessGame.TeamColor.WHITE) ? 0 : 56;
+            if ((board.pieces(color, ChessPiece.PieceType.KING) & (1L << (rank + 4))) == 0) {
+                continue;
+            }
+            long rooks = board.pieces(color, ChessPiece.PieceType.ROOK);
+            if ((rooks & (1L << (rank + 7))) != 0) {
+                rights |= kingside(color);
+            }
+            if ((rooks & (1L << rank)) != 0) {
+                rights |= queenside(color);
+            }
+        }
+        return rights;
+    }
+}
@@ -1,21 +1,90 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
+ * Internally the board keeps one 64-bit bitboard per color/piece type plus
+ * occupancy masks, with square 0 being a1 and square 63 being h8. A 64-entry
+ * mailbox sits alongside the bitboards so single-square lookups stay O(1).
+ * The Zobrist key and the static evaluation are updated with every placement.
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessBoardAdapter.class)
 public class ChessBoard {
-    private ChessPiece[][] piecesMatrix = new ChessPiece[8][8];
+    private static final int PIECE_TYPES = ChessPiece.PieceType.values().length;
+
+    private final ChessPiece[] squares = new ChessPiece[64];
+    private final long[] pieceBitboards = new long[2 * PIECE_TYPES];
+    private final long[] colorBitboards = new long[2];
+    private long occupied;
+    private final int[] kingSquares = {-1, -1};
+    private long zobristKey;
+    private int midgameScore;
+    private int endgameScore;
+    private int phase;
 
     public ChessBoard() {
 
     }
 
+    /**
+     * Creates an independent copy of another board
+     *
+     * @param other the board to copy
+     */
+    public ChessBoard(ChessBoard other) {
+        copyFrom(other);
+    }
+
+    /**
+     * Overwrites this board with the contents of another, reusing this board's
+     * arrays so no allocation happens
+     *
+     * @param other the board to copy
+     */
+    public void copyFrom(ChessBoard other) {
+        System.arraycopy(other.squares, 0, squares, 0, squares.length);
+        System.arraycopy(other.pieceBitboards, 0, pieceBitboards, 0, pieceBitboards.length);
+        System.arraycopy(other.colorBitboards, 0, colorBitboards, 0, colorBitboards.length);
+        System.arraycopy(other.kingSquares, 0, kingSquares, 0, kingSquares.length);
+        occupied = other.occupied;
+        zobristKey = other.zobristKey;
+        midgameScore = other.midgameScore;
+        endgameScore = other.endgameScore;
+        phase = other.phase;
+    }
+
+    /**
+     * @return the 0-63 square index of a 1-based row and column
+     */
+    public static int squareIndex(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * @return the 0-63 square index of the given position
+     */
+    public static int squareIndex(ChessPosition position) {
+        return squareIndex(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * @return the position of the given 0-63 square index
+     */
+    public static ChessPosition positionOf(int square) {
+        return ChessPosition.of(square);
+    }
+
+    private static int bitboardIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * PIECE_TYPES + type.ordinal();
+    }
+
     /**
      * Adds a chess piece to the chessboard
      *
@@ -23,7 +92,7 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        this.piecesMatrix[position.getRow()-1][position.getColumn()-1] = piece;
+        setSquare(squareIndex(position), piece);
     }
 
     /**
@@ -34,9 +103,174 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return this.piecesMatrix[position.getRow()-1][position.getColumn()-1];
+        return squares[squareIndex(position)];
+    }
+
+    /**
+     * Gets a chess piece by its 0-63 square index
+     *
+     * @param square the square to get the piece from
+     * @return Either the piece on the square, or null if the square is empty
+     */
+    public ChessPiece getPiece(int square) {
+        return squares[square];
     }
 
+    /**
+     * Places a piece on (or, with null, clears) a 0-63 square index, keeping the
+     * bitboards and the mailbox in sync
+     */
+    void setSquare(int square, ChessPiece piece) {
+        long bit = 1L << square;
+
+        ChessPiece previous = squares[square];
+        if (previous != null) {
+            pieceBitboards[bitboardIndex(previous.getTeamColor(), previous.getPieceType())] &= ~bit;
+            colorBitboards[previous.getTeamColor().ordinal()] &= ~bit;
+            occupied &= ~bit;
+            zobristKey ^= Zobrist.piece(previous, square);
+            midgameScore -= PieceSquareTables.midgame(previous, square);
+            endgameScore -= PieceSquareTables.endgame(previous, square);
+            phase -= PieceSquareTables.phase(previous.getPieceType());
+        }
+
+        squares[square] = piece;
+        if (piece != null) {
+            pieceBitboards[bitboardIndex(piece.getTeamColor(), piece.getPieceType())] |= bit;
+            colorBitboards[piece.getTeamColor().ordinal()] |= bit;
+            occupied |= bit;
+            zobristKey ^= Zobrist.piece(piece, square);
+            midgameScore += PieceSquareTables.midgame(piece, square);
+            endgameScore += PieceSquareTables.endgame(piece, square);
+            phase += PieceSquareTables.phase(piece.getPieceType());
+        }
+
+        if (previous != null && previous.getPieceType() == ChessPiece.PieceType.KING) {
+            updateKingSquare(previous.getTeamColor());
+        }
+        if (piece != null && piece.getPieceType() == ChessPiece.PieceType.KING) {
+            updateKingSquare(piece.getTeamColor());
+        }
+    }
+
+    private void updateKingSquare(ChessGame.TeamColor color) {
+        long kings = pieces(color, ChessPiece.PieceType.KING);
+        kingSquares[color.ordinal()] = (kings == 0) ? -1 : Long.numberOfTrailingZeros(kings);
+    }
+
+    /**
+     * @return the 0-63 square of the given color's king, or -1 if it has no king
+     */
+    public int kingSquare(ChessGame.TeamColor color) {
+        return kingSquares[color.ordinal()];
+    }
+
+    /**
+     * Finds every piece of the given color that attacks a square, looking outward
+     * from the square: knight jumps, pawn diagonals, king steps and slider rays
+     *
+     * @param square   the 0-63 square being attacked
+     * @param by       the attacking color
+     * @param occupied the occupancy to trace slider rays through
+     * @return bitboard of the attacking pieces
+     */
+    public long attackersOf(int square, ChessGame.TeamColor by, long occupied) {
+        ChessGame.TeamColor defender = (by == ChessGame.TeamColor.WHITE)
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long queens = pieces(by, ChessPiece.PieceType.QUEEN);
+
+        return (Bitboards.pawnAttacks(defender, square) & pieces(by, ChessPiece.PieceType.PAWN))
+                | (Bitboards.knightAttacks(square) & pieces(by, ChessPiece.PieceType.KNIGHT))
+                | (Bitboards.kingAttacks(square) & pieces(by, ChessPiece.PieceType.KING))
+                | (Bitboards.bishopAttacks(square, occupied) & (pieces(by, ChessPiece.PieceType.BISHOP) | queens))
+                | (Bitboards.rookAttacks(square, occupied) & (pieces(by, ChessPiece.PieceType.ROOK) | queens));
+    }
+
+    /**
+     * @return true if any piece of the given color attacks the 0-63 square
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor by) {
+        ChessGame.TeamColor defender = (by == ChessGame.TeamColor.WHITE)
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+
+        if ((Bitboards.knightAttacks(square) & pieces(by, ChessPiece.PieceType.KNIGHT)) != 0
+                || (Bitboards.pawnAttacks(defender, square) & pieces(by, ChessPiece.PieceType.PAWN)) != 0
+                || (Bitboards.kingAttacks(square) & pieces(by, ChessPiece.PieceType.KING)) != 0) {
+            return true;
+        }
+
+        long queens = pieces(by, ChessPiece.PieceType.QUEEN);
+        long diagonal = pieces(by, ChessPiece.PieceType.BISHOP) | queens;
+        if (diagonal != 0 && (Bitboards.bishopAttacks(square, occupied) & diagonal) != 0) {
+            return true;
+        }
+        long straight = pieces(by, ChessPiece.PieceType.ROOK) | queens;
+        return straight != 0 && (Bitboards.rookAttacks(square, occupied) & straight) != 0;
+    }
+
+    /**
+     * @return bitboard of every square holding a piece of the given color and type
+     */
+    public long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieceBitboards[bitboardIndex(color, type)];
+    }
+
+    /**
+     * @return bitboard of every square holding a piece of the given color
+     */
+    public long pieces(ChessGame.TeamColor color) {
+        return colorBitboards[color.ordinal()];
+    }
+
+    /**
+     * @return bitboard of every occupied square
+     */
+    public long occupied() {
+        return occupied;
+    }
+
+    /**
+     * @return the Zobrist key of the piece placement, kept up to date on every
+     * change to the board
+     */
+    public long zobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * Static evaluation of the position: material plus piece-square values,
+     * blended between midgame and endgame tables by the material left. It is
+     * kept up to date on every change to the board, so this is O(1).
+     *
+     * @return the evaluation in centipawns from White's point of view
+     */
+    public int evaluate() {
+        return PieceSquareTables.taper(midgameScore, endgameScore, phase);
+    }
+
+    /**
+     * @return the game phase, from {@link PieceSquareTables#MAX_PHASE} with all
+     * pieces on the board down to 0 with only kings and pawns left
+     */
+    public int phase() {
+        return phase;
+    }
+
+    /**
+     * Removes every piece
+     */
+    void clear() {
+        Arrays.fill(squares, null);
+        Arrays.fill(pieceBitboards, 0L);
+        Arrays.fill(colorBitboards, 0L);
+        occupied = 0L;
+        zobristKey = 0L;
+        midgameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        kingSquares[0] = -1;
+        kingSquares[1] = -1;
+    }
 
     private void setupSide(ChessGame.TeamColor color) {
         int baseRow;
@@ -51,26 +285,26 @@ public class ChessBoard {
         }
 
         // Rooks
-        this.addPiece(new ChessPosition(baseRow,1),new ChessPiece(color,ChessPiece.PieceType.ROOK));
-        this.addPiece(new ChessPosition(baseRow,8),new ChessPiece(color,ChessPiece.PieceType.ROOK));
+        this.addPiece(ChessPosition.of(baseRow,1),ChessPiece.of(color,ChessPiece.PieceType.ROOK));
+        this.addPiece(ChessPosition.of(baseRow,8),ChessPiece.of(color,ChessPiece.PieceType.ROOK));
 
         // Knights
-        this.addPiece(new ChessPosition(baseRow,2),new ChessPiece(color,ChessPiece.PieceType.KNIGHT));
-        this.addPiece(new ChessPosition(baseRow,7),new ChessPiece(color,ChessPiece.PieceType.KNIGHT));
+        this.addPiece(ChessPosition.of(baseRow,2),ChessPiece.of(color,ChessPiece.PieceType.KNIGHT));
+        this.addPiece(ChessPosition.of(baseRow,7),ChessPiece.of(color,ChessPiece.PieceType.KNIGHT));
 
         // Bishops
-        this.addPiece(new ChessPosition(baseRow,3),new ChessPiece(color,ChessPiece.PieceType.BISHOP));
-        this.addPiece(new ChessPosition(baseRow,6),new ChessPiece(color,ChessPiece.PieceType.BISHOP));
+        this.addPiece(ChessPosition.of(baseRow,3),ChessPiece.of(color,ChessPiece.PieceType.BISHOP));
+        this.addPiece(ChessPosition.of(baseRow,6),ChessPiece.of(color,ChessPiece.PieceType.BISHOP));
 
         // Queen
-        this.addPiece(new ChessPosition(baseRow,4),new ChessPiece(color,ChessPiece.PieceType.QUEEN));
+        this.addPiece(ChessPosition.of(baseRow,4),ChessPiece.of(color,ChessPiece.PieceType.QUEEN));
 
         // King
-        this.addPiece(new ChessPosition(baseRow,5),new ChessPiece(color,ChessPiece.PieceType.KING));
+        this.addPiece(ChessPosition.of(baseRow,5),ChessPiece.of(color,ChessPiece.PieceType.KING));
 
         // Pawns
         for (int i = 1; i < 9; i++) {
-            this.addPiece(new ChessPosition(pawnRow,i),new ChessPiece(color,ChessPiece.PieceType.PAWN));
+            this.addPiece(ChessPosition.of(pawnRow,i),ChessPiece.of(color,ChessPiece.PieceType.PAWN));
         }
     }
     /**
@@ -78,7 +312,7 @@ public class ChessBoard {
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
-        this.piecesMatrix = new ChessPiece[8][8];
+        clear();
 
         setupSide(ChessGame.TeamColor.WHITE);
         setupSide(ChessGame.TeamColor.BLACK);
@@ -94,11 +328,14 @@ public class ChessBoard {
             return false;
         }
 
-        return java.util.Arrays.deepEquals(this.piecesMatrix, ((ChessBoard) obj).piecesMatrix);
+        ChessBoard other = (ChessBoard) obj;
+        return this.zobristKey == other.zobristKey
+                && this.occupied == other.occupied
+                && Arrays.equals(this.pieceBitboards, other.pieceBitboards);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(piecesMatrix);
+        return Long.hashCode(zobristKey);
     }
 }
@@ -0,0 +1,86 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Keeps the JSON form of a {@link ChessBoard} as the 8x8 "piecesMatrix" it has
+ * always been, so stored games and connected clients are unaffected by the
+ * board's internal bitboard layout.
+ */
+class ChessBoardAdapter implements TypeAdapterFactory {
+    private static final String MATRIX_FIELD = "piecesMatrix";
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != ChessBoard.class) {
+            return null;
+        }
+        TypeAdapter<ChessPiece[][]> matrixAdapter = gson.getAdapter(ChessPiece[][].class);
+        return (TypeAdapter<T>) new BoardTypeAdapter(matrixAdapter);
+    }
+
+    private static class BoardTypeAdapter extends TypeAdapter<ChessBoard> {
+        private final TypeAdapter<ChessPiece[][]> matrixAdapter;
+
+        BoardTypeAdapter(TypeAdapter<ChessPiece[][]> matrixAdapter) {
+            this.matrixAdapter = matrixAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter out, ChessBoard board) throws IOException {
+            if (board == null) {
+                out.nullValue();
+                return;
+            }
+
+            ChessPiece[][] matrix = new ChessPiece[8][8];
+            for (int square = 0; square < 64; square++) {
+                matrix[square >>> 3][square & 7] = board.getPiece(square);
+            }
+
+            out.beginObject();
+            out.name(MATRIX_FIELD);
+            matrixAdapter.write(out, matrix);
+            out.endObject();
+        }
+
+        @Override
+        public ChessBoard read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            ChessBoard board = new ChessBoard();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!in.nextName().equals(MATRIX_FIELD)) {
+                    in.skipValue();
+                    continue;
+                }
+                ChessPiece[][] matrix = matrixAdapter.read(in);
+                if (matrix == null) {
+                    continue;
+                }
+                for (int row = 0; row < matrix.length && row < 8; row++) {
+                    for (int col = 0; matrix[row] != null && col < matrix[row].length && col < 8; col++) {
+                        if (matrix[row][col] != null) {
+                            board.setSquare(row * 8 + col, matrix[row][col]);
+                        }
+                    }
+                }
+            }
+            in.endObject();
+            return board;
+        }
+    }
+}
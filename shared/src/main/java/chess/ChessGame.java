@@ -15,13 +15,148 @@ public class ChessGame {
     private ChessBoard board;
     private ChessGame.TeamColor currentTurn;
     private boolean gameEnded = false;
+    private int castlingRights = CastlingRights.ALL;
+    // The square a pawn skipped with a double push, while an enemy pawn could take it there; -1 otherwise
+    private int enPassantSquare = -1;
+    // Plies since move 1 with White to move, for the FEN fullmove number
+    private int plyCount;
+    private final PositionHistory history = new PositionHistory(64);
+    // Moves played with makeMove, started lazily at the position the first one was played from.
+    // Serialized as a start FEN and packed moves, with checkpoints rebuilt only when needed.
+    private GameTimeline timeline;
+
+    // Scratch state for move generation; transient so it stays out of the serialized game
+    private final transient MoveList candidateMoves = new MoveList();
+    private final transient UndoStack undoStack = new UndoStack(256);
+    // The last status worked out, valid while the position key and history length are unchanged
+    private transient GameStatus status;
+    // The side to move's legal moves, filled with the status and valid while it is
+    private final transient LegalMoveSet legalMoveSet = new LegalMoveSet();
+    private transient long statusKey;
+    private transient int statusHistorySize;
+    private transient BoardSnapshot snapshot;
 
     public void setGameEnded() {
         this.gameEnded = true;
     }
 
+    /**
+     * @return whether the game was ended with {@link #setGameEnded()}, as on
+     * resignation, or its {@link #getStatus() status} is anything but ongoing:
+     * checkmate, stalemate or a draw by rule
+     */
     public boolean isGameEnded() {
-        return gameEnded;
+        return gameEnded || getStatus().isOver();
+    }
+
+    /**
+     * Gets where the game stands for the side to move. The status is worked out
+     * with one legal-move enumeration after each {@link #makeMove(ChessMove)}, or
+     * on the first call after any other change to the position, and the check,
+     * checkmate and stalemate queries answer from it until the position changes.
+     *
+     * @return the status of the current position
+     */
+    public GameStatus getStatus() {
+        GameStatus cached = cachedStatus();
+        return (cached != null) ? cached : computeStatus();
+    }
+
+    /**
+     * @return the last status if the position has not changed since, or null
+     */
+    private GameStatus cachedStatus() {
+        if (status == null || statusKey != zobristKey() || statusHistorySize != history.size()) {
+            return null;
+        }
+        return status;
+    }
+
+    private GameStatus computeStatus() {
+        legalMoves(currentTurn, candidateMoves);
+        legalMoveSet.setAll(candidateMoves);
+        int kingSquare = board.kingSquare(currentTurn);
+        boolean inCheck = kingSquare >= 0 && board.isSquareAttacked(kingSquare, opponentOf(currentTurn));
+
+        GameStatus.Result result;
+        if (candidateMoves.isEmpty()) {
+            result = inCheck ? GameStatus.Result.CHECKMATE : GameStatus.Result.STALEMATE;
+        } else if (isDrawByRepetition()) {
+            result = GameStatus.Result.DRAW_BY_REPETITION;
+        } else if (isDrawByFiftyMoveRule()) {
+            result = GameStatus.Result.DRAW_BY_FIFTY_MOVE_RULE;
+        } else {
+            result = GameStatus.Result.ONGOING;
+        }
+
+        status = new GameStatus(currentTurn, inCheck, candidateMoves.size(), result);
+        statusKey = zobristKey();
+        statusHistorySize = history.size();
+        return status;
+    }
+
+    /**
+     * Takes an immutable snapshot of the current position and its status. A
+     * snapshot is taken after every {@link #makeMove(ChessMove)} and returned
+     * again until the game changes. Call this on the thread that changes the
+     * game; the snapshot itself can then be read from any thread.
+     *
+     * @return the snapshot of the current position
+     */
+    public BoardSnapshot snapshot() {
+        GameStatus current = getStatus();
+        BoardSnapshot last = snapshot;
+        if (last == null || last.getStatus() != current || last.endedByPlayer() != gameEnded) {
+            last = new BoardSnapshot(board, currentTurn, castlingRights, enPassantSquare, history.clock(),
+                    plyCount, gameEnded, zobristKey(), current, history.window());
+            snapshot = last;
+        }
+        return last;
+    }
+
+    /**
+     * @return whether fifty moves by each side have passed without a capture or
+     * pawn move
+     */
+    public boolean isDrawByFiftyMoveRule() {
+        return history.clock() >= 100;
+    }
+
+    /**
+     * @return whether the current position has now occurred three times with
+     * the same side to move
+     */
+    public boolean isDrawByRepetition() {
+        return history.clock() >= 4 && history.repetitions(zobristKey()) >= 2;
+    }
+
+    /**
+     * @return whether the current position occurred before, which a search can
+     * score as a draw: a side that could avoid repeating it would have
+     */
+    public boolean isRepetition() {
+        return history.clock() >= 4 && history.repetitions(zobristKey()) >= 1;
+    }
+
+    /**
+     * @return plies played since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return history.clock();
+    }
+
+    /**
+     * @return the {@link CastlingRights} both sides still hold
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * @return the 0-63 square the side to move can capture en passant on, or -1
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
     }
 
 
@@ -32,6 +167,68 @@ public class ChessGame {
         currentTurn = TeamColor.WHITE;
     }
 
+    /**
+     * Creates an independent copy of another game's position and state. The
+     * copy starts with no moves to undo.
+     *
+     * @param other the game to copy
+     */
+    public ChessGame(ChessGame other) {
+        board = new ChessBoard(other.board);
+        currentTurn = other.currentTurn;
+        gameEnded = other.gameEnded;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        plyCount = other.plyCount;
+        history.copyFrom(other.history);
+    }
+
+    /**
+     * Creates a game at a snapshot's position, for {@link BoardSnapshot#toGame()}
+     */
+    ChessGame(BoardSnapshot snapshot) {
+        board = new ChessBoard();
+        copyFrom(snapshot);
+    }
+
+    /**
+     * Overwrites this game with another game's position and state, reusing this
+     * game's board. Any moves that could be undone are discarded.
+     *
+     * @param other the game to copy
+     */
+    public void copyFrom(ChessGame other) {
+        board.copyFrom(other.board);
+        currentTurn = other.currentTurn;
+        gameEnded = other.gameEnded;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        plyCount = other.plyCount;
+        history.copyFrom(other.history);
+        undoStack.clear();
+        status = null;
+        timeline = null;
+    }
+
+    /**
+     * Overwrites this game with a snapshot's position and state, reusing this
+     * game's board. Any moves that could be undone are discarded.
+     *
+     * @param snapshot the snapshot to copy
+     */
+    public void copyFrom(BoardSnapshot snapshot) {
+        snapshot.copyPiecesTo(board);
+        currentTurn = snapshot.getTeamTurn();
+        gameEnded = snapshot.endedByPlayer();
+        castlingRights = snapshot.getCastlingRights();
+        enPassantSquare = snapshot.getEnPassantSquare();
+        plyCount = snapshot.plyCount();
+        history.restore(snapshot.repetitionWindow(), snapshot.getHalfmoveClock());
+        undoStack.clear();
+        status = null;
+        timeline = null;
+    }
+
     /**
      * @return Which team's turn it is
      */
@@ -45,6 +242,9 @@ public class ChessGame {
      * @param team the team whose turn it is
      */
     public void setTeamTurn(TeamColor team) {
+        if (team != currentTurn) {
+            enPassantSquare = -1;
+        }
         currentTurn = team;
     }
 
@@ -56,45 +256,207 @@ public class ChessGame {
         BLACK
     }
 
-    // Helpers
-    private Collection<ChessPosition> allPositions() {
-        Collection<ChessPosition> positions = new ArrayList<>();
-        for (int i = 1; i < 9; i++) {
-            for (int j = 1; j < 9; j++) {
-                positions.add(new ChessPosition(i, j));
-            }
+    private static TeamColor opponentOf(TeamColor color) {
+        return (color == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+    }
+
+    /**
+     * Plays a packed move on the board without checking that it is legal, and
+     * records what is needed to take it back with {@link #undoMove()}. The turn
+     * passes to the opponent of the moving piece.
+     * <p>
+     * Castling and en passant are recognised from the board, a king moving two
+     * files or a pawn moving onto the en passant square, so moves built without
+     * their flags are played correctly too.
+     *
+     * @param move a {@link PackedMove} for a piece that is on the board
+     */
+    public void doMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece moved = board.getPiece(from);
+        boolean pawnMove = moved.getPieceType() == ChessPiece.PieceType.PAWN;
+        int capturedSquare = (pawnMove && to == enPassantSquare) ? to ^ 8 : to;
+        ChessPiece captured = board.getPiece(capturedSquare);
+
+        undoStack.push(move, moved, captured, packState());
+        history.push(zobristKey(), pawnMove || captured != null);
+
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        ChessPiece placed = (promotion == null) ? moved : ChessPiece.of(moved.getTeamColor(), promotion);
+        if (capturedSquare != to) {
+            board.setSquare(capturedSquare, null);
+        }
+        board.setSquare(to, placed);
+        board.setSquare(from, null);
+        if (moved.getPieceType() == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            moveCastlingRook(from, to, true);
         }
-        return positions;
+
+        TeamColor them = opponentOf(moved.getTeamColor());
+        castlingRights = CastlingRights.afterMove(castlingRights, from, to);
+        enPassantSquare = (pawnMove && Math.abs(to - from) == 16) ? enPassantTarget((from + to) >>> 1, them) : -1;
+        currentTurn = them;
+        plyCount++;
     }
 
-    private boolean moveLeavesKingSafe(ChessMove move, TeamColor teamColor) {
-        ChessPiece piece = board.getPiece(move.getStartPosition());
-        ChessPiece captured = board.getPiece(move.getEndPosition());
+    /**
+     * @return the square a double push skipped if a pawn of the capturing side
+     * stands ready to take there, otherwise -1
+     */
+    private int enPassantTarget(int skipped, TeamColor capturer) {
+        ChessPiece.PieceType pawn = ChessPiece.PieceType.PAWN;
+        return ((Bitboards.pawnAttacks(opponentOf(capturer), skipped) & board.pieces(capturer, pawn)) != 0) ? skipped : -1;
+    }
 
-        board.addPiece(move.getEndPosition(), piece);
-        board.addPiece(move.getStartPosition(), null);
+    /**
+     * Takes back the last move played with {@link #doMove(int)} or
+     * {@link #makeMove(ChessMove)}, restoring the board, turn, castling rights,
+     * en passant square and halfmove clock exactly
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void undoMove() {
+        if (undoStack.size() == 0) {
+            throw new IllegalStateException("No move to undo");
+        }
+        int move = undoStack.topMove();
+        // A move taken back right after makeMove leaves the timeline too, so it still ends here
+        boolean lastRecorded = timeline != null && timeline.size() > 0 && timeline.endsAt(zobristKey(), plyCount)
+                && timeline.move(timeline.size() - 1) == PackedMove.identity(move);
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece moved = undoStack.topMoved();
+        unpackState(undoStack.topState());
+
+        board.setSquare(from, moved);
+        if (moved.getPieceType() == ChessPiece.PieceType.PAWN && to == enPassantSquare) {
+            board.setSquare(to, null);
+            board.setSquare(to ^ 8, undoStack.topCaptured());
+        } else {
+            board.setSquare(to, undoStack.topCaptured());
+        }
+        if (moved.getPieceType() == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            moveCastlingRook(from, to, false);
+        }
+        history.pop();
+        undoStack.pop();
+        plyCount--;
+        if (lastRecorded) {
+            timeline.dropLast(zobristKey());
+        }
+    }
 
-        boolean inCheck = isInCheck(teamColor);
+    /**
+     * Moves the rook of a castling king move from its corner next to the king's
+     * new square, or back again
+     */
+    private void moveCastlingRook(int kingFrom, int kingTo, boolean forward) {
+        boolean kingside = kingTo > kingFrom;
+        int corner = kingside ? kingFrom + 3 : kingFrom - 4;
+        int beside = kingside ? kingFrom + 1 : kingFrom - 1;
+        int rookFrom = forward ? corner : beside;
+        int rookTo = forward ? beside : corner;
+        board.setSquare(rookTo, board.getPiece(rookFrom));
+        board.setSquare(rookFrom, null);
+    }
 
-        board.addPiece(move.getEndPosition(), captured);
-        board.addPiece(move.getStartPosition(), piece);
+    // Turn in bit 0, castling rights in bits 1-4 and the en passant square + 1 in bits 5-11
+    private int packState() {
+        return currentTurn.ordinal() | (castlingRights << 1) | ((enPassantSquare + 1) << 5);
+    }
 
-        return !inCheck;
+    private void unpackState(int state) {
+        currentTurn = TeamColor.values()[state & 1];
+        castlingRights = (state >>> 1) & 0xF;
+        enPassantSquare = (state >>> 5) - 1;
     }
 
-    private boolean hasAnyValidMove(TeamColor teamColor) {
-        for (ChessPosition pos : allPositions()) {
-            ChessPiece piece = board.getPiece(pos);
+    /**
+     * @return the Zobrist key of the position: piece placement, side to move,
+     * castling rights and en passant file. Equal positions always have equal keys.
+     */
+    public long zobristKey() {
+        long key = board.zobristKey() ^ Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantSquare);
+        if (currentTurn == TeamColor.BLACK) {
+            key ^= Zobrist.blackToMove();
+        }
+        return key;
+    }
+
+    private long boardAndTurnKey() {
+        long key = board.zobristKey();
+        return (currentTurn == TeamColor.BLACK) ? key ^ Zobrist.blackToMove() : key;
+    }
+
+    /**
+     * Static evaluation of the position from the side to move's point of view,
+     * as a negamax search wants it. See {@link ChessBoard#evaluate()} for the
+     * White-relative score.
+     *
+     * @return the evaluation in centipawns; positive favours the side to move
+     */
+    public int evaluate() {
+        int score = board.evaluate();
+        return (currentTurn == TeamColor.WHITE) ? score : -score;
+    }
 
-            if (piece != null && piece.getTeamColor() == teamColor) {
-                for (ChessMove move : piece.pieceMoves(board, pos)) {
-                    if (moveLeavesKingSafe(move, teamColor)) {
-                        return true;
-                    }
-                }
-            }
+    /**
+     * @return how many moves can currently be taken back with {@link #undoMove()}
+     */
+    public int undoDepth() {
+        return undoStack.size();
+    }
+
+    // Helpers
+    /**
+     * Fills the list with the legal moves of the piece on the given square
+     */
+    private void validMoves(int square, MoveList moves) {
+        moves.clear();
+        ChessPiece piece = board.getPiece(square);
+        if (piece == null) {
+            return;
         }
-        return false;
+        generateLegal(piece.getTeamColor(), 1L << square, moves);
+    }
+
+    private boolean hasAnyValidMove(TeamColor teamColor) {
+        legalMoves(teamColor, candidateMoves);
+        return !candidateMoves.isEmpty();
+    }
+
+    /**
+     * Fills a caller-owned list with every legal move for the given team, as
+     * {@link PackedMove} ints. Pins and checks are worked out once for the whole
+     * side rather than by trying each move.
+     *
+     * @param teamColor the team to generate moves for
+     * @param moves     the list to fill; it is cleared first
+     */
+    public void legalMoves(TeamColor teamColor, MoveList moves) {
+        moves.clear();
+        generateLegal(teamColor, -1L, moves);
+    }
+
+    private void generateLegal(TeamColor teamColor, long fromMask, MoveList moves) {
+        // Only the side to move can capture en passant
+        int enPassant = (teamColor == currentTurn) ? enPassantSquare : -1;
+        MoveGenerator.generateLegal(board, teamColor, castlingRights, enPassant, fromMask, moves);
+    }
+
+    /**
+     * Gets every legal move for the given team
+     *
+     * @param teamColor the team to get moves for
+     * @return the legal moves of all of the team's pieces
+     */
+    public Collection<ChessMove> legalMoves(TeamColor teamColor) {
+        legalMoves(teamColor, candidateMoves);
+
+        Collection<ChessMove> moves = new ArrayList<>(candidateMoves.size());
+        candidateMoves.addTo(moves);
+        return moves;
     }
 
     /**
@@ -105,19 +467,10 @@ public class ChessGame {
      * startPosition
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        Collection<ChessMove> valid = new ArrayList<>();
-        ChessPiece piece = board.getPiece(startPosition);
-
-        if (piece == null) {
-            return valid;
-        }
-
-        for (ChessMove move : piece.pieceMoves(board, startPosition)) {
-            if (moveLeavesKingSafe(move, piece.getTeamColor())) {
-                valid.add(move);
-            }
-        }
+        validMoves(ChessBoard.squareIndex(startPosition), candidateMoves);
 
+        Collection<ChessMove> valid = new ArrayList<>(candidateMoves.size());
+        candidateMoves.addTo(valid);
         return valid;
     }
 
@@ -128,26 +481,78 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        Collection<ChessMove> validMoves = validMoves(move.getStartPosition());
-        if (validMoves.contains(move)) {
-            ChessPiece piece = this.board.getPiece(move.getStartPosition());
-            if (piece.getTeamColor() != this.currentTurn) {
-                throw new InvalidMoveException();
-            }
-            if (move.getPromotionPiece() != null) {
-                piece = new ChessPiece(piece.getTeamColor(),move.getPromotionPiece());
-            }
-            this.board.addPiece(move.getEndPosition(), piece);
-            this.board.addPiece(move.getStartPosition(), null);
-
-            if (piece.getTeamColor() == TeamColor.BLACK) {
-                setTeamTurn(TeamColor.WHITE);
-            } else {
-                setTeamTurn(TeamColor.BLACK);
-            }
-        } else {
+        if (!isOnBoard(move.getStartPosition()) || !isOnBoard(move.getEndPosition())) {
+            throw new InvalidMoveException();
+        }
+        int packed = PackedMove.fromChessMove(move);
+        if (!isLegalMove(packed)) {
             throw new InvalidMoveException();
         }
+        GameTimeline moves = getTimeline();
+        doMove(packed);
+        computeStatus();
+        snapshot();
+        moves.record(packed, this);
+    }
+
+    /**
+     * Gets the moves played with {@link #makeMove(ChessMove)}. Moves taken back
+     * with {@link #undoMove()} come off the timeline too. It starts over from
+     * the current position if the game was changed any other way since the
+     * last move, such as by {@link #setBoard}.
+     *
+     * @return the timeline ending at the current position
+     */
+    public GameTimeline getTimeline() {
+        if (timeline == null || !timeline.endsAt(zobristKey(), plyCount)) {
+            timeline = new GameTimeline(snapshot());
+        }
+        return timeline;
+    }
+
+    /**
+     * Takes back moves played with {@link #makeMove(ChessMove)}, rebuilding the
+     * earlier position from the nearest checkpoint in the timeline
+     *
+     * @param plies how many moves to take back
+     * @throws IllegalArgumentException if the timeline has fewer moves
+     */
+    public void takeBack(int plies) {
+        GameTimeline moves = getTimeline();
+        if (plies < 0 || plies > moves.size()) {
+            throw new IllegalArgumentException("Cannot take back " + plies + " of " + moves.size() + " moves");
+        }
+        // Rewinding copies a checkpoint into this game, which drops the timeline
+        moves.rewind(moves.size() - plies, this);
+        timeline = moves;
+        computeStatus();
+        snapshot();
+    }
+
+    /**
+     * Checks a move for the side to move. Right after {@link #makeMove} has
+     * worked out the status this is a bitset lookup; otherwise only the moving
+     * piece's moves are generated.
+     *
+     * @param move a {@link PackedMove}; flags are ignored
+     * @return whether the move is legal for the side to move
+     */
+    public boolean isLegalMove(int move) {
+        if (cachedStatus() != null) {
+            return legalMoveSet.contains(move);
+        }
+        int from = PackedMove.from(move);
+        ChessPiece piece = board.getPiece(from);
+        if (piece == null || piece.getTeamColor() != currentTurn) {
+            return false;
+        }
+        validMoves(from, candidateMoves);
+        return candidateMoves.indexOf(move) >= 0;
+    }
+
+    private static boolean isOnBoard(ChessPosition position) {
+        return position != null && position.getRow() >= 1 && position.getRow() <= 8
+                && position.getColumn() >= 1 && position.getColumn() <= 8;
     }
 
     /**
@@ -157,31 +562,12 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        Collection<ChessPosition> opposingPiecesPositions = new ArrayList<>();
-        ChessPosition kingPos = new ChessPosition(1,1);
-        for (int i = 1; i < 9; i++) {
-            for (int j = 1; j < 9; j++) {
-                ChessPosition pos = new ChessPosition(i,j);
-                ChessPiece piece = this.board.getPiece(pos);
-                if (piece != null && piece.getTeamColor() != teamColor) {
-                    opposingPiecesPositions.add(pos);
-                } else if (piece != null && piece.getTeamColor() == teamColor && piece.getPieceType() == ChessPiece.PieceType.KING) {
-                    kingPos = pos;
-                }
-            }
+        GameStatus cached = (teamColor == currentTurn) ? cachedStatus() : null;
+        if (cached != null) {
+            return cached.inCheck();
         }
-
-        for (ChessPosition opPos : opposingPiecesPositions) {
-            ChessPiece opPiece = this.board.getPiece(opPos);
-            Collection<ChessMove> moves = opPiece.pieceMoves(this.board, opPos);
-            for (ChessMove move : moves) {
-                if (move.getEndPosition().equals(kingPos)) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
+        int kingSquare = board.kingSquare(teamColor);
+        return kingSquare >= 0 && board.isSquareAttacked(kingSquare, opponentOf(teamColor));
     }
 
     /**
@@ -191,6 +577,9 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
+        if (teamColor == currentTurn) {
+            return getStatus().result() == GameStatus.Result.CHECKMATE;
+        }
         if (!isInCheck(teamColor)) {
             return false;
         }
@@ -205,6 +594,9 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
+        if (teamColor == currentTurn) {
+            return getStatus().result() == GameStatus.Result.STALEMATE;
+        }
         if (isInCheck(teamColor)) {
             return false;
         }
@@ -212,12 +604,71 @@ public class ChessGame {
     }
 
     /**
-     * Sets this game's chessboard with a given board
+     * Sets this game's chessboard with a given board. The board has no move
+     * history, so castling is allowed wherever a king and rook stand on their
+     * starting squares, no en passant capture is possible and the halfmove clock
+     * starts at zero.
      *
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
+        castlingRights = CastlingRights.fromBoard(board);
+        enPassantSquare = -1;
+        plyCount = 0;
+        history.clear();
+        undoStack.clear();
+        status = null;
+        timeline = null;
+    }
+
+    /**
+     * Sets the state a position on this game's board cannot show, as read from
+     * FEN, for a game that has not ended. Rights to castle with a king or rook
+     * that is not on its starting square are dropped, and so is an en passant
+     * square no pawn can capture on, so the position key matches the same
+     * position reached by moves.
+     *
+     * @param enPassantSquare the square a double push just skipped, or -1
+     * @param fullmoveNumber  the number of the move being played, from 1
+     */
+    void setPosition(TeamColor toMove, int castlingRights, int enPassantSquare, int halfmoveClock,
+                     int fullmoveNumber) {
+        currentTurn = toMove;
+        gameEnded = false;
+        this.castlingRights = castlingRights & CastlingRights.fromBoard(board);
+        this.enPassantSquare = (enPassantSquare < 0) ? -1 : enPassantTarget(enPassantSquare, toMove);
+        plyCount = 2 * (fullmoveNumber - 1) + toMove.ordinal();
+        history.restart(halfmoveClock);
+        undoStack.clear();
+        status = null;
+        timeline = null;
+    }
+
+    /**
+     * @return the number of the move being played, starting from 1 and
+     * increasing after each Black move
+     */
+    public int getFullmoveNumber() {
+        return plyCount / 2 + 1;
+    }
+
+    /**
+     * @return the position in Forsyth-Edwards Notation
+     */
+    public String toFen() {
+        return Fen.write(this);
+    }
+
+    /**
+     * Creates a game at a position written in Forsyth-Edwards Notation
+     *
+     * @throws IllegalArgumentException if the text is not valid FEN
+     */
+    public static ChessGame fromFen(CharSequence fen) {
+        ChessGame game = new ChessGame();
+        Fen.read(fen, game);
+        return game;
     }
 
     /**
@@ -231,7 +682,7 @@ public class ChessGame {
 
     @Override
     public int hashCode() {
-        return Objects.hash(board, currentTurn);
+        return Long.hashCode(boardAndTurnKey());
     }
 
     @Override
@@ -244,7 +695,12 @@ public class ChessGame {
             return false;
         }
 
+        // Games are equal on board and turn alone, as they always have been;
+        // castling rights and the en passant square are not compared
         ChessGame casted = (ChessGame) obj;
+        if (this.boardAndTurnKey() != casted.boardAndTurnKey()) {
+            return false;
+        }
 
         return Objects.equals(this.getBoard(), casted.getBoard())
                 && Objects.equals(this.getTeamTurn(), casted.getTeamTurn());
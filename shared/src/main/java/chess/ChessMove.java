@@ -63,6 +63,8 @@ public class ChessMove {
 
     @Override
     public int hashCode() {
-        return Objects.hash(startPosition, endPosition, promotionPiece);
+        // Same spread as Objects.hash without allocating its varargs array
+        int result = 31 * Objects.hashCode(startPosition) + Objects.hashCode(endPosition);
+        return 31 * result + Objects.hashCode(promotionPiece);
     }
 }
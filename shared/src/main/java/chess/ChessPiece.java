@@ -1,20 +1,33 @@
 package chess;
 
-import javax.naming.event.ObjectChangeListener;
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Collection;
-import java.util.List;
-import java.util.Objects;
 import java.util.ArrayList;
 
 /**
  * Represents a single chess piece
  * <p>
+ * The 12 color/type combinations are interned; {@link #of(ChessGame.TeamColor, PieceType)}
+ * returns the shared instance. Pieces have no setters, so sharing them is safe.
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessPieceAdapter.class)
 public class ChessPiece {
-    private ChessGame.TeamColor teamColor;
-    private ChessPiece.PieceType type;
+    private final ChessGame.TeamColor teamColor;
+    private final ChessPiece.PieceType type;
+
+    private static final ChessPiece[] CANONICAL = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType pieceType : PieceType.values()) {
+                CANONICAL[color.ordinal() * 6 + pieceType.ordinal()] = new ChessPiece(color, pieceType);
+            }
+        }
+    }
 
     public ChessPiece(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
         this.teamColor = pieceColor;
@@ -33,6 +46,15 @@ public class ChessPiece {
         PAWN
     }
 
+    /**
+     * Gets the shared instance for a piece
+     *
+     * @return the interned piece of the given color and type
+     */
+    public static ChessPiece of(ChessGame.TeamColor color, PieceType type) {
+        return CANONICAL[color.ordinal() * 6 + type.ordinal()];
+    }
+
     /**
      * @return Which team this chess piece belongs to
      */
@@ -47,154 +69,79 @@ public class ChessPiece {
         return this.type;
     }
 
-    private boolean isInBounds(ChessPosition position) {
-        return ((position.getRow() >= 1)
-                && (position.getColumn() >= 1)
-                && (position.getRow() <= 8)
-                && (position.getColumn() <= 8));
-    }
-
-    private boolean isOccupied(ChessBoard board, ChessPosition pos) {
-        ChessPiece piece = board.getPiece(pos);
-        return (piece != null);
-    }
-
-    private ChessPosition getPositionFromVector(ChessBoard board, ChessPosition startPos, int drow, int dcol, int range) {
-        int rowdx = drow * range;
-        int coldx = dcol * range;
-        return new ChessPosition(startPos.getRow() + rowdx,startPos.getColumn() + coldx);
+    private static void addMovesTo(MoveList moves, int from, long targets, long enemies) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int flags = ((enemies >>> to) & 1L) != 0 ? PackedMove.CAPTURE : 0;
+            moves.add(PackedMove.of(from, to) | flags);
+        }
     }
 
-    private Collection<ChessMove> getMovesInDirection(ChessBoard board, ChessPosition startPos, int drow, int dcol, int range) {
-        Collection<ChessMove> openMoves = new ArrayList<>();
-        for (int i = 1; i <= range; i++) {
-            boolean lastLoop = false;
-            ChessPosition targetPos = getPositionFromVector(board, startPos, drow, dcol, i);
-            ChessMove targetMove = new ChessMove(startPos, targetPos, null);
-            if (!(isInBounds(targetPos))) {
-                break;
-            }
-            if (isOccupied(board, targetPos)) {
-                ChessGame.TeamColor occupyingPieceColor = board.getPiece(targetPos).teamColor;
-                if (occupyingPieceColor.equals(this.getTeamColor())) {
-                    break;
-                } else {
-                    lastLoop = true;
-                }
+    private static void addPawnMovesTo(MoveList moves, int from, long targets, long enemies) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int flags = ((enemies >>> to) & 1L) != 0 ? PackedMove.CAPTURE : 0;
+            if (to - from == 16 || from - to == 16) {
+                flags |= PackedMove.DOUBLE_PUSH;
             }
-            openMoves.add(targetMove);
-            if (lastLoop) {
-                break;
+            if (((1L << to) & (Bitboards.RANK_1 | Bitboards.RANK_8)) != 0) {
+                moves.add(PackedMove.of(from, to, PieceType.BISHOP) | flags);
+                moves.add(PackedMove.of(from, to, PieceType.QUEEN) | flags);
+                moves.add(PackedMove.of(from, to, PieceType.ROOK) | flags);
+                moves.add(PackedMove.of(from, to, PieceType.KNIGHT) | flags);
+            } else {
+                moves.add(PackedMove.of(from, to) | flags);
             }
         }
-        return openMoves;
     }
 
-    private Collection<ChessMove> getMovesInDirections(ChessBoard board, ChessPosition startPos, int range, int[][] directions) {
-        Collection<ChessMove> moves = new ArrayList<>();
-        for (int[] dir : directions) {
-            int dRow = dir[0];
-            int dCol = dir[1];
-            moves.addAll(getMovesInDirection(board, startPos, dRow, dCol, range));
+    /**
+     * @return bitboard of the squares this piece could move to from the square,
+     * ignoring whether the move leaves the king in danger
+     */
+    long pseudoTargets(ChessBoard board, int square) {
+        if (type == PieceType.PAWN) {
+            return pawnTargets(board, square);
         }
-        return moves;
+        return Bitboards.attacks(type, square, board.occupied()) & ~board.pieces(teamColor);
     }
 
-    private Collection<ChessMove> finalizePawnMove(ChessMove move, int targetRow) {
-        if ((targetRow == 1 && teamColor == ChessGame.TeamColor.BLACK) ||
-                (targetRow == 8 && teamColor == ChessGame.TeamColor.WHITE)) {
-            return getAllPromotionsForMove(move);
+    /**
+     * Appends one move per target square (four for pawn promotions) to the list
+     */
+    void addMoves(ChessBoard board, int square, long targets, MoveList moves) {
+        long enemies = board.pieces(opposite(teamColor));
+        if (type == PieceType.PAWN) {
+            addPawnMovesTo(moves, square, targets, enemies);
+        } else {
+            addMovesTo(moves, square, targets, enemies);
         }
-
-        Collection<ChessMove> moves = new ArrayList<>();
-        moves.add(move);
-        return moves;
-    }
-
-    private boolean isPawnStartingRow(int row) {
-        return (teamColor == ChessGame.TeamColor.WHITE && row == 2) ||
-                (teamColor == ChessGame.TeamColor.BLACK && row == 7);
-    }
-
-    private Collection<ChessMove> getAllPromotionsForMove(ChessMove move) {
-        Collection<ChessMove> moves = new ArrayList<>();
-        moves.add(new ChessMove(move.getStartPosition(), move.getEndPosition(), PieceType.BISHOP));
-        moves.add(new ChessMove(move.getStartPosition(), move.getEndPosition(), PieceType.QUEEN));
-        moves.add(new ChessMove(move.getStartPosition(), move.getEndPosition(), PieceType.ROOK));
-        moves.add(new ChessMove(move.getStartPosition(), move.getEndPosition(), PieceType.KNIGHT));
-        return moves;
     }
 
-    private Collection<ChessMove> getDiagonalPawnMove(ChessBoard board, ChessPosition startPos, ChessPosition targetPos) {
-        ChessPiece target = board.getPiece(targetPos);
+    private long pawnTargets(ChessBoard board, int square) {
+        long enemies = board.pieces(opposite(teamColor));
+        long empty = ~board.occupied();
+        long targets = Bitboards.pawnAttacks(teamColor, square) & enemies;
 
-        if (target == null || target.getTeamColor() == teamColor) {
-            return null;
+        boolean white = teamColor == ChessGame.TeamColor.WHITE;
+        int forward = white ? square + 8 : square - 8;
+        if (forward < 0 || forward > 63 || (empty & (1L << forward)) == 0) {
+            return targets;
         }
+        targets |= 1L << forward;
 
-        ChessMove move = new ChessMove(startPos, targetPos, null);
-        return finalizePawnMove(move, targetPos.getRow());
-    }
-
-    private Collection<ChessMove> getStraightPawnMove(ChessBoard board, ChessPosition startPos, ChessPosition targetPos) {
-        if (board.getPiece(targetPos) != null) {
-            return null;
+        int startRow = white ? 1 : 6;
+        int doubleStep = white ? square + 16 : square - 16;
+        if ((square >>> 3) == startRow && (empty & (1L << doubleStep)) != 0) {
+            targets |= 1L << doubleStep;
         }
-
-        ChessMove move = new ChessMove(startPos, targetPos, null);
-        return finalizePawnMove(move, targetPos.getRow());
+        return targets;
     }
 
-    private Collection<ChessMove> getPawnMoves(ChessBoard board, ChessPosition startPos, int rowdx) {
-
-        Collection<ChessMove> moves = new ArrayList<>();
-
-        int[] diagCols = {1, -1};
-
-        for (int coldx : diagCols) {
-            ChessPosition diag =
-                    getPositionFromVector(board, startPos, rowdx, coldx, 1);
-
-            if (isInBounds(diag)) {
-                Collection<ChessMove> movesToAdd =
-                        getDiagonalPawnMove(board, startPos, diag);
-
-                if (movesToAdd != null) {
-                    moves.addAll(movesToAdd);
-                }
-            }
-        }
-
-        boolean spaceOneOpen = false;
-
-        ChessPosition forward =
-                getPositionFromVector(board, startPos, rowdx, 0, 1);
-
-        if (isInBounds(forward)) {
-            Collection<ChessMove> movesToAdd =
-                    getStraightPawnMove(board, startPos, forward);
-
-            if (movesToAdd != null) {
-                moves.addAll(movesToAdd);
-                spaceOneOpen = true;
-            }
-        }
-
-        if (spaceOneOpen && isPawnStartingRow(startPos.getRow())) {
-            ChessPosition doubleStep =
-                    getPositionFromVector(board, startPos, rowdx, 0, 2);
-
-            if (isInBounds(doubleStep)) {
-                Collection<ChessMove> movesToAdd =
-                        getStraightPawnMove(board, startPos, doubleStep);
-
-                if (movesToAdd != null) {
-                    moves.addAll(movesToAdd);
-                }
-            }
-        }
-
-        return moves;
+    private static ChessGame.TeamColor opposite(ChessGame.TeamColor color) {
+        return (color == ChessGame.TeamColor.WHITE) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
     }
 
     /**
@@ -205,74 +152,27 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> possibleMoves = new ArrayList<>();
-
-        switch (this.getPieceType()) {
-            case KING -> {
-                return getMovesInDirections(board, myPosition,1, new int[][] {
-                        {0,1},
-                        {1,1},
-                        {1,0},
-                        {1,-1},
-                        {0,-1},
-                        {-1,-1},
-                        {-1,0},
-                        {-1,1},
-                });
-            }
-            case QUEEN -> {
-                return getMovesInDirections(board, myPosition,8, new int[][] {
-                        {0,1},
-                        {1,1},
-                        {1,0},
-                        {1,-1},
-                        {0,-1},
-                        {-1,-1},
-                        {-1,0},
-                        {-1,1},
-                });
-            }
-            case BISHOP -> {
-                return getMovesInDirections(board, myPosition,8, new int[][] {
-                        {1,1},
-                        {1,-1},
-                        {-1,-1},
-                        {-1,1},
-                });
-            }
-            case ROOK -> {
-                return getMovesInDirections(board, myPosition,8, new int[][] {
-                        {0,1},
-                        {1,0},
-                        {0,-1},
-                        {-1,0},
-                });
-            }
-            case KNIGHT -> {
-                return getMovesInDirections(board, myPosition,1, new int[][] {
-                        {1,2},
-                        {2,1},
-                        {2,-1},
-                        {1,-2},
-                        {-1,-2},
-                        {-2,-1},
-                        {-2,1},
-                        {-1,2},
-                });
-            }
-            case PAWN -> {
-                int rowdx;
-                if (this.getTeamColor().equals(ChessGame.TeamColor.WHITE)) {
-                    rowdx = 1;
-                } else {
-                    rowdx = -1;
-                }
+        MoveList moves = new MoveList(32);
+        pieceMoves(board, ChessBoard.squareIndex(myPosition), moves);
 
-                return getPawnMoves(board, myPosition, rowdx);
-            }
-        }
+        Collection<ChessMove> possibleMoves = new ArrayList<>(moves.size());
+        moves.addTo(possibleMoves);
         return possibleMoves;
-    };
+    }
+
+    /**
+     * Appends all the moves this piece can make from the given square to a
+     * caller-owned move list, as {@link PackedMove} ints. Like
+     * {@link #pieceMoves(ChessBoard, ChessPosition)}, this does not take into
+     * account moves that leave the king in danger.
+     *
+     * @param board  the board the piece is on
+     * @param square the 0-63 square the piece is on
+     * @param moves  the list to append to
+     */
+    public void pieceMoves(ChessBoard board, int square, MoveList moves) {
+        addMoves(board, square, pseudoTargets(board, square), moves);
+    }
 
     @Override
     public boolean equals(Object obj) {
@@ -287,12 +187,14 @@ public class ChessPiece {
 
         ChessPiece chessPieceObj = (ChessPiece) obj;
 
-        return Objects.equals(chessPieceObj.getPieceType(), this.getPieceType())
-                && Objects.equals(chessPieceObj.getTeamColor(), this.getTeamColor());
+        return chessPieceObj.type == this.type
+                && chessPieceObj.teamColor == this.teamColor;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(teamColor, type);
+        int color = (teamColor == null) ? 0 : teamColor.ordinal() + 1;
+        int pieceType = (type == null) ? 0 : type.ordinal() + 1;
+        return color * 7 + pieceType;
     }
 }
@@ -0,0 +1,53 @@
+package chess;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes a {@link ChessPiece} in its usual {"teamColor", "type"} JSON
+ * form, resolving parsed pieces to the interned instances.
+ */
+class ChessPieceAdapter extends TypeAdapter<ChessPiece> {
+
+    @Override
+    public void write(JsonWriter out, ChessPiece piece) throws IOException {
+        out.beginObject();
+        if (piece.getTeamColor() != null) {
+            out.name("teamColor").value(piece.getTeamColor().name());
+        }
+        if (piece.getPieceType() != null) {
+            out.name("type").value(piece.getPieceType().name());
+        }
+        out.endObject();
+    }
+
+    @Override
+    public ChessPiece read(JsonReader in) throws IOException {
+        ChessGame.TeamColor color = null;
+        ChessPiece.PieceType type = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "teamColor" -> color = ChessGame.TeamColor.valueOf(in.nextString());
+                case "type" -> type = ChessPiece.PieceType.valueOf(in.nextString());
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (color == null || type == null) {
+            return new ChessPiece(color, type);
+        }
+        return ChessPiece.of(color, type);
+    }
+}
@@ -1,22 +1,54 @@
 package chess;
 
-import java.util.Objects;
+import com.google.gson.annotations.JsonAdapter;
 
 /**
  * Represents a single square position on a chess board
  * <p>
+ * The 64 on-board positions are interned; {@link #of(int, int)} returns the
+ * shared instance so hot paths do not allocate positions.
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessPositionAdapter.class)
 public class ChessPosition {
-    private int row;
-    private int col;
+    private static final ChessPosition[] CANONICAL = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            CANONICAL[square] = new ChessPosition((square >>> 3) + 1, (square & 7) + 1);
+        }
+    }
+
+    private final int row;
+    private final int col;
 
     public ChessPosition(int row, int col) {
         this.row = row;
         this.col = col;
     }
 
+    /**
+     * Gets the shared instance for a position
+     *
+     * @return the interned position for on-board coordinates, or a new position
+     * for anything off the board
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return CANONICAL[(row - 1) * 8 + (col - 1)];
+    }
+
+    /**
+     * @return the interned position of a 0-63 square index (a1 = 0)
+     */
+    public static ChessPosition of(int square) {
+        return CANONICAL[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -35,7 +67,7 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        return 31 * row + col;
     }
 
     @Override
@@ -44,13 +76,13 @@ public class ChessPosition {
             return true;
         }
 
-        if (!(this.getClass() == obj.getClass())) {
+        if (obj == null || !(this.getClass() == obj.getClass())) {
             return false;
         }
 
         ChessPosition chessPositionObj = (ChessPosition) obj;
 
-        return Objects.equals(chessPositionObj.getColumn(), this.getColumn())
-                && Objects.equals(chessPositionObj.getRow(), this.getRow());
+        return chessPositionObj.col == this.col
+                && chessPositionObj.row == this.row;
     }
 }
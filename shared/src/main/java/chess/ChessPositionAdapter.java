@@ -0,0 +1,40 @@
+package chess;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes a {@link ChessPosition} in its usual {"row", "col"} JSON form,
+ * resolving parsed positions to the interned instances.
+ */
+class ChessPositionAdapter extends TypeAdapter<ChessPosition> {
+
+    @Override
+    public void write(JsonWriter out, ChessPosition position) throws IOException {
+        out.beginObject();
+        out.name("row").value(position.getRow());
+        out.name("col").value(position.getColumn());
+        out.endObject();
+    }
+
+    @Override
+    public ChessPosition read(JsonReader in) throws IOException {
+        int row = 0;
+        int col = 0;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "row" -> row = in.nextInt();
+                case "col" -> col = in.nextInt();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return ChessPosition.of(row, col);
+    }
+}
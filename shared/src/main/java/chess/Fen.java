@@ -0,0 +1,276 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation, e.g.
+ * {@code rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1}.
+ * <p>
+ * The parser walks the text one character at a time and writes straight into
+ * an existing board or game, so reading allocates nothing. Only the piece
+ * placement and side to move are required; missing castling, en passant and
+ * clock fields default to none, none, 0 and 1, which also accepts the four
+ * field EPD form.
+ * <p>
+ * The en passant field is written only when a pawn can actually capture
+ * there, as {@link ChessGame} records it; readers accept it either way.
+ */
+public final class Fen {
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private Fen() {
+    }
+
+    /**
+     * Sets up a game at a FEN position, reusing its board. The game has no
+     * moves to undo and no earlier positions to repeat afterwards.
+     *
+     * @throws IllegalArgumentException if the text is not valid FEN; the game
+     *                                  is then left in an unspecified state
+     */
+    public static void read(CharSequence fen, ChessGame game) {
+        int index = readPlacement(fen, game.getBoard());
+        int length = fen.length();
+
+        index = skipSpaces(fen, index);
+        if (index >= length) {
+            throw invalid(fen);
+        }
+        ChessGame.TeamColor toMove = switch (fen.charAt(index++)) {
+            case 'w', 'W' -> ChessGame.TeamColor.WHITE;
+            case 'b', 'B' -> ChessGame.TeamColor.BLACK;
+            default -> throw invalid(fen);
+        };
+        requireFieldEnd(fen, index);
+
+        int castling = CastlingRights.NONE;
+        index = skipSpaces(fen, index);
+        if (index < length && fen.charAt(index) == '-') {
+            index++;
+        } else {
+            for (; index < length && fen.charAt(index) != ' '; index++) {
+                castling |= switch (fen.charAt(index)) {
+                    case 'K' -> CastlingRights.WHITE_KINGSIDE;
+                    case 'Q' -> CastlingRights.WHITE_QUEENSIDE;
+                    case 'k' -> CastlingRights.BLACK_KINGSIDE;
+                    case 'q' -> CastlingRights.BLACK_QUEENSIDE;
+                    default -> throw invalid(fen);
+                };
+            }
+        }
+        requireFieldEnd(fen, index);
+
+        int enPassant = -1;
+        index = skipSpaces(fen, index);
+        if (index < length && fen.charAt(index) == '-') {
+            index++;
+        } else if (index + 1 < length) {
+            int file = fen.charAt(index) - 'a';
+            int rank = fen.charAt(index + 1) - '1';
+            if (file < 0 || file > 7 || (rank != 2 && rank != 5)) {
+                throw invalid(fen);
+            }
+            enPassant = rank * 8 + file;
+            index += 2;
+        }
+        requireFieldEnd(fen, index);
+
+        index = skipSpaces(fen, index);
+        int halfmoveClock = 0;
+        if (index < length) {
+            halfmoveClock = readNumber(fen, index);
+            index = skipDigits(fen, index);
+        }
+        requireFieldEnd(fen, index);
+
+        index = skipSpaces(fen, index);
+        int fullmoveNumber = 1;
+        if (index < length) {
+            fullmoveNumber = Math.max(1, readNumber(fen, index));
+            index = skipDigits(fen, index);
+        }
+        if (skipSpaces(fen, index) != length) {
+            throw invalid(fen);
+        }
+
+        game.setPosition(toMove, castling, enPassant, halfmoveClock, fullmoveNumber);
+    }
+
+    /**
+     * Reads the piece placement field, the first field of a FEN record, into a
+     * board; anything after it is ignored
+     *
+     * @return the index just past the placement field
+     * @throws IllegalArgumentException if the placement is not eight ranks of
+     *                                  eight squares
+     */
+    public static int readPlacement(CharSequence fen, ChessBoard board) {
+        board.clear();
+        int length = fen.length();
+        int index = skipSpaces(fen, 0);
+        int rank = 7;
+        int file = 0;
+        for (; index < length; index++) {
+            char c = fen.charAt(index);
+            if (c == ' ') {
+                break;
+            }
+            if (c == '/') {
+                if (file != 8 || rank == 0) {
+                    throw invalid(fen);
+                }
+                rank--;
+                file = 0;
+            } else if (c >= '1' && c <= '8') {
+                file += c - '0';
+            } else {
+                ChessPiece piece = pieceOf(c);
+                if (piece == null || file > 7) {
+                    throw invalid(fen);
+                }
+                board.setSquare(rank * 8 + file, piece);
+                file++;
+            }
+            if (file > 8) {
+                throw invalid(fen);
+            }
+        }
+        if (rank != 0 || file != 8) {
+            throw invalid(fen);
+        }
+        return index;
+    }
+
+    /**
+     * @return the game's position as a full six-field FEN record
+     */
+    public static String write(ChessGame game) {
+        StringBuilder text = new StringBuilder(90);
+        append(game, text);
+        return text.toString();
+    }
+
+    /**
+     * Appends the game's position as a full six-field FEN record
+     */
+    public static void append(ChessGame game, StringBuilder text) {
+        appendPlacement(game.getBoard(), text);
+        text.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+
+        int castling = game.getCastlingRights();
+        if (castling == CastlingRights.NONE) {
+            text.append('-');
+        } else {
+            if ((castling & CastlingRights.WHITE_KINGSIDE) != 0) {
+                text.append('K');
+            }
+            if ((castling & CastlingRights.WHITE_QUEENSIDE) != 0) {
+                text.append('Q');
+            }
+            if ((castling & CastlingRights.BLACK_KINGSIDE) != 0) {
+                text.append('k');
+            }
+            if ((castling & CastlingRights.BLACK_QUEENSIDE) != 0) {
+                text.append('q');
+            }
+        }
+
+        int enPassant = game.getEnPassantSquare();
+        if (enPassant < 0) {
+            text.append(" -");
+        } else {
+            text.append(' ').append((char) ('a' + (enPassant & 7))).append((char) ('1' + (enPassant >>> 3)));
+        }
+        text.append(' ').append(game.getHalfmoveClock()).append(' ').append(game.getFullmoveNumber());
+    }
+
+    /**
+     * Appends a board's piece placement field, rank 8 first
+     */
+    public static void appendPlacement(ChessBoard board, StringBuilder text) {
+        for (int rank = 7; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < 8; file++) {
+                ChessPiece piece = board.getPiece(rank * 8 + file);
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    text.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                text.append(letterOf(piece));
+            }
+            if (empty > 0) {
+                text.append((char) ('0' + empty));
+            }
+            if (rank > 0) {
+                text.append('/');
+            }
+        }
+    }
+
+    private static ChessPiece pieceOf(char c) {
+        ChessGame.TeamColor color = (c >= 'a') ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        ChessPiece.PieceType type = switch (c) {
+            case 'K', 'k' -> ChessPiece.PieceType.KING;
+            case 'Q', 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'B', 'b' -> ChessPiece.PieceType.BISHOP;
+            case 'N', 'n' -> ChessPiece.PieceType.KNIGHT;
+            case 'R', 'r' -> ChessPiece.PieceType.ROOK;
+            case 'P', 'p' -> ChessPiece.PieceType.PAWN;
+            default -> null;
+        };
+        return (type == null) ? null : ChessPiece.of(color, type);
+    }
+
+    private static char letterOf(ChessPiece piece) {
+        char letter = switch (piece.getPieceType()) {
+            case KING -> 'k';
+            case QUEEN -> 'q';
+            case BISHOP -> 'b';
+            case KNIGHT -> 'n';
+            case ROOK -> 'r';
+            case PAWN -> 'p';
+        };
+        return (piece.getTeamColor() == ChessGame.TeamColor.WHITE) ? Character.toUpperCase(letter) : letter;
+    }
+
+    private static int skipSpaces(CharSequence fen, int index) {
+        while (index < fen.length() && fen.charAt(index) == ' ') {
+            index++;
+        }
+        return index;
+    }
+
+    private static int skipDigits(CharSequence fen, int index) {
+        while (index < fen.length() && fen.charAt(index) >= '0' && fen.charAt(index) <= '9') {
+            index++;
+        }
+        return index;
+    }
+
+    private static int readNumber(CharSequence fen, int index) {
+        int end = skipDigits(fen, index);
+        if (end == index || end - index > 6) {
+            throw invalid(fen);
+        }
+        int value = 0;
+        for (int i = index; i < end; i++) {
+            value = value * 10 + (fen.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Fields are separated by spaces, so a field must end at one or at the end
+     */
+    private static void requireFieldEnd(CharSequence fen, int index) {
+        if (index < fen.length() && fen.charAt(index) != ' ') {
+            throw invalid(fen);
+        }
+    }
+
+    private static IllegalArgumentException invalid(CharSequence fen) {
+        return new IllegalArgumentException("Not a FEN position: " + fen);
+    }
+}
@@ -0,0 +1,38 @@
+package chess;
+
+/**
+ * Where a game stands for the side to move, worked out with one legal-move
+ * enumeration. {@link ChessGame#getStatus()} keeps the latest one and answers
+ * from it until the position changes.
+ *
+ * @param sideToMove the team whose turn it is
+ * @param inCheck    whether the side to move is in check
+ * @param legalMoves how many legal moves the side to move has
+ * @param result     whether the game goes on, and how it ended if not
+ */
+public record GameStatus(
+        ChessGame.TeamColor sideToMove,
+        boolean inCheck,
+        int legalMoves,
+        Result result) {
+
+    public enum Result {
+        ONGOING,
+        CHECKMATE,
+        STALEMATE,
+        DRAW_BY_REPETITION,
+        DRAW_BY_FIFTY_MOVE_RULE
+    }
+
+    public boolean isOver() {
+        return result != Result.ONGOING;
+    }
+
+    /**
+     * @return whether the game is drawn by threefold repetition or the
+     * fifty-move rule; stalemate is reported separately
+     */
+    public boolean isRuleDraw() {
+        return result == Result.DRAW_BY_REPETITION || result == Result.DRAW_BY_FIFTY_MOVE_RULE;
+    }
+}
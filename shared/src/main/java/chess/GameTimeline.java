@@ -0,0 +1,224 @@
+package chess;
+
+import com.google.gson.annotations.JsonAdapter;
+
+import java.util.Arrays;
+
+/**
+ * The moves of a game from its starting position, kept so any earlier position
+ * can be looked at again or returned to.
+ * <p>
+ * Each move is stored in two bytes as its {@link PackedMove#toShort 16-bit
+ * identity}, and a {@link BoardSnapshot} is kept every {@link #interval()}
+ * plies. A position is rebuilt by copying the checkpoint at or before it and
+ * replaying fewer than {@code interval} moves, so looking up any ply costs the
+ * same however long the game is, while a game stores two bytes per ply plus
+ * one snapshot per interval rather than a board per ply.
+ * <p>
+ * A timeline read back from JSON has only its moves; its checkpoints are taken
+ * the first time a position past them is asked for.
+ * <p>
+ * A timeline is used from one thread; the snapshots it returns can be read from
+ * any.
+ */
+@JsonAdapter(GameTimelineAdapter.class)
+public final class GameTimeline {
+    public static final int DEFAULT_INTERVAL = 16;
+
+    private final int interval;
+    private short[] moves = new short[64];
+    private int size;
+    // checkpoints[i] is the position after i * interval plies
+    private BoardSnapshot[] checkpoints = new BoardSnapshot[8];
+    // Every checkpoint up to this ply has been taken
+    private int checkpointed;
+    // The key of the position after the last move, to tell whether a game still ends here
+    private long endKey;
+
+    /**
+     * @param start    the position before the first move
+     * @param interval how many plies apart checkpoints are kept
+     */
+    public GameTimeline(BoardSnapshot start, int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("interval must be at least 1");
+        }
+        this.interval = interval;
+        checkpoints[0] = start;
+        endKey = start.zobristKey();
+    }
+
+    public GameTimeline(BoardSnapshot start) {
+        this(start, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Creates a timeline of moves already played, without replaying them; its
+     * checkpoints are taken when first needed
+     *
+     * @param moves  the moves' 16-bit identities, which must be legal in turn
+     * @param endKey the key of the position after the last move
+     */
+    GameTimeline(BoardSnapshot start, int interval, short[] moves, long endKey) {
+        this(start, interval);
+        this.moves = Arrays.copyOf(moves, Math.max(64, moves.length));
+        size = moves.length;
+        this.endKey = endKey;
+    }
+
+    /**
+     * Adds a move played at the end of the timeline
+     *
+     * @param move  the {@link PackedMove} played
+     * @param after the game with the move played, from which a checkpoint is
+     *              taken when one is due
+     */
+    public void record(int move, ChessGame after) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[size++] = PackedMove.toShort(move);
+        if (checkpointed == size - 1) {
+            if (size % interval == 0) {
+                checkpoint(size, after);
+            }
+            checkpointed = size;
+        }
+        endKey = after.zobristKey();
+    }
+
+    private void checkpoint(int ply, ChessGame game) {
+        int checkpoint = ply / interval;
+        if (checkpoint == checkpoints.length) {
+            checkpoints = Arrays.copyOf(checkpoints, checkpoints.length * 2);
+        }
+        checkpoints[checkpoint] = game.snapshot();
+    }
+
+    /**
+     * Takes any checkpoints up to a ply that have not been taken yet, replaying
+     * from the last one there is
+     *
+     * @param work a game to replay in, which is overwritten
+     */
+    private void checkpointTo(int ply, ChessGame work) {
+        int from = checkpointed / interval * interval;
+        work.copyFrom(checkpoints[from / interval]);
+        for (int i = from; i < ply; i++) {
+            work.doMove(PackedMove.fromShort(moves[i]));
+            if ((i + 1) % interval == 0) {
+                checkpoint(i + 1, work);
+            }
+        }
+        checkpointed = ply;
+    }
+
+    /**
+     * Drops the last move after {@link ChessGame#undoMove()} takes it back
+     *
+     * @param endKey the key of the position before it
+     */
+    void dropLast(long endKey) {
+        if (size % interval == 0) {
+            checkpoints[size / interval] = null;
+        }
+        size--;
+        checkpointed = Math.min(checkpointed, size);
+        this.endKey = endKey;
+    }
+
+    /**
+     * @return how many plies have been recorded
+     */
+    public int size() {
+        return size;
+    }
+
+    public int interval() {
+        return interval;
+    }
+
+    /**
+     * @return the position before the first move
+     */
+    public BoardSnapshot start() {
+        return checkpoints[0];
+    }
+
+    /**
+     * @param ply the 0-based index of the move
+     * @return the {@link PackedMove} played at that ply, without flags
+     */
+    public int move(int ply) {
+        if (ply < 0 || ply >= size) {
+            throw new IllegalArgumentException("No move at ply " + ply + " of " + size);
+        }
+        return PackedMove.fromShort(moves[ply]);
+    }
+
+    /**
+     * Sets up a game at the position after some number of plies
+     *
+     * @param ply  how many moves to have played, from 0 to {@link #size()}
+     * @param into the game to overwrite
+     */
+    public void replay(int ply, ChessGame into) {
+        if (ply < 0 || ply > size) {
+            throw new IllegalArgumentException("No position at ply " + ply + " of " + size);
+        }
+        int checkpoint = ply / interval;
+        if (checkpoint * interval > checkpointed) {
+            // into is overwritten below, so it can do the replaying
+            checkpointTo(checkpoint * interval, into);
+        }
+        into.copyFrom(checkpoints[checkpoint]);
+        for (int i = checkpoint * interval; i < ply; i++) {
+            into.doMove(PackedMove.fromShort(moves[i]));
+        }
+    }
+
+    /**
+     * @param ply how many moves to have played, from 0 to {@link #size()}
+     * @return the position after that many plies
+     */
+    public BoardSnapshot positionAt(int ply) {
+        if (ply % interval == 0 && ply >= 0 && ply <= checkpointed) {
+            return checkpoints[ply / interval];
+        }
+        // A short-lived game, so a timeline keeps no game of its own between calls
+        ChessGame game = new ChessGame();
+        replay(ply, game);
+        return (ply % interval == 0) ? checkpoints[ply / interval] : game.snapshot();
+    }
+
+    /**
+     * Drops every move after a ply and sets up a game at the position reached
+     *
+     * @param ply  how many moves to keep, from 0 to {@link #size()}
+     * @param into the game to overwrite
+     */
+    public void rewind(int ply, ChessGame into) {
+        replay(ply, into);
+        for (int checkpoint = ply / interval + 1; checkpoint <= size / interval; checkpoint++) {
+            checkpoints[checkpoint] = null;
+        }
+        size = ply;
+        checkpointed = Math.min(checkpointed, ply);
+        endKey = into.zobristKey();
+    }
+
+    /**
+     * @return the key of the position after the last move
+     */
+    long endKey() {
+        return endKey;
+    }
+
+    /**
+     * @return whether a game with the given key and ply count is at the end of
+     * this timeline
+     */
+    boolean endsAt(long key, int plyCount) {
+        return key == endKey && plyCount == start().plyCount() + size;
+    }
+}
@@ -0,0 +1,73 @@
+package chess;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Writes a {@link GameTimeline} as {"interval", "start", "end", "moves"}: the
+ * starting position in FEN, the key of the final position, and the moves'
+ * 16-bit {@link PackedMove} identities as one base64 string, two bytes a move.
+ * Checkpoints are not stored, and reading does not replay the moves; the
+ * timeline takes its checkpoints when they are first needed.
+ */
+class GameTimelineAdapter extends TypeAdapter<GameTimeline> {
+
+    @Override
+    public void write(JsonWriter out, GameTimeline timeline) throws IOException {
+        ByteBuffer moves = ByteBuffer.allocate(2 * timeline.size());
+        for (int ply = 0; ply < timeline.size(); ply++) {
+            moves.putShort(PackedMove.toShort(timeline.move(ply)));
+        }
+        out.beginObject();
+        out.name("interval").value(timeline.interval());
+        out.name("start").value(Fen.write(timeline.start().toGame()));
+        out.name("end").value(timeline.endKey());
+        out.name("moves").value(Base64.getEncoder().encodeToString(moves.array()));
+        out.endObject();
+    }
+
+    @Override
+    public GameTimeline read(JsonReader in) throws IOException {
+        int interval = GameTimeline.DEFAULT_INTERVAL;
+        ChessGame start = new ChessGame();
+        Long endKey = null;
+        short[] moves = new short[0];
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "interval" -> interval = in.nextInt();
+                case "start" -> Fen.read(in.nextString(), start);
+                case "end" -> endKey = in.nextLong();
+                case "moves" -> {
+                    byte[] bytes;
+                    try {
+                        bytes = Base64.getDecoder().decode(in.nextString());
+                    } catch (IllegalArgumentException e) {
+                        throw new JsonParseException("Not base64 moves", e);
+                    }
+                    if (bytes.length % 2 != 0) {
+                        throw new JsonParseException("Not a whole number of moves: " + bytes.length + " bytes");
+                    }
+                    moves = new short[bytes.length / 2];
+                    ByteBuffer.wrap(bytes).asShortBuffer().get(moves);
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if (endKey == null) {
+            if (moves.length > 0) {
+                throw new JsonParseException("Timeline has moves but no end key");
+            }
+            endKey = start.zobristKey();
+        }
+        return new GameTimeline(start.snapshot(), interval, moves, endKey);
+    }
+}
@@ -0,0 +1,78 @@
+package chess;
+
+/**
+ * A set of moves kept as a 64x64 bitset of from/to pairs: one 64-bit word of
+ * destination squares per origin square. Membership is two array reads and a
+ * bit test, however many moves the set holds.
+ * <p>
+ * A from/to pair is either a promotion for every promotion piece or for none,
+ * so promotions are tracked with a second bitset of the pairs that must carry
+ * one, rather than a bit per piece type.
+ */
+public final class LegalMoveSet {
+    private static final int FIRST_PROMOTION_CODE = ChessPiece.PieceType.QUEEN.ordinal() + 1;
+    private static final int LAST_PROMOTION_CODE = ChessPiece.PieceType.ROOK.ordinal() + 1;
+
+    private final long[] targets = new long[64];
+    private final long[] promotionTargets = new long[64];
+    // Origins with at least one target, so clearing touches only those words
+    private long origins;
+
+    /**
+     * Replaces the contents with the moves in a list
+     */
+    public void setAll(MoveList moves) {
+        clear();
+        for (int i = 0; i < moves.size(); i++) {
+            add(moves.get(i));
+        }
+    }
+
+    public void add(int move) {
+        int from = PackedMove.from(move);
+        long bit = 1L << PackedMove.to(move);
+        targets[from] |= bit;
+        if (PackedMove.isPromotion(move)) {
+            promotionTargets[from] |= bit;
+        }
+        origins |= 1L << from;
+    }
+
+    public void clear() {
+        while (origins != 0) {
+            int from = Long.numberOfTrailingZeros(origins);
+            origins &= origins - 1;
+            targets[from] = 0L;
+            promotionTargets[from] = 0L;
+        }
+    }
+
+    /**
+     * @param move a {@link PackedMove}; flags are ignored
+     * @return whether the set holds the move, with a queen, rook, bishop or
+     * knight promotion exactly when its from/to pair is a promotion
+     */
+    public boolean contains(int move) {
+        int from = PackedMove.from(move);
+        long bit = 1L << PackedMove.to(move);
+        if ((targets[from] & bit) == 0) {
+            return false;
+        }
+        int promotion = (move >>> 12) & 0x7;
+        if ((promotionTargets[from] & bit) != 0) {
+            return promotion >= FIRST_PROMOTION_CODE && promotion <= LAST_PROMOTION_CODE;
+        }
+        return promotion == 0;
+    }
+
+    /**
+     * @return bitboard of the squares the piece on a 0-63 square can move to
+     */
+    public long targets(int from) {
+        return targets[from];
+    }
+
+    public boolean isEmpty() {
+        return origins == 0;
+    }
+}
@@ -0,0 +1,207 @@
+package chess;
+
+/**
+ * Generates only the legal moves for one side of a {@link ChessBoard}.
+ * <p>
+ * Pieces pinned to the king and pieces giving check are found once per call.
+ * Every non-king move is then masked to the check-evasion squares (capture the
+ * checker or block its ray) and, for pinned pieces, to the pin line; king moves
+ * are tested against attacks with the king lifted off the board. Castling
+ * checks the squares the king crosses, and en passant, which removes two
+ * pieces from the capturing pawn's rank, re-tests the king against sliders on
+ * the board as it would be after the capture. No move is played and taken back
+ * to test it. Boards without exactly one king for the side fall back to playing
+ * each pseudo-legal move on the board, without castling or en passant.
+ */
+final class MoveGenerator {
+    private static final long ALL_SQUARES = -1L;
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Appends the legal moves of the given color's pieces standing on the
+     * {@code fromMask} squares to the list, without castling or en passant
+     *
+     * @param board    the board to generate on
+     * @param color    the side to generate moves for
+     * @param fromMask bitboard of the origin squares to consider
+     * @param moves    the list to append to
+     */
+    static void generateLegal(ChessBoard board, ChessGame.TeamColor color, long fromMask, MoveList moves) {
+        generateLegal(board, color, CastlingRights.NONE, -1, fromMask, moves);
+    }
+
+    /**
+     * Appends the legal moves of the given color's pieces standing on the
+     * {@code fromMask} squares to the list
+     *
+     * @param board          the board to generate on
+     * @param color          the side to generate moves for
+     * @param castlingRights the {@link CastlingRights} still held; only the
+     *                       side's own rights are used
+     * @param enPassant      the square a pawn may capture en passant on, or -1
+     * @param fromMask       bitboard of the origin squares to consider
+     * @param moves          the list to append to
+     */
+    static void generateLegal(ChessBoard board, ChessGame.TeamColor color, int castlingRights, int enPassant,
+                              long fromMask, MoveList moves) {
+        long kings = board.pieces(color, ChessPiece.PieceType.KING);
+        if (Long.bitCount(kings) != 1) {
+            generateByTrial(board, color, fromMask, moves);
+            return;
+        }
+
+        ChessGame.TeamColor them = (color == ChessGame.TeamColor.WHITE)
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        int kingSquare = board.kingSquare(color);
+        long kingBit = 1L << kingSquare;
+        long occupied = board.occupied();
+        long own = board.pieces(color);
+
+        if ((fromMask & kingBit) != 0) {
+            long targets = Bitboards.kingAttacks(kingSquare) & ~own;
+            long withoutKing = occupied & ~kingBit;
+            long safe = 0L;
+            while (targets != 0) {
+                int to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                if (board.attackersOf(to, them, withoutKing) == 0) {
+                    safe |= 1L << to;
+                }
+            }
+            board.getPiece(kingSquare).addMoves(board, kingSquare, safe, moves);
+        }
+
+        long checkers = board.attackersOf(kingSquare, them, occupied);
+        if (checkers == 0 && (fromMask & kingBit) != 0 && castlingRights != CastlingRights.NONE) {
+            addCastles(board, color, them, kingSquare, castlingRights, occupied, moves);
+        }
+        if (Long.bitCount(checkers) > 1) {
+            // Only the king can answer a double check
+            return;
+        }
+        long checkMask = ALL_SQUARES;
+        if (checkers != 0) {
+            int checker = Long.numberOfTrailingZeros(checkers);
+            checkMask = checkers | Bitboards.between(kingSquare, checker);
+        }
+
+        long pinned = pinnedPieces(board, kingSquare, them, own, occupied);
+
+        long pieces = own & ~kingBit & fromMask;
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+
+            ChessPiece piece = board.getPiece(from);
+            long targets = piece.pseudoTargets(board, from) & checkMask;
+            if ((pinned & (1L << from)) != 0) {
+                targets &= Bitboards.line(kingSquare, from);
+            }
+            if (targets != 0) {
+                piece.addMoves(board, from, targets, moves);
+            }
+        }
+
+        if (enPassant >= 0) {
+            addEnPassant(board, color, them, kingSquare, enPassant, fromMask, occupied, moves);
+        }
+    }
+
+    private static void addCastles(ChessBoard board, ChessGame.TeamColor color, ChessGame.TeamColor them,
+                                   int kingSquare, int castlingRights, long occupied, MoveList moves) {
+        int rank = (color == ChessGame.TeamColor.WHITE) ? 0 : 56;
+        if (kingSquare != rank + 4) {
+            return;
+        }
+        long rooks = board.pieces(color, ChessPiece.PieceType.ROOK);
+        if ((castlingRights & CastlingRights.kingside(color)) != 0 && (rooks & (1L << (rank + 7))) != 0
+                && (occupied & Bitboards.between(kingSquare, rank + 7)) == 0
+                && board.attackersOf(rank + 5, them, occupied) == 0
+                && board.attackersOf(rank + 6, them, occupied) == 0) {
+            moves.add(PackedMove.of(kingSquare, rank + 6) | PackedMove.CASTLE);
+        }
+        if ((castlingRights & CastlingRights.queenside(color)) != 0 && (rooks & (1L << rank)) != 0
+                && (occupied & Bitboards.between(kingSquare, rank)) == 0
+                && board.attackersOf(rank + 3, them, occupied) == 0
+                && board.attackersOf(rank + 2, them, occupied) == 0) {
+            moves.add(PackedMove.of(kingSquare, rank + 2) | PackedMove.CASTLE);
+        }
+    }
+
+    private static void addEnPassant(ChessBoard board, ChessGame.TeamColor color, ChessGame.TeamColor them,
+                                     int kingSquare, int target, long fromMask, long occupied, MoveList moves) {
+        // The pawn that double-pushed stands just beyond the square it skipped
+        long capturedBit = 1L << (target ^ 8);
+        if ((board.pieces(them, ChessPiece.PieceType.PAWN) & capturedBit) == 0) {
+            return;
+        }
+        long capturers = Bitboards.pawnAttacks(them, target) & board.pieces(color, ChessPiece.PieceType.PAWN) & fromMask;
+        while (capturers != 0) {
+            int from = Long.numberOfTrailingZeros(capturers);
+            capturers &= capturers - 1;
+
+            long after = (occupied & ~(1L << from) & ~capturedBit) | (1L << target);
+            if ((board.attackersOf(kingSquare, them, after) & after) == 0) {
+                moves.add(PackedMove.of(from, target) | PackedMove.CAPTURE | PackedMove.EN_PASSANT);
+            }
+        }
+    }
+
+    /**
+     * @return bitboard of the side's pieces that are the only blocker between
+     * their king and an enemy slider
+     */
+    static long pinnedPieces(ChessBoard board, int kingSquare, ChessGame.TeamColor them, long own, long occupied) {
+        long queens = board.pieces(them, ChessPiece.PieceType.QUEEN);
+        long snipers = (Bitboards.rookAttacks(kingSquare, 0L) & (board.pieces(them, ChessPiece.PieceType.ROOK) | queens))
+                | (Bitboards.bishopAttacks(kingSquare, 0L) & (board.pieces(them, ChessPiece.PieceType.BISHOP) | queens));
+
+        long pinned = 0L;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+
+            long blockers = Bitboards.between(kingSquare, sniper) & occupied;
+            if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) {
+                pinned |= blockers;
+            }
+        }
+        return pinned;
+    }
+
+    private static void generateByTrial(ChessBoard board, ChessGame.TeamColor color, long fromMask, MoveList moves) {
+        ChessGame.TeamColor them = (color == ChessGame.TeamColor.WHITE)
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+
+        long pieces = board.pieces(color) & fromMask;
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+
+            int start = moves.size();
+            ChessPiece piece = board.getPiece(from);
+            piece.pieceMoves(board, from, moves);
+
+            int kept = start;
+            for (int i = start; i < moves.size(); i++) {
+                int move = moves.get(i);
+                int to = PackedMove.to(move);
+                ChessPiece captured = board.getPiece(to);
+
+                board.setSquare(to, piece);
+                board.setSquare(from, null);
+                int kingSquare = board.kingSquare(color);
+                boolean inCheck = kingSquare >= 0 && board.isSquareAttacked(kingSquare, them);
+                board.setSquare(from, piece);
+                board.setSquare(to, captured);
+
+                if (!inCheck) {
+                    moves.set(kept++, move);
+                }
+            }
+            moves.truncate(kept);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A reusable buffer of {@link PackedMove} ints. Callers own the list and
+ * {@link #clear()} it between uses, so steady-state move generation does not
+ * allocate.
+ */
+public final class MoveList {
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Shrinks the list to its first {@code newSize} moves
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    /**
+     * @return the index of the move with the same from, to and promotion, or -1
+     * if it is not in the list
+     */
+    public int indexOf(int move) {
+        int identity = PackedMove.identity(move);
+        for (int i = 0; i < size; i++) {
+            if (PackedMove.identity(moves[i]) == identity) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return true if a move with the same from, to and promotion is in the list
+     */
+    public boolean contains(int move) {
+        return indexOf(move) >= 0;
+    }
+
+    /**
+     * Converts every move in the list to a {@link ChessMove} and adds it to the collection
+     */
+    public void addTo(Collection<ChessMove> collection) {
+        for (int i = 0; i < size; i++) {
+            collection.add(PackedMove.toChessMove(moves[i]));
+        }
+    }
+}
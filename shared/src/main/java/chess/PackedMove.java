@@ -0,0 +1,154 @@
+package chess;
+
+/**
+ * Static helpers for moves packed into a single int, used by the allocation-free
+ * move generation paths.
+ * <p>
+ * Bits 0-5 hold the from square, bits 6-11 the to square (0-63, a1 = 0) and
+ * bits 12-14 the promotion piece (0 for none, otherwise the
+ * {@link ChessPiece.PieceType} ordinal + 1). Those low 16 bits identify the move;
+ * the bits above them are flags describing it.
+ */
+public final class PackedMove {
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1 << 16;
+    public static final int DOUBLE_PUSH = 1 << 17;
+    /** A king move two files sideways, which also moves the rook */
+    public static final int CASTLE = 1 << 18;
+    /** A pawn capture onto the square a double push just skipped */
+    public static final int EN_PASSANT = 1 << 19;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {
+    }
+
+    public static int of(int from, int to) {
+        return from | (to << 6);
+    }
+
+    public static int of(int from, int to, ChessPiece.PieceType promotion) {
+        int move = of(from, to);
+        if (promotion != null) {
+            move |= (promotion.ordinal() + 1) << 12;
+        }
+        return move;
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * @return the promotion piece type, or null if the move is not a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int code = (move >>> 12) & 0x7;
+        return code == 0 ? null : TYPES[code - 1];
+    }
+
+    public static boolean isPromotion(int move) {
+        return (move & 0x7000) != 0;
+    }
+
+    public static boolean hasFlag(int move, int flag) {
+        return (move & flag) != 0;
+    }
+
+    /**
+     * @return the move with its flags stripped, for comparing move identity
+     */
+    public static int identity(int move) {
+        return move & 0xFFFF;
+    }
+
+    /**
+     * @return the move's 16-bit identity, for storing moves in two bytes
+     */
+    public static short toShort(int move) {
+        return (short) identity(move);
+    }
+
+    /**
+     * @return the move stored by {@link #toShort}, without flags
+     */
+    public static int fromShort(short move) {
+        return move & 0xFFFF;
+    }
+
+    public static int fromChessMove(ChessMove move) {
+        return of(ChessBoard.squareIndex(move.getStartPosition()),
+                ChessBoard.squareIndex(move.getEndPosition()),
+                move.getPromotionPiece());
+    }
+
+    /**
+     * @return the move in coordinate notation, e.g. "e2e4" or "e7e8q"
+     */
+    public static String toCoordinate(int move) {
+        StringBuilder text = new StringBuilder(5);
+        appendSquare(text, from(move));
+        appendSquare(text, to(move));
+        ChessPiece.PieceType promotion = promotion(move);
+        if (promotion != null) {
+            text.append(switch (promotion) {
+                case QUEEN -> 'q';
+                case ROOK -> 'r';
+                case BISHOP -> 'b';
+                case KNIGHT -> 'n';
+                case KING -> 'k';
+                case PAWN -> 'p';
+            });
+        }
+        return text.toString();
+    }
+
+    private static void appendSquare(StringBuilder text, int square) {
+        text.append((char) ('a' + (square & 7))).append((char) ('1' + (square >>> 3)));
+    }
+
+    /**
+     * Parses a move in coordinate notation, e.g. "e2e4" or "e7e8q"
+     *
+     * @return the packed move, without flags
+     * @throws IllegalArgumentException if the text is not a coordinate move
+     */
+    public static int fromCoordinate(CharSequence text) {
+        if (text.length() != 4 && text.length() != 5) {
+            throw new IllegalArgumentException("Not a coordinate move: " + text);
+        }
+        int from = parseSquare(text, 0);
+        int to = parseSquare(text, 2);
+        ChessPiece.PieceType promotion = null;
+        if (text.length() == 5) {
+            promotion = switch (Character.toLowerCase(text.charAt(4))) {
+                case 'q' -> ChessPiece.PieceType.QUEEN;
+                case 'r' -> ChessPiece.PieceType.ROOK;
+                case 'b' -> ChessPiece.PieceType.BISHOP;
+                case 'n' -> ChessPiece.PieceType.KNIGHT;
+                default -> throw new IllegalArgumentException("Not a coordinate move: " + text);
+            };
+        }
+        return of(from, to, promotion);
+    }
+
+    private static int parseSquare(CharSequence text, int offset) {
+        int file = Character.toLowerCase(text.charAt(offset)) - 'a';
+        int rank = text.charAt(offset + 1) - '1';
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+            throw new IllegalArgumentException("Not a coordinate move: " + text);
+        }
+        return rank * 8 + file;
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessBoard.positionOf(from(move)),
+                ChessBoard.positionOf(to(move)),
+                promotion(move));
+    }
+}
@@ -0,0 +1,124 @@
+package chess;
+
+import com.google.gson.annotations.JsonAdapter;
+
+import java.util.Arrays;
+
+/**
+ * The Zobrist keys of the positions a game has passed through, with the
+ * halfmove clock for the fifty-move rule.
+ * <p>
+ * Only a position reached since the last capture or pawn move can repeat, and
+ * the clock counts exactly those moves, so a repetition check scans at most
+ * {@link #clock()} keys from the top rather than the whole game. Keys are kept
+ * in one primitive array that grows by doubling; pushing and popping never
+ * allocate once it is large enough.
+ */
+@JsonAdapter(PositionHistoryAdapter.class)
+final class PositionHistory {
+    private long[] keys;
+    // The clock before each pushed move, so popping can restore it
+    private int[] clocks;
+    private int size;
+    private int clock;
+
+    PositionHistory(int capacity) {
+        keys = new long[capacity];
+        clocks = new int[capacity];
+    }
+
+    /**
+     * Records a move about to be played
+     *
+     * @param key          the key of the position the move is played from
+     * @param irreversible whether the move is a capture or pawn move, which
+     *                     resets the clock
+     */
+    void push(long key, boolean irreversible) {
+        if (size == keys.length) {
+            int capacity = Math.max(8, keys.length * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            clocks = Arrays.copyOf(clocks, capacity);
+        }
+        keys[size] = key;
+        clocks[size] = clock;
+        size++;
+        clock = irreversible ? 0 : clock + 1;
+    }
+
+    /**
+     * Forgets the last pushed move and restores the clock from before it
+     */
+    void pop() {
+        size--;
+        clock = clocks[size];
+    }
+
+    /**
+     * @return plies since the last capture or pawn move
+     */
+    int clock() {
+        return clock;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return how many earlier positions had the given key, looking back only as
+     * far as the last capture or pawn move
+     */
+    int repetitions(long key) {
+        int count = 0;
+        // Positions repeat with the same side to move, so only every other key can match
+        for (int i = size - 2, oldest = size - Math.min(clock, size); i >= oldest; i -= 2) {
+            if (keys[i] == key) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the keys a repetition check can still reach, oldest first
+     */
+    long[] window() {
+        return Arrays.copyOfRange(keys, size - Math.min(clock, size), size);
+    }
+
+    /**
+     * Replaces the history with a window of keys, as written by {@link #window()}
+     */
+    void restore(long[] window, int clock) {
+        clear();
+        for (long key : window) {
+            push(key, false);
+        }
+        this.clock = clock;
+    }
+
+    void clear() {
+        restart(0);
+    }
+
+    /**
+     * Forgets every position, for a game set up with moves already played since
+     * the last capture or pawn move
+     */
+    void restart(int clock) {
+        size = 0;
+        this.clock = clock;
+    }
+
+    void copyFrom(PositionHistory other) {
+        if (keys.length < other.size) {
+            keys = new long[other.keys.length];
+            clocks = new int[other.keys.length];
+        }
+        System.arraycopy(other.keys, 0, keys, 0, other.size);
+        System.arraycopy(other.clocks, 0, clocks, 0, other.size);
+        size = other.size;
+        clock = other.clock;
+    }
+}
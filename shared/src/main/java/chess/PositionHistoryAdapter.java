@@ -0,0 +1,58 @@
+package chess;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Writes a {@link PositionHistory} as {"clock", "keys"}, keeping only the keys
+ * since the last capture or pawn move; older positions can never repeat, so a
+ * stored game stays small however long it runs.
+ */
+class PositionHistoryAdapter extends TypeAdapter<PositionHistory> {
+
+    @Override
+    public void write(JsonWriter out, PositionHistory history) throws IOException {
+        out.beginObject();
+        out.name("clock").value(history.clock());
+        out.name("keys").beginArray();
+        for (long key : history.window()) {
+            out.value(key);
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    @Override
+    public PositionHistory read(JsonReader in) throws IOException {
+        int clock = 0;
+        long[] keys = new long[0];
+        int count = 0;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "clock" -> clock = in.nextInt();
+                case "keys" -> {
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        if (count == keys.length) {
+                            keys = Arrays.copyOf(keys, Math.max(8, count * 2));
+                        }
+                        keys[count++] = in.nextLong();
+                    }
+                    in.endArray();
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        PositionHistory history = new PositionHistory(Math.max(16, count * 2));
+        history.restore(Arrays.copyOf(keys, count), clock);
+        return history;
+    }
+}
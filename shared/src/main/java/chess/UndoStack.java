@@ -0,0 +1,73 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Preallocated stack of undo records for {@link ChessGame#doMove(int)}. Each
+ * record is kept in parallel primitive/reference arrays, so pushing and popping
+ * never allocates once the stack has grown to the search depth in use.
+ */
+final class UndoStack {
+    private int[] moves;
+    private int[] states;
+    private ChessPiece[] movedPieces;
+    private ChessPiece[] capturedPieces;
+    private int size;
+
+    UndoStack(int capacity) {
+        moves = new int[capacity];
+        states = new int[capacity];
+        movedPieces = new ChessPiece[capacity];
+        capturedPieces = new ChessPiece[capacity];
+    }
+
+    void push(int move, ChessPiece moved, ChessPiece captured, int state) {
+        if (size == moves.length) {
+            int capacity = moves.length * 2;
+            moves = Arrays.copyOf(moves, capacity);
+            states = Arrays.copyOf(states, capacity);
+            movedPieces = Arrays.copyOf(movedPieces, capacity);
+            capturedPieces = Arrays.copyOf(capturedPieces, capacity);
+        }
+        moves[size] = move;
+        states[size] = state;
+        movedPieces[size] = moved;
+        capturedPieces[size] = captured;
+        size++;
+    }
+
+    /**
+     * Drops the top record; read it with the top accessors first
+     */
+    void pop() {
+        size--;
+        movedPieces[size] = null;
+        capturedPieces[size] = null;
+    }
+
+    int topMove() {
+        return moves[size - 1];
+    }
+
+    int topState() {
+        return states[size - 1];
+    }
+
+    ChessPiece topMoved() {
+        return movedPieces[size - 1];
+    }
+
+    ChessPiece topCaptured() {
+        return capturedPieces[size - 1];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        while (size > 0) {
+            pop();
+        }
+    }
+}
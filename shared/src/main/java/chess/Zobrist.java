@@ -0,0 +1,82 @@
+package chess;
+
+/**
+ * Fixed 64-bit Zobrist keys for position hashing. The keys come from a
+ * fixed-seed generator, so a position hashes to the same value in every process
+ * and hashes can be stored on disk or shared between servers.
+ */
+public final class Zobrist {
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+    private static final long BLACK_TO_MOVE;
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+
+    static {
+        long state = 0x9E3779B97F4A7C15L;
+        for (int piece = 0; piece < 12; piece++) {
+            for (int square = 0; square < 64; square++) {
+                state += 0x9E3779B97F4A7C15L;
+                PIECE_SQUARE[piece][square] = mix(state);
+            }
+        }
+        state += 0x9E3779B97F4A7C15L;
+        BLACK_TO_MOVE = mix(state);
+
+        // Drawn after the older keys so those keep their values
+        long[] rightKeys = new long[4];
+        for (int right = 0; right < 4; right++) {
+            state += 0x9E3779B97F4A7C15L;
+            rightKeys[right] = mix(state);
+        }
+        for (int rights = 1; rights < 16; rights++) {
+            for (int right = 0; right < 4; right++) {
+                if ((rights & (1 << right)) != 0) {
+                    CASTLING[rights] ^= rightKeys[right];
+                }
+            }
+        }
+        for (int file = 0; file < 8; file++) {
+            state += 0x9E3779B97F4A7C15L;
+            EN_PASSANT_FILE[file] = mix(state);
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return the key for a piece standing on a 0-63 square
+     */
+    public static long piece(ChessPiece piece, int square) {
+        return PIECE_SQUARE[piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal()][square];
+    }
+
+    /**
+     * @return the key folded in when black is to move
+     */
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+
+    /**
+     * @return the key folded in for a set of {@link CastlingRights}; 0 for none
+     */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * @return the key folded in for an en passant target square, or 0 if
+     * {@code square} is negative
+     */
+    public static long enPassant(int square) {
+        return (square < 0) ? 0L : EN_PASSANT_FILE[square & 7];
+    }
+}
@@ -0,0 +1,144 @@
+package chess.analysis;
+
+import chess.ChessGame;
+import chess.MoveList;
+import chess.PackedMove;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join perft. The move tree is split into one task per move at the root
+ * and at the next {@code splitPlies - 1} plies; below that each task runs the
+ * sequential {@link Perft} on its own copy of the game, so workers never share
+ * a board.
+ */
+public class ParallelPerft {
+    private final ForkJoinPool pool;
+    private final int splitPlies;
+
+    /**
+     * @param pool       the pool to run tasks on
+     * @param splitPlies how many plies from the root are split into separate
+     *                   tasks; 1 splits the root moves only
+     */
+    public ParallelPerft(ForkJoinPool pool, int splitPlies) {
+        if (splitPlies < 1) {
+            throw new IllegalArgumentException("splitPlies must be at least 1");
+        }
+        this.pool = pool;
+        this.splitPlies = splitPlies;
+    }
+
+    public ParallelPerft() {
+        this(ForkJoinPool.commonPool(), 2);
+    }
+
+    /**
+     * Counts the positions reachable in exactly {@code depth} moves. The given
+     * game is copied and never modified.
+     */
+    public long perft(ChessGame game, int depth) {
+        return pool.invoke(new PerftTask(new ChessGame(game), depth, 0));
+    }
+
+    /**
+     * Counts the leaf nodes below each legal root move, in parallel
+     *
+     * @return leaf counts keyed by coordinate move, in generation order
+     */
+    public Map<String, Long> divide(ChessGame game, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("divide needs a depth of at least 1");
+        }
+        ChessGame root = new ChessGame(game);
+        MoveList moves = new MoveList();
+        root.legalMoves(root.getTeamTurn(), moves);
+
+        List<PerftTask> tasks = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            tasks.add(childTask(root, moves.get(i), depth - 1, 1));
+        }
+        return pool.invoke(new RecursiveTask<>() {
+            @Override
+            protected Map<String, Long> compute() {
+                invokeAll(tasks);
+                Map<String, Long> counts = new LinkedHashMap<>();
+                for (int i = 0; i < tasks.size(); i++) {
+                    counts.put(PackedMove.toCoordinate(moves.get(i)), tasks.get(i).join());
+                }
+                return counts;
+            }
+        });
+    }
+
+    private PerftTask childTask(ChessGame parent, int move, int depth, int ply) {
+        ChessGame child = new ChessGame(parent);
+        child.doMove(move);
+        return new PerftTask(child, depth, ply);
+    }
+
+    private class PerftTask extends RecursiveTask<Long> {
+        private final ChessGame game;
+        private final int depth;
+        private final int ply;
+
+        PerftTask(ChessGame game, int depth, int ply) {
+            this.game = game;
+            this.depth = depth;
+            this.ply = ply;
+        }
+
+        @Override
+        protected Long compute() {
+            // Splitting near the leaves costs more in copies than it gains
+            if (ply >= splitPlies || depth <= 2) {
+                return new Perft(game).perft(depth);
+            }
+
+            MoveList moves = new MoveList();
+            game.legalMoves(game.getTeamTurn(), moves);
+            List<PerftTask> children = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                children.add(childTask(game, moves.get(i), depth - 1, ply + 1));
+            }
+            invokeAll(children);
+
+            long nodes = 0;
+            for (PerftTask child : children) {
+                nodes += child.join();
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * Runs parallel perft from the starting position and prints nodes per second.
+     * <p>
+     * Usage: {@code ParallelPerft <depth> [threads]}
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: ParallelPerft <depth> [threads]");
+            System.exit(1);
+        }
+        int depth = Integer.parseInt(args[0]);
+        int threads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        ParallelPerft perft = new ParallelPerft(pool, 2);
+        long start = System.nanoTime();
+        long nodes = perft.perft(new ChessGame(), depth);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        System.out.println("Threads: " + threads);
+        System.out.println("Nodes: " + nodes);
+        System.out.printf("Time: %.3f s%n", seconds);
+        System.out.printf("Nodes/sec: %.0f%n", nodes / Math.max(seconds, 1e-9));
+    }
+}
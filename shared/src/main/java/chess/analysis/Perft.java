@@ -0,0 +1,132 @@
+package chess.analysis;
+
+import chess.ChessGame;
+import chess.InvalidMoveException;
+import chess.MoveList;
+import chess.PackedMove;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree below a position ("perft"). The
+ * counts for standard test positions are well known, so comparing against them
+ * catches move generation bugs, and timing them measures generator throughput.
+ * <p>
+ * A Perft works on its game in place with doMove/undoMove and leaves it as it
+ * found it. It is not thread-safe.
+ */
+public class Perft {
+    private final ChessGame game;
+    private MoveList[] movesByPly = new MoveList[0];
+
+    public Perft(ChessGame game) {
+        this.game = game;
+    }
+
+    /**
+     * Counts the positions reachable in exactly {@code depth} moves
+     *
+     * @param depth number of plies to search; 0 counts the position itself
+     * @return the number of leaf nodes
+     */
+    public long perft(int depth) {
+        ensurePlies(depth);
+        return count(depth, 0);
+    }
+
+    /**
+     * Counts the leaf nodes below each legal root move
+     *
+     * @param depth number of plies to search, including the root move
+     * @return leaf counts keyed by coordinate move (e.g. "e2e4"), in generation order
+     */
+    public Map<String, Long> divide(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("divide needs a depth of at least 1");
+        }
+        ensurePlies(depth);
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        MoveList moves = movesByPly[0];
+        game.legalMoves(game.getTeamTurn(), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            game.doMove(move);
+            counts.put(PackedMove.toCoordinate(move), count(depth - 1, 1));
+            game.undoMove();
+        }
+        return counts;
+    }
+
+    private void ensurePlies(int depth) {
+        if (movesByPly.length < depth) {
+            MoveList[] grown = new MoveList[depth];
+            for (int ply = 0; ply < depth; ply++) {
+                grown[ply] = (ply < movesByPly.length) ? movesByPly[ply] : new MoveList();
+            }
+            movesByPly = grown;
+        }
+    }
+
+    private long count(int depth, int ply) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        MoveList moves = movesByPly[ply];
+        game.legalMoves(game.getTeamTurn(), moves);
+        if (depth == 1) {
+            // Every generated move is legal, so the last ply needs no make/unmake
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.doMove(moves.get(i));
+            nodes += count(depth - 1, ply + 1);
+            game.undoMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Runs perft from the starting position, printing divide counts per root
+     * move, the total and nodes per second.
+     * <p>
+     * Usage: {@code Perft <depth> [coordinate moves to play first, e.g. e2e4 e7e5]}
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: Perft <depth> [moves...]");
+            System.exit(1);
+        }
+        int depth = Integer.parseInt(args[0]);
+
+        ChessGame game = new ChessGame();
+        for (int i = 1; i < args.length; i++) {
+            try {
+                game.makeMove(PackedMove.toChessMove(PackedMove.fromCoordinate(args[i])));
+            } catch (InvalidMoveException | IllegalArgumentException e) {
+                System.err.println("Illegal move: " + args[i]);
+                System.exit(1);
+            }
+        }
+
+        Perft perft = new Perft(game);
+        long start = System.nanoTime();
+        Map<String, Long> divide = perft.divide(depth);
+        long elapsed = System.nanoTime() - start;
+
+        long total = 0;
+        for (Map.Entry<String, Long> entry : divide.entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+            total += entry.getValue();
+        }
+        double seconds = elapsed / 1e9;
+        System.out.println();
+        System.out.println("Nodes: " + total);
+        System.out.printf("Time: %.3f s%n", seconds);
+        System.out.printf("Nodes/sec: %.0f%n", total / Math.max(seconds, 1e-9));
+    }
+}
@@ -0,0 +1,93 @@
+package chess.analysis;
+
+import chess.BoardSnapshot;
+import chess.ChessGame;
+import chess.GameStatus;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Computes legal-move counts and check/checkmate/stalemate status for batches of
+ * positions in parallel, from one {@link GameStatus} per position. Each worker
+ * thread copies a position into its own game before looking at it, so input
+ * games are never modified and never shared between workers.
+ */
+public class PositionAnalyzer {
+    private final ForkJoinPool pool;
+    private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+
+    public PositionAnalyzer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public PositionAnalyzer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    private static class Worker {
+        final ChessGame game = new ChessGame();
+
+        PositionReport analyze(ChessGame position) {
+            game.copyFrom(position);
+            return report();
+        }
+
+        PositionReport analyze(BoardSnapshot position) {
+            game.copyFrom(position);
+            return report();
+        }
+
+        private PositionReport report() {
+            GameStatus status = game.getStatus();
+            PositionReport.Status reported = switch (status.result()) {
+                case ONGOING -> PositionReport.Status.ONGOING;
+                case CHECKMATE -> PositionReport.Status.CHECKMATE;
+                case STALEMATE -> PositionReport.Status.STALEMATE;
+                case DRAW_BY_REPETITION, DRAW_BY_FIFTY_MOVE_RULE -> PositionReport.Status.DRAW;
+            };
+            return new PositionReport(game.zobristKey(), status.sideToMove(), status.legalMoves(), status.inCheck(),
+                    reported, game.getBoard().evaluate());
+        }
+    }
+
+    /**
+     * Analyzes a single position on the calling thread
+     */
+    public PositionReport analyze(ChessGame position) {
+        return workers.get().analyze(position);
+    }
+
+    /**
+     * Analyzes a snapshot on the calling thread, which need not be the thread
+     * playing the game it was taken from
+     */
+    public PositionReport analyze(BoardSnapshot position) {
+        return workers.get().analyze(position);
+    }
+
+    /**
+     * Analyzes a stream of positions in parallel, handing each report to the sink
+     * as soon as it is ready. Positions are pulled from the stream as workers
+     * free up, so the stream is never collected into memory.
+     *
+     * @param positions the positions to analyze
+     * @param sink      receives reports in no particular order, from several
+     *                  threads at once, so it must be thread-safe
+     */
+    public void analyze(Stream<ChessGame> positions, Consumer<PositionReport> sink) {
+        pool.submit(() -> positions.parallel().map(this::analyze).forEach(sink)).join();
+    }
+
+    /**
+     * Analyzes a batch of positions in parallel
+     *
+     * @return one report per position, in the same order as the input
+     */
+    public List<PositionReport> analyzeAll(Collection<ChessGame> positions) {
+        return pool.submit(() -> positions.parallelStream().map(this::analyze).toList()).join();
+    }
+}
@@ -0,0 +1,30 @@
+package chess.analysis;
+
+import chess.ChessGame;
+
+/**
+ * The result of analyzing one position
+ *
+ * @param zobristKey the position's Zobrist key
+ * @param sideToMove the team whose turn it is
+ * @param legalMoves how many legal moves the side to move has
+ * @param inCheck    whether the side to move is in check
+ * @param status     whether the position is still in play or the game is over
+ * @param evaluation static evaluation in centipawns from White's point of view
+ */
+public record PositionReport(
+        long zobristKey,
+        ChessGame.TeamColor sideToMove,
+        int legalMoves,
+        boolean inCheck,
+        Status status,
+        int evaluation) {
+
+    public enum Status {
+        ONGOING,
+        CHECKMATE,
+        STALEMATE,
+        /** Drawn by threefold repetition or the fifty-move rule */
+        DRAW
+    }
+}
@@ -0,0 +1,179 @@
+package chess.book;
+
+import chess.ChessGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only opening book memory-mapped from a file written by
+ * {@link OpeningBookBuilder}.
+ * <p>
+ * File layout (big-endian): a 16-byte header of magic {@code "CHBK"}, format
+ * version and entry count, then fixed 16-byte entries sorted by position key
+ * and, within a key, by descending weight. An entry is the
+ * {@link ChessGame#zobristKey()} of the position (8 bytes), the move as a
+ * {@link chess.PackedMove} identity (2 bytes), its weight (2 bytes, unsigned)
+ * and 4 reserved bytes.
+ * <p>
+ * Opening a book maps the file and reads only the header, so start-up cost does
+ * not depend on book size, and every process mapping the same file shares its
+ * pages through the OS page cache. Lookups binary-search the mapping with
+ * absolute reads and never allocate. A book is safe to share between threads.
+ */
+public final class OpeningBook {
+    static final int MAGIC = 0x4348424B;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 16;
+
+    private final ByteBuffer buffer;
+    private final int size;
+
+    private OpeningBook(ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("not an opening book file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("unsupported opening book version " + buffer.getInt(4));
+        }
+        long count = buffer.getLong(8);
+        if (count < 0 || HEADER_BYTES + count * ENTRY_BYTES > buffer.capacity()) {
+            throw new IllegalArgumentException("opening book file is truncated");
+        }
+        this.buffer = buffer;
+        this.size = (int) count;
+    }
+
+    /**
+     * Maps a book file into memory
+     *
+     * @param path the book file
+     * @return the book
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a valid book
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new OpeningBook(mapped);
+        }
+    }
+
+    /**
+     * Reads a book from bytes already in memory, for books shipped as resources
+     */
+    public static OpeningBook wrap(ByteBuffer bytes) {
+        return new OpeningBook(bytes.duplicate());
+    }
+
+    /**
+     * @return the number of (position, move) entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the first entry for a position
+     *
+     * @param key the position's {@link ChessGame#zobristKey()}
+     * @return the index of its heaviest entry, or -1 if the position is not in the book
+     */
+    public int find(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(mid), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return (low < size && keyAt(low) == key) ? low : -1;
+    }
+
+    /**
+     * @return how many book moves the position has
+     */
+    public int moveCount(long key) {
+        int first = find(key);
+        if (first < 0) {
+            return 0;
+        }
+        int end = first;
+        while (end < size && keyAt(end) == key) {
+            end++;
+        }
+        return end - first;
+    }
+
+    public long keyAt(int index) {
+        return buffer.getLong(offset(index));
+    }
+
+    /**
+     * @return the entry's move as a {@link chess.PackedMove} identity (no flags)
+     */
+    public int moveAt(int index) {
+        return buffer.getShort(offset(index) + 8) & 0xFFFF;
+    }
+
+    public int weightAt(int index) {
+        return buffer.getShort(offset(index) + 10) & 0xFFFF;
+    }
+
+    /**
+     * @return the most played book move in the game's position as a
+     * {@link chess.PackedMove} identity, or 0 if the position is not in the book
+     */
+    public int bestMove(ChessGame game) {
+        int first = find(game.zobristKey());
+        return (first < 0) ? 0 : moveAt(first);
+    }
+
+    /**
+     * Picks a book move at random in proportion to the move weights, so the
+     * book's bot does not always play the same line
+     *
+     * @param game   the position to pick a move in
+     * @param random a uniformly random value, e.g. from {@code ThreadLocalRandom}
+     * @return a {@link chess.PackedMove} identity, or 0 if the position is not in the book
+     */
+    public int pickMove(ChessGame game, long random) {
+        long key = game.zobristKey();
+        int first = find(key);
+        if (first < 0) {
+            return 0;
+        }
+
+        long total = 0;
+        int end = first;
+        while (end < size && keyAt(end) == key) {
+            total += weightAt(end);
+            end++;
+        }
+        if (total == 0) {
+            return moveAt(first);
+        }
+
+        long target = Long.remainderUnsigned(random, total);
+        for (int i = first; i < end; i++) {
+            target -= weightAt(i);
+            if (target < 0) {
+                return moveAt(i);
+            }
+        }
+        return moveAt(first);
+    }
+
+    private static int offset(int index) {
+        return HEADER_BYTES + index * ENTRY_BYTES;
+    }
+}
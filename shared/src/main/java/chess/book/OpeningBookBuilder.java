@@ -0,0 +1,303 @@
+package chess.book;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.GameTimeline;
+import chess.InvalidMoveException;
+import chess.MoveList;
+import chess.PackedMove;
+import chess.pgn.PgnGame;
+import chess.pgn.PgnReader;
+import chess.pgn.San;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles an {@link OpeningBook} from a corpus of games. Each game is replayed
+ * from the starting position through {@link ChessGame#makeMove}, and every move
+ * in its first {@code maxPly} plies adds one to the weight of that move in that
+ * position. Positions reached by different move orders share their entries.
+ * <p>
+ * Games can be added as {@link ChessMove} sequences, as the {@link GameTimeline}
+ * of a stored game, as {@link PgnGame}s, or as lines of coordinate moves, e.g.
+ * {@code e2e4 e7e5 g1f3}. A game stops contributing at its first illegal move.
+ */
+public class OpeningBookBuilder {
+    public static final int DEFAULT_MAX_PLY = 16;
+
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    private final int maxPly;
+    private final Map<Long, Map<Integer, Integer>> counts = new HashMap<>();
+    private int games;
+
+    /**
+     * @param maxPly how many plies of each game to record
+     */
+    public OpeningBookBuilder(int maxPly) {
+        if (maxPly < 1) {
+            throw new IllegalArgumentException("maxPly must be at least 1");
+        }
+        this.maxPly = maxPly;
+    }
+
+    public OpeningBookBuilder() {
+        this(DEFAULT_MAX_PLY);
+    }
+
+    /**
+     * Adds one game played from the starting position
+     *
+     * @param moves the game's moves in order
+     * @return how many of its moves were recorded
+     */
+    public int addGame(Iterable<ChessMove> moves) {
+        ChessGame game = new ChessGame();
+        int ply = 0;
+        for (ChessMove move : moves) {
+            if (ply == maxPly) {
+                break;
+            }
+            long key = game.zobristKey();
+            try {
+                game.makeMove(move);
+            } catch (InvalidMoveException e) {
+                break;
+            }
+            record(key, PackedMove.identity(PackedMove.fromChessMove(move)));
+            ply++;
+        }
+        games++;
+        return ply;
+    }
+
+    /**
+     * Adds one game from its timeline, such as a finished game from the game
+     * store, replayed from the timeline's start
+     *
+     * @return how many of its moves were recorded
+     */
+    public int addGame(GameTimeline timeline) {
+        ChessGame game = timeline.start().toGame();
+        int ply = 0;
+        while (ply < timeline.size() && ply < maxPly) {
+            int move = timeline.move(ply);
+            if (!game.isLegalMove(move)) {
+                break;
+            }
+            record(game.zobristKey(), PackedMove.identity(move));
+            game.doMove(move);
+            ply++;
+        }
+        games++;
+        return ply;
+    }
+
+    /**
+     * Adds one game read from PGN, replayed from its {@link PgnGame#startingPosition()}
+     * with each SAN move checked as {@link PgnGame#play} does
+     *
+     * @return how many of its moves were recorded
+     */
+    public int addGame(PgnGame pgn) {
+        ChessGame game;
+        try {
+            game = pgn.startingPosition();
+        } catch (IllegalArgumentException e) {
+            games++;
+            return 0;
+        }
+        MoveList scratch = new MoveList();
+        int ply = 0;
+        for (String san : pgn.moves()) {
+            if (ply == maxPly) {
+                break;
+            }
+            int move;
+            try {
+                move = San.parse(game, san, scratch);
+            } catch (IllegalArgumentException e) {
+                break;
+            }
+            record(game.zobristKey(), PackedMove.identity(move));
+            game.doMove(move);
+            ply++;
+        }
+        games++;
+        return ply;
+    }
+
+    /**
+     * Adds every game in a PGN file
+     *
+     * @return the number of games added
+     */
+    public int addPgnGames(Reader reader) throws IOException {
+        PgnReader pgn = new PgnReader(reader);
+        int added = 0;
+        PgnGame game;
+        while ((game = pgn.next()) != null) {
+            addGame(game);
+            added++;
+        }
+        return added;
+    }
+
+    /**
+     * Adds one game written as whitespace-separated coordinate moves. Tokens that
+     * are not moves (move numbers, results) are skipped.
+     *
+     * @return how many of its moves were recorded
+     */
+    public int addCoordinateGame(CharSequence line) {
+        List<ChessMove> moves = new ArrayList<>();
+        int start = 0;
+        int length = line.length();
+        while (start < length) {
+            while (start < length && Character.isWhitespace(line.charAt(start))) {
+                start++;
+            }
+            int end = start;
+            while (end < length && !Character.isWhitespace(line.charAt(end))) {
+                end++;
+            }
+            if (end > start) {
+                try {
+                    moves.add(PackedMove.toChessMove(PackedMove.fromCoordinate(line.subSequence(start, end))));
+                } catch (IllegalArgumentException e) {
+                    // Not a move; keep going
+                }
+            }
+            start = end;
+        }
+        return addGame(moves);
+    }
+
+    /**
+     * Adds every non-blank line of a reader as one coordinate-move game
+     *
+     * @return the number of games added
+     */
+    public int addCoordinateGames(Reader reader) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        int added = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (!line.isBlank()) {
+                addCoordinateGame(line);
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private void record(long key, int move) {
+        counts.computeIfAbsent(key, k -> new HashMap<>()).merge(move, 1, Integer::sum);
+    }
+
+    public int games() {
+        return games;
+    }
+
+    /**
+     * @return the number of distinct positions recorded so far
+     */
+    public int positions() {
+        return counts.size();
+    }
+
+    /**
+     * Writes the book, dropping moves seen fewer than {@code minWeight} times.
+     * Weights too large for the file are scaled down per position, keeping
+     * their proportions.
+     *
+     * @param path      the file to create or overwrite
+     * @param minWeight the fewest occurrences a move needs to be kept
+     * @return the number of entries written
+     */
+    public int write(Path path, int minWeight) throws IOException {
+        List<long[]> entries = new ArrayList<>();
+        for (Map.Entry<Long, Map<Integer, Integer>> position : counts.entrySet()) {
+            int heaviest = 0;
+            for (int weight : position.getValue().values()) {
+                heaviest = Math.max(heaviest, weight);
+            }
+            for (Map.Entry<Integer, Integer> move : position.getValue().entrySet()) {
+                int weight = move.getValue();
+                if (weight < minWeight) {
+                    continue;
+                }
+                if (heaviest > MAX_WEIGHT) {
+                    weight = (int) Math.max(1, (long) weight * MAX_WEIGHT / heaviest);
+                }
+                entries.add(new long[] {position.getKey(), move.getKey(), weight});
+            }
+        }
+        entries.sort((a, b) -> {
+            int byKey = Long.compareUnsigned(a[0], b[0]);
+            if (byKey != 0) {
+                return byKey;
+            }
+            int byWeight = Long.compare(b[2], a[2]);
+            return (byWeight != 0) ? byWeight : Long.compare(a[1], b[1]);
+        });
+
+        ByteBuffer bytes = ByteBuffer.allocate(OpeningBook.HEADER_BYTES + entries.size() * OpeningBook.ENTRY_BYTES);
+        bytes.putInt(OpeningBook.MAGIC).putInt(OpeningBook.VERSION).putLong(entries.size());
+        for (long[] entry : entries) {
+            bytes.putLong(entry[0]).putShort((short) entry[1]).putShort((short) entry[2]).putInt(0);
+        }
+        bytes.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+        return entries.size();
+    }
+
+    public int write(Path path) throws IOException {
+        return write(path, 1);
+    }
+
+    /**
+     * Builds a book from a PGN file (named {@code *.pgn}) or a file of
+     * coordinate-move games, one game per line.
+     * <p>
+     * Usage: {@code OpeningBookBuilder <games.pgn|games.txt> <book.bin> [maxPly] [minWeight]}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: OpeningBookBuilder <games.pgn|games.txt> <book.bin> [maxPly] [minWeight]");
+            System.exit(1);
+        }
+        int maxPly = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_MAX_PLY;
+        int minWeight = (args.length > 3) ? Integer.parseInt(args[3]) : 1;
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(maxPly);
+        try (Reader reader = Files.newBufferedReader(Path.of(args[0]))) {
+            if (args[0].endsWith(".pgn")) {
+                builder.addPgnGames(reader);
+            } else {
+                builder.addCoordinateGames(reader);
+            }
+        }
+        int entries = builder.write(Path.of(args[1]), minWeight);
+        System.out.println("Games: " + builder.games());
+        System.out.println("Positions: " + builder.positions());
+        System.out.println("Entries written: " + entries);
+    }
+}
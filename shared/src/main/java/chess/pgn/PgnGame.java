@@ -0,0 +1,63 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.MoveList;
+import chess.PackedMove;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One game as read from PGN text, with its moves still in SAN. Comments,
+ * variations and annotation glyphs are not kept.
+ *
+ * @param tags   the tag pairs, in file order
+ * @param moves  the mainline moves in SAN, move numbers removed
+ * @param result the game termination marker: "1-0", "0-1", "1/2-1/2" or "*"
+ */
+public record PgnGame(Map<String, String> tags, List<String> moves, String result) {
+
+    /**
+     * @return a tag's value, or null if the game does not have it
+     */
+    public String tag(String name) {
+        return tags.get(name);
+    }
+
+    /**
+     * @return a new game at the position the moves start from: the FEN tag's
+     * position if there is one, otherwise the standard starting position
+     * @throws IllegalArgumentException if the FEN tag is not valid FEN
+     */
+    public ChessGame startingPosition() {
+        String fen = tags.get("FEN");
+        return (fen == null) ? new ChessGame() : ChessGame.fromFen(fen);
+    }
+
+    /**
+     * Plays the moves on a game, checking each against its legal moves
+     *
+     * @param game    a game at {@link #startingPosition()}; it is left at the
+     *                final position
+     * @param scratch a list to generate legal moves into
+     * @return the moves played
+     * @throws IllegalArgumentException at the first move that is not legal SAN,
+     *                                  naming it and its ply
+     */
+    public List<ChessMove> play(ChessGame game, MoveList scratch) {
+        List<ChessMove> played = new ArrayList<>(moves.size());
+        for (int ply = 0; ply < moves.size(); ply++) {
+            int move;
+            try {
+                move = San.parse(game, moves.get(ply), scratch);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Ply " + (ply + 1) + ": " + e.getMessage(), e);
+            }
+            game.doMove(move);
+            played.add(PackedMove.toChessMove(move));
+        }
+        return played;
+    }
+}
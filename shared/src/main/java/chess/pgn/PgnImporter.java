@@ -0,0 +1,134 @@
+package chess.pgn;
+
+import chess.BoardSnapshot;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.Fen;
+import chess.MoveList;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads a PGN file of any size and replays its games in parallel, handing each
+ * one to a {@link PgnSink} as soon as it has been checked.
+ * <p>
+ * Games are read on the calling thread in batches. While the pool replays one
+ * batch the caller reads the next, so at most two batches are in memory at
+ * once however long the file is, and reading overlaps with the SAN work that
+ * dominates the cost. Each pool thread replays into its own reused game.
+ */
+public class PgnImporter {
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final ForkJoinPool pool;
+    private final int batchSize;
+    private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+
+    /**
+     * @param pool      the pool to replay games on
+     * @param batchSize how many games to read before handing them to the pool
+     */
+    public PgnImporter(ForkJoinPool pool, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.pool = pool;
+        this.batchSize = batchSize;
+    }
+
+    public PgnImporter() {
+        this(ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE);
+    }
+
+    private static class Worker {
+        // Shared by every worker; snapshots are immutable
+        private static final BoardSnapshot START = new ChessGame().snapshot();
+
+        final ChessGame game = new ChessGame();
+        final MoveList scratch = new MoveList();
+
+        void replay(PgnGame source, PgnSink sink) {
+            List<ChessMove> moves;
+            try {
+                // Set up the start in the reused game, as PgnGame.startingPosition() would in a new one
+                String fen = source.tag("FEN");
+                if (fen == null) {
+                    game.copyFrom(START);
+                } else {
+                    Fen.read(fen, game);
+                }
+                moves = source.play(game, scratch);
+            } catch (IllegalArgumentException e) {
+                sink.reject(source, e);
+                return;
+            }
+            sink.accept(source, moves, new ChessGame(game));
+        }
+    }
+
+    /**
+     * Imports every game in the text
+     *
+     * @param reader the PGN text; it is read to the end but not closed
+     * @param sink   receives each game once it has been replayed
+     * @return the number of games read, accepted or rejected
+     */
+    public long importGames(Reader reader, PgnSink sink) throws IOException {
+        PgnReader games = new PgnReader(reader);
+        long count = 0;
+        ForkJoinTask<?> running = null;
+        while (true) {
+            List<PgnGame> batch = new ArrayList<>(batchSize);
+            PgnGame game;
+            while (batch.size() < batchSize && (game = games.next()) != null) {
+                batch.add(game);
+            }
+            if (running != null) {
+                running.join();
+                running = null;
+            }
+            if (batch.isEmpty()) {
+                return count;
+            }
+            count += batch.size();
+            running = pool.submit(() -> batch.parallelStream().forEach(source -> workers.get().replay(source, sink)));
+        }
+    }
+
+    /**
+     * Replays every game in a PGN file and reports how many were legal and how
+     * fast they were checked.
+     * <p>
+     * Usage: {@code PgnImporter <games.pgn>}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: PgnImporter <games.pgn>");
+            System.exit(1);
+        }
+        AtomicLong accepted = new AtomicLong();
+        AtomicLong plies = new AtomicLong();
+        long start = System.nanoTime();
+        long read;
+        try (Reader reader = Files.newBufferedReader(Path.of(args[0]))) {
+            read = new PgnImporter().importGames(reader, (source, moves, finalPosition) -> {
+                accepted.incrementAndGet();
+                plies.addAndGet(moves.size());
+            });
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println("Games: " + read);
+        System.out.println("Rejected: " + (read - accepted.get()));
+        System.out.println("Plies: " + plies.get());
+        System.out.printf("Time: %.3f s%n", seconds);
+        System.out.printf("Games/sec: %.0f%n", read / Math.max(seconds, 1e-9));
+    }
+}
@@ -0,0 +1,235 @@
+package chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits PGN text into games, one at a time, so a file of any size is read
+ * with only the current game in memory.
+ * <p>
+ * The reader only tokenizes: tag pairs are collected, move numbers,
+ * annotation glyphs, comments (brace and semicolon), escape lines and
+ * variations are skipped, and the remaining move tokens are kept as SAN text
+ * for {@link PgnGame#play} to check. A game ends at its termination marker, or
+ * at the next game's tags or the end of the text if the marker is missing.
+ * Tag lines that cannot be parsed are skipped.
+ */
+public class PgnReader implements Closeable {
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder token = new StringBuilder(32);
+    private int position;
+    private int limit;
+    private int pushedBack = EOF;
+    private int last = '\n';
+    // Whether the character read last began a line, for escape lines
+    private boolean startOfLine;
+
+    public PgnReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return the next game, or null at the end of the text
+     */
+    public PgnGame next() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        List<String> moves = new ArrayList<>();
+        String result = null;
+
+        while (result == null) {
+            int c = skipWhitespace();
+            if (c == EOF) {
+                break;
+            }
+            if (c == '[') {
+                if (!moves.isEmpty()) {
+                    // The next game's tags; this one had no termination marker
+                    pushBack(c);
+                    break;
+                }
+                readTag(tags);
+            } else if (c == '{') {
+                skipPast('}');
+            } else if (c == ';' || (c == '%' && startOfLine)) {
+                skipPast('\n');
+            } else if (c == '(') {
+                skipVariation();
+            } else if (c == '$') {
+                skipNag();
+            } else if (c == '*') {
+                result = "*";
+            } else {
+                String text = readToken(c);
+                if (text.equals("1-0") || text.equals("0-1") || text.equals("1/2-1/2")) {
+                    result = text;
+                } else {
+                    String move = stripMoveNumber(text);
+                    if (!move.isEmpty()) {
+                        moves.add(move);
+                    }
+                }
+            }
+        }
+
+        if (result == null && tags.isEmpty() && moves.isEmpty()) {
+            return null;
+        }
+        return new PgnGame(tags, moves, (result == null) ? "*" : result);
+    }
+
+    /**
+     * @return the token with any leading move number ("12." or "12...") removed
+     */
+    private static String stripMoveNumber(String text) {
+        int start = 0;
+        while (start < text.length() && Character.isDigit(text.charAt(start))) {
+            start++;
+        }
+        if (start == 0 || start == text.length() || text.charAt(start) != '.') {
+            // Not a move number after all; a bare number is dropped too
+            return (start == text.length()) ? "" : text;
+        }
+        while (start < text.length() && text.charAt(start) == '.') {
+            start++;
+        }
+        return text.substring(start);
+    }
+
+    private void readTag(Map<String, String> tags) throws IOException {
+        int c = skipWhitespace();
+        token.setLength(0);
+        while (c != EOF && !Character.isWhitespace(c) && c != '"' && c != ']') {
+            token.append((char) c);
+            c = read();
+        }
+        String name = token.toString();
+        while (c != EOF && c != '"' && c != ']' && c != '\n') {
+            c = read();
+        }
+        if (c != '"') {
+            skipLine(c);
+            return;
+        }
+
+        token.setLength(0);
+        for (c = read(); c != EOF && c != '"' && c != '\n'; c = read()) {
+            if (c == '\\') {
+                c = read();
+                if (c == EOF) {
+                    break;
+                }
+            }
+            token.append((char) c);
+        }
+        if (c == '"' && !name.isEmpty()) {
+            tags.put(name, token.toString());
+        }
+        skipLine(c);
+    }
+
+    /**
+     * Skips to the tag's closing bracket, or the end of its line
+     */
+    private void skipLine(int c) throws IOException {
+        while (c != EOF && c != ']' && c != '\n') {
+            c = read();
+        }
+    }
+
+    private void skipVariation() throws IOException {
+        int depth = 1;
+        while (depth > 0) {
+            int c = read();
+            if (c == EOF) {
+                return;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '{') {
+                skipPast('}');
+            } else if (c == ';') {
+                skipPast('\n');
+            }
+        }
+    }
+
+    private void skipPast(char end) throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != EOF && c != end);
+    }
+
+    /**
+     * Skips the digits of a numeric annotation glyph such as $14
+     */
+    private void skipNag() throws IOException {
+        int c = read();
+        while (c >= '0' && c <= '9') {
+            c = read();
+        }
+        if (c != EOF && !Character.isWhitespace(c)) {
+            pushBack(c);
+        }
+    }
+
+    private String readToken(int first) throws IOException {
+        token.setLength(0);
+        int c = first;
+        while (c != EOF && !Character.isWhitespace(c) && "{}()[];$".indexOf(c) < 0) {
+            token.append((char) c);
+            c = read();
+        }
+        if (c != EOF && !Character.isWhitespace(c)) {
+            pushBack(c);
+        }
+        return token.toString();
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c = read();
+        while (c != EOF && Character.isWhitespace(c)) {
+            c = read();
+        }
+        return c;
+    }
+
+    private void pushBack(int c) {
+        pushedBack = c;
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pushedBack != EOF) {
+            c = pushedBack;
+            pushedBack = EOF;
+            return c;
+        }
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return EOF;
+            }
+        }
+        c = buffer[position++];
+        startOfLine = last == '\n';
+        last = c;
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
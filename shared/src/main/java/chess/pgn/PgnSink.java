@@ -0,0 +1,32 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.ChessMove;
+
+import java.util.List;
+
+/**
+ * Receives the games a {@link PgnImporter} has checked. Calls come from
+ * several threads at once and in no particular order, so implementations must
+ * be thread-safe.
+ */
+@FunctionalInterface
+public interface PgnSink {
+    /**
+     * Receives a game whose every move was legal
+     *
+     * @param source        the game as read
+     * @param moves         its moves, in order
+     * @param finalPosition a new game at the position after the last move,
+     *                      owned by the sink from here on
+     */
+    void accept(PgnGame source, List<ChessMove> moves, ChessGame finalPosition);
+
+    /**
+     * Receives a game that could not be replayed; by default it is dropped
+     *
+     * @param error names the first bad move, or the invalid FEN tag
+     */
+    default void reject(PgnGame source, IllegalArgumentException error) {
+    }
+}
@@ -0,0 +1,172 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.Fen;
+import chess.MoveList;
+import chess.PackedMove;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes games as PGN export format: the seven-tag roster first (with
+ * {@code ?} placeholders for missing values), then any other tags, then the
+ * movetext in SAN wrapped at 80 columns and a blank line. Games that do not
+ * start from the standard position get SetUp and FEN tags.
+ * <p>
+ * Each game is built in memory and written in one call, so games written from
+ * several threads never interleave, and only one game is held at a time.
+ */
+public class PgnWriter implements Closeable, Flushable {
+    private static final String[] ROSTER = {"Event", "Site", "Date", "Round", "White", "Black", "Result"};
+    private static final String[] ROSTER_DEFAULTS = {"?", "?", "????.??.??", "?", "?", "?", "*"};
+    private static final int LINE_WIDTH = 80;
+
+    private final Writer writer;
+    private final StringBuilder text = new StringBuilder(1024);
+    private final MoveList scratch = new MoveList();
+
+    public PgnWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Writes a game played from a position
+     *
+     * @param tags   tag pairs to write; a Result tag is replaced by {@code result}
+     * @param start  the position the moves start from; it is not modified
+     * @param moves  the moves played, each legal in turn
+     * @param result the termination marker: "1-0", "0-1", "1/2-1/2" or "*"
+     * @throws IllegalArgumentException if a move is not legal, in which case
+     *                                  nothing is written
+     */
+    public synchronized void write(Map<String, String> tags, ChessGame start, List<ChessMove> moves, String result)
+            throws IOException {
+        text.setLength(0);
+        ChessGame game = new ChessGame(start);
+        String startFen = game.toFen();
+        for (int i = 0; i < ROSTER.length; i++) {
+            String value = ROSTER[i].equals("Result") ? result : tags.getOrDefault(ROSTER[i], ROSTER_DEFAULTS[i]);
+            appendTag(ROSTER[i], value);
+        }
+        if (!startFen.equals(Fen.START)) {
+            appendTag("SetUp", "1");
+            appendTag("FEN", startFen);
+        }
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            if (!isRoster(tag.getKey()) && !tag.getKey().equals("SetUp") && !tag.getKey().equals("FEN")) {
+                appendTag(tag.getKey(), tag.getValue());
+            }
+        }
+        text.append('\n');
+
+        int lineStart = text.length();
+        StringBuilder token = new StringBuilder(16);
+        for (int ply = 0; ply < moves.size(); ply++) {
+            token.setLength(0);
+            boolean white = game.getTeamTurn() == ChessGame.TeamColor.WHITE;
+            if (white || ply == 0) {
+                token.append(game.getFullmoveNumber()).append(white ? ". " : "... ");
+            }
+            game.doMove(San.append(game, PackedMove.fromChessMove(moves.get(ply)), token, scratch));
+            lineStart = appendWrapped(token, lineStart);
+        }
+        token.setLength(0);
+        token.append(result);
+        appendWrapped(token, lineStart);
+        text.append("\n\n");
+
+        writer.write(text.toString());
+    }
+
+    /**
+     * Writes a game as read, with its SAN moves unchecked
+     */
+    public synchronized void write(PgnGame game) throws IOException {
+        text.setLength(0);
+        for (int i = 0; i < ROSTER.length; i++) {
+            String value = ROSTER[i].equals("Result") ? game.result()
+                    : game.tags().getOrDefault(ROSTER[i], ROSTER_DEFAULTS[i]);
+            appendTag(ROSTER[i], value);
+        }
+        for (Map.Entry<String, String> tag : game.tags().entrySet()) {
+            if (!isRoster(tag.getKey())) {
+                appendTag(tag.getKey(), tag.getValue());
+            }
+        }
+        text.append('\n');
+
+        // Without replaying, the move numbers assume White moved first
+        int lineStart = text.length();
+        StringBuilder token = new StringBuilder(16);
+        for (int ply = 0; ply < game.moves().size(); ply++) {
+            token.setLength(0);
+            if (ply % 2 == 0) {
+                token.append(ply / 2 + 1).append(". ");
+            }
+            token.append(game.moves().get(ply));
+            lineStart = appendWrapped(token, lineStart);
+        }
+        token.setLength(0);
+        token.append(game.result());
+        appendWrapped(token, lineStart);
+        text.append("\n\n");
+
+        writer.write(text.toString());
+    }
+
+    /**
+     * Appends a movetext token, starting a new line first if it would run past
+     * the line width
+     *
+     * @return where the current line starts
+     */
+    private int appendWrapped(CharSequence token, int lineStart) {
+        if (text.length() > lineStart) {
+            if (text.length() - lineStart + 1 + token.length() > LINE_WIDTH) {
+                text.append('\n');
+                lineStart = text.length();
+            } else {
+                text.append(' ');
+            }
+        }
+        text.append(token);
+        return lineStart;
+    }
+
+    private void appendTag(String name, String value) {
+        text.append('[').append(name).append(" \"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                text.append('\\');
+            }
+            text.append(c);
+        }
+        text.append("\"]\n");
+    }
+
+    private static boolean isRoster(String name) {
+        for (String tag : ROSTER) {
+            if (tag.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,250 @@
+package chess.pgn;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.MoveList;
+import chess.PackedMove;
+
+/**
+ * Standard algebraic notation, e.g. {@code Nbd7}, {@code exd6}, {@code e8=Q+}
+ * or {@code O-O-O}, read and written against a game's legal moves.
+ * <p>
+ * Reading is lenient about what PGN files in the wild contain: check and mate
+ * marks, annotation glyphs such as {@code !?}, castling written with zeros, a
+ * promotion without its {@code =} and a redundant capture mark or
+ * disambiguation are all accepted. A move that matches no legal move, or
+ * matches more than one, is rejected.
+ */
+public final class San {
+    private San() {
+    }
+
+    /**
+     * Finds the legal move a SAN token stands for in the game's position
+     *
+     * @param scratch a list to generate the legal moves into
+     * @return the legal {@link PackedMove}, with its flags
+     * @throws IllegalArgumentException if the token is not SAN, or does not
+     *                                  name exactly one legal move
+     */
+    public static int parse(ChessGame game, CharSequence san, MoveList scratch) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (end < 2) {
+            throw invalid(san);
+        }
+        ChessGame.TeamColor us = game.getTeamTurn();
+        game.legalMoves(us, scratch);
+
+        char first = san.charAt(0);
+        if (first == 'O' || first == '0') {
+            boolean queenside = end == 5;
+            if (end != 3 && end != 5) {
+                throw invalid(san);
+            }
+            int kingSquare = game.getBoard().kingSquare(us);
+            return unique(game, san, scratch, ChessPiece.PieceType.KING, kingSquare & 7, kingSquare >>> 3,
+                    kingSquare + (queenside ? -2 : 2), null);
+        }
+
+        ChessPiece.PieceType promotion = null;
+        char last = san.charAt(end - 1);
+        if (last >= 'A' && last <= 'Z') {
+            promotion = pieceType(last);
+            end -= (san.charAt(end - 2) == '=') ? 2 : 1;
+            if (promotion == null || promotion == ChessPiece.PieceType.KING || promotion == ChessPiece.PieceType.PAWN) {
+                throw invalid(san);
+            }
+        }
+        if (end < 2) {
+            throw invalid(san);
+        }
+        int toFile = san.charAt(end - 2) - 'a';
+        int toRank = san.charAt(end - 1) - '1';
+        if (toFile < 0 || toFile > 7 || toRank < 0 || toRank > 7) {
+            throw invalid(san);
+        }
+
+        int index = 0;
+        ChessPiece.PieceType type = ChessPiece.PieceType.PAWN;
+        if (first >= 'A' && first <= 'Z') {
+            type = pieceType(first);
+            if (type == null || type == ChessPiece.PieceType.PAWN) {
+                throw invalid(san);
+            }
+            index++;
+        }
+        int fromFile = -1;
+        int fromRank = -1;
+        for (; index < end - 2; index++) {
+            char c = san.charAt(index);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            } else if (c != 'x' && c != ':' && c != '-') {
+                throw invalid(san);
+            }
+        }
+        return unique(game, san, scratch, type, fromFile, fromRank, toRank * 8 + toFile, promotion);
+    }
+
+    /**
+     * Finds the legal move a SAN token stands for in the game's position
+     *
+     * @see #parse(ChessGame, CharSequence, MoveList)
+     */
+    public static int parse(ChessGame game, CharSequence san) {
+        return parse(game, san, new MoveList());
+    }
+
+    private static int unique(ChessGame game, CharSequence san, MoveList legal, ChessPiece.PieceType type,
+                              int fromFile, int fromRank, int to, ChessPiece.PieceType promotion) {
+        ChessBoard board = game.getBoard();
+        int found = PackedMove.NONE;
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            int from = PackedMove.from(move);
+            if (PackedMove.to(move) != to || board.getPiece(from).getPieceType() != type
+                    || PackedMove.promotion(move) != promotion
+                    || (fromFile >= 0 && (from & 7) != fromFile) || (fromRank >= 0 && (from >>> 3) != fromRank)) {
+                continue;
+            }
+            if (found != PackedMove.NONE) {
+                throw new IllegalArgumentException("Ambiguous move: " + san);
+            }
+            found = move;
+        }
+        if (found == PackedMove.NONE) {
+            throw new IllegalArgumentException("Not a legal move: " + san);
+        }
+        return found;
+    }
+
+    /**
+     * Writes a legal move in SAN, with the shortest disambiguation that makes
+     * it unique and a check or mate mark
+     *
+     * @param game    the position the move is played from; it is played and
+     *                taken back to test for check, and left as it was
+     * @param scratch a list to generate the legal moves into
+     * @return the legal move with its flags, ready for {@link ChessGame#doMove}
+     * @throws IllegalArgumentException if the move is not legal in the position
+     */
+    public static int append(ChessGame game, int move, StringBuilder text, MoveList scratch) {
+        ChessGame.TeamColor us = game.getTeamTurn();
+        game.legalMoves(us, scratch);
+        int index = scratch.indexOf(PackedMove.identity(move));
+        if (index < 0) {
+            throw new IllegalArgumentException("Not a legal move: " + PackedMove.toCoordinate(move));
+        }
+        move = scratch.get(index);
+
+        ChessBoard board = game.getBoard();
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece.PieceType type = board.getPiece(from).getPieceType();
+        boolean capture = PackedMove.hasFlag(move, PackedMove.CAPTURE);
+
+        if (type == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            text.append((to > from) ? "O-O" : "O-O-O");
+        } else if (type == ChessPiece.PieceType.PAWN) {
+            if (capture) {
+                text.append((char) ('a' + (from & 7))).append('x');
+            }
+            appendSquare(text, to);
+            ChessPiece.PieceType promotion = PackedMove.promotion(move);
+            if (promotion != null) {
+                text.append('=').append(letter(promotion));
+            }
+        } else {
+            text.append(letter(type));
+            appendDisambiguation(board, scratch, move, type, text);
+            if (capture) {
+                text.append('x');
+            }
+            appendSquare(text, to);
+        }
+
+        game.doMove(move);
+        ChessGame.TeamColor them = game.getTeamTurn();
+        if (game.isInCheck(them)) {
+            game.legalMoves(them, scratch);
+            text.append(scratch.isEmpty() ? '#' : '+');
+        }
+        game.undoMove();
+        return move;
+    }
+
+    /**
+     * @return a legal move in SAN
+     * @see #append(ChessGame, int, StringBuilder, MoveList)
+     */
+    public static String format(ChessGame game, int move) {
+        StringBuilder text = new StringBuilder(8);
+        append(game, move, text, new MoveList());
+        return text.toString();
+    }
+
+    private static void appendDisambiguation(ChessBoard board, MoveList legal, int move, ChessPiece.PieceType type,
+                                             StringBuilder text) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (int i = 0; i < legal.size(); i++) {
+            int other = PackedMove.from(legal.get(i));
+            if (other == from || PackedMove.to(legal.get(i)) != to || board.getPiece(other).getPieceType() != type) {
+                continue;
+            }
+            ambiguous = true;
+            sameFile |= (other & 7) == (from & 7);
+            sameRank |= (other >>> 3) == (from >>> 3);
+        }
+        if (!ambiguous) {
+            return;
+        }
+        if (!sameFile) {
+            text.append((char) ('a' + (from & 7)));
+        } else if (!sameRank) {
+            text.append((char) ('1' + (from >>> 3)));
+        } else {
+            appendSquare(text, from);
+        }
+    }
+
+    private static void appendSquare(StringBuilder text, int square) {
+        text.append((char) ('a' + (square & 7))).append((char) ('1' + (square >>> 3)));
+    }
+
+    private static ChessPiece.PieceType pieceType(char letter) {
+        return switch (letter) {
+            case 'K' -> ChessPiece.PieceType.KING;
+            case 'Q' -> ChessPiece.PieceType.QUEEN;
+            case 'R' -> ChessPiece.PieceType.ROOK;
+            case 'B' -> ChessPiece.PieceType.BISHOP;
+            case 'N' -> ChessPiece.PieceType.KNIGHT;
+            case 'P' -> ChessPiece.PieceType.PAWN;
+            default -> null;
+        };
+    }
+
+    private static char letter(ChessPiece.PieceType type) {
+        return switch (type) {
+            case KING -> 'K';
+            case QUEEN -> 'Q';
+            case ROOK -> 'R';
+            case BISHOP -> 'B';
+            case KNIGHT -> 'N';
+            case PAWN -> 'P';
+        };
+    }
+
+    private static IllegalArgumentException invalid(CharSequence san) {
+        return new IllegalArgumentException("Not a SAN move: " + san);
+    }
+}
@@ -0,0 +1,229 @@
+package chess.search;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.MoveList;
+import chess.PackedMove;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Sorts move lists best-first for alpha-beta search, where trying the refuting
+ * move first is what lets the rest be cut off.
+ * <p>
+ * Moves are tried in this order: the transposition table move, the previous
+ * iteration's principal variation move, captures and promotions that do not
+ * lose material by {@link StaticExchange static exchange} (most valuable
+ * victim first, then least valuable attacker), the two killer moves of the ply
+ * (quiet moves that caused a cutoff at the same ply elsewhere in the tree),
+ * other quiet moves by their history score (how often and how deep they have
+ * caused cutoffs anywhere), and last the captures that lose material.
+ * <p>
+ * Killers and history are learned during a search through
+ * {@link #recordCutoff}, so one MoveOrderer belongs to one search thread.
+ * Each {@link Heuristic} can be turned off, which is how their effect on node
+ * counts is measured.
+ */
+public class MoveOrderer {
+    /**
+     * The heuristics beyond hash move, principal variation and MVV-LVA ordering
+     */
+    public enum Heuristic {
+        /** Put captures that lose material after the quiet moves */
+        STATIC_EXCHANGE,
+        /** Try each ply's recent cutoff moves before other quiet moves */
+        KILLERS,
+        /** Sort quiet moves by the cutoffs they have caused */
+        HISTORY
+    }
+
+    private static final int KILLERS_PER_PLY = 2;
+
+    private static final int HASH_MOVE = 4_000_000;
+    private static final int PV_MOVE = 3_000_000;
+    private static final int GOOD_CAPTURE = 2_000_000;
+    private static final int FIRST_KILLER = 1_900_000;
+    private static final int SECOND_KILLER = 1_800_000;
+    private static final int BAD_CAPTURE = -1_000_000;
+    // Keeps history scores below the killers; reaching it halves every score
+    private static final int MAX_HISTORY = 1_000_000;
+
+    private final boolean staticExchange;
+    private final boolean useKillers;
+    private final boolean useHistory;
+    private final int[][] killers = new int[Search.MAX_PLY][KILLERS_PER_PLY];
+    private final int[][] history = new int[2][64 * 64];
+    private int[] scores = new int[MoveList.DEFAULT_CAPACITY];
+
+    /**
+     * @param heuristics the heuristics to use on top of hash move, principal
+     *                   variation and MVV-LVA ordering
+     */
+    public MoveOrderer(Set<Heuristic> heuristics) {
+        staticExchange = heuristics.contains(Heuristic.STATIC_EXCHANGE);
+        useKillers = heuristics.contains(Heuristic.KILLERS);
+        useHistory = heuristics.contains(Heuristic.HISTORY);
+    }
+
+    /**
+     * Uses every heuristic
+     */
+    public MoveOrderer() {
+        this(EnumSet.allOf(Heuristic.class));
+    }
+
+    /**
+     * Forgets the killers, which belong to the previous position's tree, and
+     * halves the history so recent cutoffs weigh more than old ones
+     */
+    public void newSearch() {
+        clearKillers();
+        for (int[] colorHistory : history) {
+            for (int i = 0; i < colorHistory.length; i++) {
+                colorHistory[i] >>= 1;
+            }
+        }
+    }
+
+    public void clear() {
+        clearKillers();
+        for (int[] colorHistory : history) {
+            Arrays.fill(colorHistory, 0);
+        }
+    }
+
+    private void clearKillers() {
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, 0);
+        }
+    }
+
+    /**
+     * Sorts legal moves best-first
+     *
+     * @param board    the position the moves are played from
+     * @param us       the side to move
+     * @param moves    the moves to sort in place
+     * @param ply      the distance from the search root, for the killer moves
+     * @param hashMove the transposition table move's identity, or 0
+     * @param pvMove   the principal variation move's identity, or 0
+     */
+    public void order(ChessBoard board, ChessGame.TeamColor us, MoveList moves, int ply, int hashMove, int pvMove) {
+        int size = moves.size();
+        if (scores.length < size) {
+            scores = new int[size];
+        }
+        int[] colorHistory = history[us.ordinal()];
+        for (int i = 0; i < size; i++) {
+            int move = moves.get(i);
+            int identity = PackedMove.identity(move);
+            int score;
+            if (hashMove != 0 && identity == hashMove) {
+                score = HASH_MOVE;
+            } else if (pvMove != 0 && identity == pvMove) {
+                score = PV_MOVE;
+            } else if (isTactical(move)) {
+                score = (staticExchange && StaticExchange.evaluate(board, move) < 0) ? BAD_CAPTURE : GOOD_CAPTURE;
+                score += captureScore(board, move);
+            } else if (useKillers && identity == killers[ply][0]) {
+                score = FIRST_KILLER;
+            } else if (useKillers && identity == killers[ply][1]) {
+                score = SECOND_KILLER;
+            } else {
+                score = useHistory ? colorHistory[historyIndex(move)] : 0;
+            }
+            scores[i] = score;
+        }
+
+        // Insertion sort: lists are short and often nearly ordered already
+        for (int i = 1; i < size; i++) {
+            int move = moves.get(i);
+            int score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                scores[j + 1] = scores[j];
+                moves.set(j + 1, moves.get(j));
+                j--;
+            }
+            scores[j + 1] = score;
+            moves.set(j + 1, move);
+        }
+    }
+
+    /**
+     * Most valuable victim first, then least valuable attacker, with the
+     * promotion piece's value added. An en passant capture leaves the target
+     * square empty; its victim is a pawn.
+     */
+    private static int captureScore(ChessBoard board, int move) {
+        int score = 0;
+        if (PackedMove.hasFlag(move, PackedMove.CAPTURE)) {
+            ChessPiece victim = board.getPiece(PackedMove.to(move));
+            ChessPiece.PieceType victimType = (victim == null) ? ChessPiece.PieceType.PAWN : victim.getPieceType();
+            ChessPiece attacker = board.getPiece(PackedMove.from(move));
+            score = 10 * PieceValues.pieceValue(victimType)
+                    - PieceValues.pieceValue(attacker.getPieceType()) / 10;
+        }
+        if (PackedMove.isPromotion(move)) {
+            score += PieceValues.pieceValue(PackedMove.promotion(move));
+        }
+        return score;
+    }
+
+    /**
+     * @return whether a quiescence search can skip the capture because it loses
+     * material; always false with {@link Heuristic#STATIC_EXCHANGE} off
+     */
+    public boolean losesMaterial(ChessBoard board, int move) {
+        return staticExchange && !PackedMove.isPromotion(move) && StaticExchange.evaluate(board, move) < 0;
+    }
+
+    /**
+     * Learns from a move that caused a beta cutoff. Captures and promotions are
+     * already ordered well, so only quiet moves are recorded.
+     *
+     * @param depth the remaining depth of the cutoff; deeper cutoffs count more
+     */
+    public void recordCutoff(ChessGame.TeamColor us, int move, int ply, int depth) {
+        if (isTactical(move)) {
+            return;
+        }
+        int identity = PackedMove.identity(move);
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != identity) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = identity;
+        }
+
+        int[] colorHistory = history[us.ordinal()];
+        int index = historyIndex(move);
+        colorHistory[index] += depth * depth;
+        if (colorHistory[index] >= MAX_HISTORY) {
+            for (int i = 0; i < colorHistory.length; i++) {
+                colorHistory[i] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * @return a killer move's identity at the ply, or 0 if the slot is empty
+     */
+    public int killer(int ply, int slot) {
+        return killers[ply][slot];
+    }
+
+    public int history(ChessGame.TeamColor us, int move) {
+        return history[us.ordinal()][historyIndex(move)];
+    }
+
+    private static boolean isTactical(int move) {
+        return PackedMove.hasFlag(move, PackedMove.CAPTURE) || PackedMove.isPromotion(move);
+    }
+
+    private static int historyIndex(int move) {
+        return PackedMove.from(move) * 64 + PackedMove.to(move);
+    }
+}
@@ -0,0 +1,141 @@
+package chess.search;
+
+import chess.ChessGame;
+import chess.tablebase.Tablebases;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Lazy-SMP search: every thread runs its own {@link Search} on the same root
+ * over one shared {@link TranspositionTable}, and the threads help each other
+ * only through the entries they leave there. The main thread searches every
+ * depth; helper threads skip depths in staggered patterns so they run ahead of
+ * it and fill the table with deeper results.
+ * <p>
+ * The answer is the deepest completed iteration among all threads, with ties
+ * going to the main thread and then to the lowest-numbered helper. With one
+ * thread the result is exactly that of a plain {@link Search}. Node counts are
+ * summed over all threads, and a node budget is split evenly between them.
+ * <p>
+ * The main thread runs on the caller's thread and helpers on a fixed pool owned
+ * by this object, so {@link #close()} it when done. {@link #stop()} cancels a
+ * search from any thread, even one that has been handed off but not started. One ParallelSearch runs one search at a time.
+ */
+public class ParallelSearch implements AutoCloseable {
+    private final TranspositionTable table;
+    private final Search[] workers;
+    private final ExecutorService helperPool;
+
+    /**
+     * @param table   the transposition table the threads share
+     * @param threads how many threads to search with, including the caller's
+     */
+    public ParallelSearch(TranspositionTable table, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        this.table = table;
+        workers = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Search(table, i, new MoveOrderer());
+        }
+        helperPool = (threads == 1) ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param tablebases endgame tables for every thread to score the positions
+     *                   they cover with, or null to search every position
+     */
+    public void setTablebases(Tablebases tablebases) {
+        for (Search worker : workers) {
+            worker.setTablebases(tablebases);
+        }
+    }
+
+    public int threads() {
+        return workers.length;
+    }
+
+    /**
+     * Searches the game's position for the side to move on all threads
+     *
+     * @param position the position to search; it is copied, not modified
+     * @param limits   when to stop; the time limit applies to every thread
+     * @return the deepest result found, with node counts summed over all threads
+     */
+    public SearchResult search(ChessGame position, SearchLimits limits) {
+        long start = System.nanoTime();
+        for (Search worker : workers) {
+            worker.reset();
+        }
+        table.newSearch();
+
+        SearchLimits perThread = (limits.maxNodes() == 0) ? limits
+                : limits.withNodes(Math.max(1, limits.maxNodes() / workers.length));
+
+        List<Future<SearchResult>> helpers = new ArrayList<>(workers.length - 1);
+        for (int i = 1; i < workers.length; i++) {
+            Search helper = workers[i];
+            helpers.add(helperPool.submit(() -> helper.run(position, perThread)));
+        }
+
+        SearchResult best;
+        try {
+            best = workers[0].run(position, perThread);
+        } finally {
+            // The main thread decides when the search is over
+            for (int i = 1; i < workers.length; i++) {
+                workers[i].halt();
+            }
+        }
+
+        long nodes = best.nodes();
+        for (Future<SearchResult> helper : helpers) {
+            SearchResult result = join(helper);
+            nodes += result.nodes();
+            if (result.depth() > best.depth() && result.bestMove() != null) {
+                best = result;
+            }
+        }
+        return new SearchResult(best.bestMove(), best.score(), best.depth(), best.principalVariation(),
+                nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Asks the running search to stop as soon as possible, or the next one to
+     * start if none is running yet, for example when the client waiting for it
+     * disconnects. Safe to call from any thread.
+     */
+    public void stop() {
+        // The main thread ends the helpers once it stops
+        workers[0].stop();
+    }
+
+    @Override
+    public void close() {
+        stop();
+        if (helperPool != null) {
+            helperPool.shutdown();
+        }
+    }
+
+    private static SearchResult join(Future<SearchResult> helper) {
+        try {
+            return helper.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for a search thread", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("search thread failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package chess.search;
+
+import chess.ChessPiece;
+
+/**
+ * Fixed piece values for exchange arithmetic in the search, such as ordering
+ * captures. Position scores come from {@link chess.ChessGame#evaluate()}.
+ */
+public final class PieceValues {
+    private static final int[] PIECE_VALUES = new int[ChessPiece.PieceType.values().length];
+
+    static {
+        PIECE_VALUES[ChessPiece.PieceType.KING.ordinal()] = 0;
+        PIECE_VALUES[ChessPiece.PieceType.QUEEN.ordinal()] = 900;
+        PIECE_VALUES[ChessPiece.PieceType.ROOK.ordinal()] = 500;
+        PIECE_VALUES[ChessPiece.PieceType.BISHOP.ordinal()] = 330;
+        PIECE_VALUES[ChessPiece.PieceType.KNIGHT.ordinal()] = 320;
+        PIECE_VALUES[ChessPiece.PieceType.PAWN.ordinal()] = 100;
+    }
+
+    private PieceValues() {
+    }
+
+    /**
+     * @return the material value of a piece type in centipawns
+     */
+    public static int pieceValue(ChessPiece.PieceType type) {
+        return PIECE_VALUES[type.ordinal()];
+    }
+}
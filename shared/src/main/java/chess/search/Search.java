@@ -0,0 +1,508 @@
+package chess.search;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.MoveList;
+import chess.PackedMove;
+import chess.tablebase.Tablebases;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chooses a move for the side to move with a negamax alpha-beta search.
+ * <p>
+ * The search deepens one ply at a time, seeding each iteration with the
+ * previous principal variation and, from {@link #ASPIRATION_MIN_DEPTH} on, a
+ * narrow aspiration window around the previous score that is widened only when
+ * the result falls outside it. Leaves are resolved with a captures-only
+ * quiescence search so scores are not taken in the middle of an exchange;
+ * captures that lose material by static exchange are left out of it. Moves are
+ * tried in {@link MoveOrderer} order. Below the root, a position that already
+ * occurred in the game or the search, or that the fifty-move rule has drawn,
+ * scores as a draw.
+ * <p>
+ * Results are stored in a {@link TranspositionTable}, which cuts off positions
+ * already searched deeply enough and supplies a first move to try elsewhere.
+ * Passing the same table to several Searches (or reusing one Search) lets later
+ * searches of the same game start from warm entries.
+ * <p>
+ * With {@link Tablebases} set, positions they cover are scored exactly instead
+ * of searched, and a root they cover is answered by probing alone, with depth 0.
+ * <p>
+ * The search stops at the first limit reached (depth, wall clock or nodes) and
+ * answers with the deepest completed iteration. {@link #stop()} may be called
+ * from another thread. A Search works on its own copy of the game, so the
+ * caller's game is never touched; one Search must not run two searches at once.
+ */
+public class Search {
+    public static final int MATE = 30_000;
+    public static final int MAX_PLY = 128;
+    /**
+     * Scores at least this far from zero are mates: found by the search within
+     * {@link #MAX_PLY} plies, or read from a tablebase up to another
+     * {@link #MAX_PLY} plies beyond the probed position
+     */
+    public static final int MATE_BOUND = MATE - 2 * MAX_PLY;
+
+    static final int INFINITY = MATE + 1;
+    static final int ASPIRATION_MIN_DEPTH = 4;
+    static final int ASPIRATION_WINDOW = 50;
+    static final int DEFAULT_TABLE_MB = 16;
+
+    private static final int TIME_CHECK_INTERVAL = 1024;
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+
+    // Lazy-SMP depth skipping for helper threads: helper h skips an iteration when
+    // ((depth + SKIP_PHASE[h]) / SKIP_SIZE[h]) is odd, so helpers spread over
+    // different depths instead of repeating the main thread's work
+    private static final int[] SKIP_SIZE = {1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4};
+    private static final int[] SKIP_PHASE = {0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7};
+
+    private final TranspositionTable table;
+    private final int helperIndex;
+    private final MoveOrderer orderer;
+    private Tablebases tablebases;
+    private final ChessGame game = new ChessGame();
+    private final MoveList[] movesByPly = new MoveList[MAX_PLY];
+    private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    private final int[] previousPv = new int[MAX_PLY];
+    private int previousPvLength;
+
+    // Set when the current iteration must end: the budget ran out, a stop was
+    // requested, or the ParallelSearch this helps has finished
+    private volatile boolean stopped;
+    // Every stop() adds one; a search is cancelled while this differs from the
+    // count at the end of the previous search, so a stop that comes before the
+    // search starts still ends it
+    private final AtomicInteger stopRequests = new AtomicInteger();
+    private int stopsHandled;
+    private long nodes;
+    private long maxNodes;
+    private long deadline;
+
+    public Search() {
+        this(new TranspositionTable(DEFAULT_TABLE_MB));
+    }
+
+    /**
+     * @param table the transposition table to read and fill; it may be shared
+     *              with Searches running on other threads
+     */
+    public Search(TranspositionTable table) {
+        this(table, new MoveOrderer());
+    }
+
+    /**
+     * @param orderer the move ordering to search with; it learns during the
+     *                search, so it must not be shared with other Searches
+     */
+    public Search(TranspositionTable table, MoveOrderer orderer) {
+        this(table, 0, orderer);
+    }
+
+    /**
+     * @param helperIndex 0 for a search of its own or the main thread of a
+     *                    {@link ParallelSearch}; helpers (1 and up) skip some depths
+     */
+    Search(TranspositionTable table, int helperIndex, MoveOrderer orderer) {
+        this.table = table;
+        this.helperIndex = helperIndex;
+        this.orderer = orderer;
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            movesByPly[ply] = new MoveList();
+        }
+    }
+
+    /**
+     * @param tablebases endgame tables to score the positions they cover with,
+     *                   or null to search every position
+     */
+    public void setTablebases(Tablebases tablebases) {
+        this.tablebases = tablebases;
+    }
+
+    /**
+     * Searches the game's position for the side to move
+     *
+     * @param position the position to search; it is copied, not modified
+     * @param limits   when to stop
+     * @return the best move found with its principal variation and statistics
+     */
+    public SearchResult search(ChessGame position, SearchLimits limits) {
+        reset();
+        table.newSearch();
+        return run(position, limits);
+    }
+
+    /**
+     * Clears the previous search's end and ages the move ordering statistics.
+     * Kept apart from {@link #run} so a {@link #halt()} between the two is not lost.
+     */
+    void reset() {
+        stopped = false;
+        orderer.newSearch();
+    }
+
+    /**
+     * Runs the iterative deepening loop without clearing a {@link #halt()} or
+     * starting a new table generation. The stop requests made so far are used up
+     * when it returns.
+     */
+    SearchResult run(ChessGame position, SearchLimits limits) {
+        try {
+            return iterate(position, limits);
+        } finally {
+            stopsHandled = stopRequests.get();
+        }
+    }
+
+    private SearchResult iterate(ChessGame position, SearchLimits limits) {
+        long start = System.nanoTime();
+        game.copyFrom(position);
+        nodes = 0;
+        maxNodes = (limits.maxNodes() == 0) ? Long.MAX_VALUE : limits.maxNodes();
+        deadline = (limits.maxTimeMillis() == 0) ? Long.MAX_VALUE : start + limits.maxTimeMillis() * 1_000_000L;
+        previousPvLength = 0;
+
+        if (tablebaseScore(0) != UNKNOWN) {
+            SearchResult known = tablebaseResult(start);
+            if (known != null) {
+                return known;
+            }
+        }
+
+        int completedDepth = 0;
+        int score = 0;
+        for (int depth = 1; depth <= limits.maxDepth(); depth++) {
+            if (skipsDepth(depth)) {
+                continue;
+            }
+            int iterationScore = aspirationSearch(depth, score);
+            if (stopped) {
+                break;
+            }
+            score = iterationScore;
+            completedDepth = depth;
+            previousPvLength = pvLength[0];
+            System.arraycopy(pvTable[0], 0, previousPv, 0, previousPvLength);
+
+            // A forced mate found within the horizon cannot be improved on
+            if (Math.abs(score) >= MATE - depth) {
+                break;
+            }
+        }
+
+        List<ChessMove> pv = new ArrayList<>(previousPvLength);
+        for (int i = 0; i < previousPvLength; i++) {
+            pv.add(PackedMove.toChessMove(previousPv[i]));
+        }
+        ChessMove best = pv.isEmpty() ? fallbackMove() : pv.get(0);
+        return new SearchResult(best, score, completedDepth, pv, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Asks the running search to stop as soon as possible, or the next one to
+     * start if none is running yet. Safe to call from any thread.
+     */
+    public void stop() {
+        stopRequests.incrementAndGet();
+    }
+
+    /**
+     * Ends the current or about-to-start run without leaving a stop request for
+     * later ones, for a {@link ParallelSearch} to end its helpers
+     */
+    void halt() {
+        stopped = true;
+    }
+
+    /**
+     * Answers from the tablebases alone, following their best move for both
+     * sides to the end of the game
+     *
+     * @return the result, or null if some move leaves the tables
+     */
+    private SearchResult tablebaseResult(long start) {
+        int score = tablebaseScore(0);
+        List<ChessMove> pv = new ArrayList<>();
+        int ply = 0;
+        while (ply < MAX_PLY - 1) {
+            int move = tablebaseMove(ply);
+            if (move == UNKNOWN) {
+                if (ply == 0) {
+                    return null;
+                }
+                break;
+            }
+            if (move == 0) {
+                break;
+            }
+            pv.add(PackedMove.toChessMove(move));
+            game.doMove(move);
+            ply++;
+            // A drawn line goes on forever; its first move is enough
+            if (score == 0) {
+                break;
+            }
+        }
+        for (int i = 0; i < ply; i++) {
+            game.undoMove();
+        }
+        ChessMove best = pv.isEmpty() ? null : pv.get(0);
+        return new SearchResult(best, score, 0, pv, 0, System.nanoTime() - start);
+    }
+
+    /**
+     * @return the legal move with the best tablebase score, 0 if there are no
+     * legal moves, or {@link #UNKNOWN} if some move reaches an uncovered position
+     */
+    private int tablebaseMove(int ply) {
+        MoveList moves = movesByPly[ply];
+        game.legalMoves(game.getTeamTurn(), moves);
+        int bestMove = 0;
+        int best = -INFINITY;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            game.doMove(move);
+            int score = tablebaseScore(ply + 1);
+            game.undoMove();
+            if (score == UNKNOWN) {
+                return UNKNOWN;
+            }
+            if (-score > best) {
+                best = -score;
+                bestMove = move;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * @return the exact score of the position for the side to move, with mates
+     * counted from the root, or {@link #UNKNOWN} if no table covers it
+     */
+    private int tablebaseScore(int ply) {
+        int code = (tablebases == null) ? Tablebases.NOT_FOUND : tablebases.probe(game);
+        if (code == Tablebases.NOT_FOUND) {
+            return UNKNOWN;
+        }
+        int distance = Tablebases.distanceToMate(code);
+        if (Tablebases.isWin(code)) {
+            return MATE - ply - distance;
+        }
+        return Tablebases.isLoss(code) ? -MATE + ply + distance : 0;
+    }
+
+    private boolean skipsDepth(int depth) {
+        if (helperIndex == 0) {
+            return false;
+        }
+        int helper = (helperIndex - 1) % SKIP_SIZE.length;
+        return ((depth + SKIP_PHASE[helper]) / SKIP_SIZE[helper]) % 2 == 1;
+    }
+
+    private ChessMove fallbackMove() {
+        // Stopped before depth 1 finished: any legal move beats none
+        MoveList moves = movesByPly[0];
+        game.legalMoves(game.getTeamTurn(), moves);
+        return moves.isEmpty() ? null : PackedMove.toChessMove(moves.get(0));
+    }
+
+    private int aspirationSearch(int depth, int previousScore) {
+        if (depth < ASPIRATION_MIN_DEPTH) {
+            return negamax(depth, 0, -INFINITY, INFINITY);
+        }
+
+        int delta = ASPIRATION_WINDOW;
+        int alpha = Math.max(previousScore - delta, -INFINITY);
+        int beta = Math.min(previousScore + delta, INFINITY);
+        while (true) {
+            int score = negamax(depth, 0, alpha, beta);
+            if (stopped) {
+                return score;
+            }
+            if (score <= alpha) {
+                alpha = Math.max(score - delta, -INFINITY);
+            } else if (score >= beta) {
+                beta = Math.min(score + delta, INFINITY);
+            } else {
+                return score;
+            }
+            delta *= 2;
+        }
+    }
+
+    private boolean outOfBudget() {
+        if (++nodes >= maxNodes) {
+            stopped = true;
+        } else if ((nodes & (TIME_CHECK_INTERVAL - 1)) == 0
+                && (System.nanoTime() >= deadline || stopRequests.get() != stopsHandled)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        if (depth <= 0) {
+            return quiesce(ply, alpha, beta);
+        }
+        pvLength[ply] = ply;
+        if (outOfBudget()) {
+            return 0;
+        }
+        if (ply > 0) {
+            // A repeated position is scored as the draw either side can force by repeating again
+            if (game.isRepetition() || game.isDrawByFiftyMoveRule()) {
+                return 0;
+            }
+            int known = tablebaseScore(ply);
+            if (known != UNKNOWN) {
+                return known;
+            }
+        }
+
+        long key = game.zobristKey();
+        long entry = table.probe(key);
+        int hashMove = 0;
+        if (entry != TranspositionTable.MISS) {
+            hashMove = TranspositionTable.move(entry);
+            // The root always searches, so it always has a move to answer with
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        ChessGame.TeamColor us = game.getTeamTurn();
+        MoveList moves = movesByPly[ply];
+        game.legalMoves(us, moves);
+        if (moves.isEmpty()) {
+            return game.isInCheck(us) ? -MATE + ply : 0;
+        }
+        if (ply == MAX_PLY - 1) {
+            return evaluate();
+        }
+        int pvMove = (ply < previousPvLength) ? PackedMove.identity(previousPv[ply]) : 0;
+        orderer.order(game.getBoard(), us, moves, ply, hashMove, pvMove);
+
+        int originalAlpha = alpha;
+        int bestMove = 0;
+        int best = -INFINITY;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            game.doMove(move);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            game.undoMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    bestMove = move;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        orderer.recordCutoff(us, move, ply, depth);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = (best >= beta) ? TranspositionTable.BOUND_LOWER
+                : (best > originalAlpha) ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+        table.store(key, PackedMove.identity(bestMove), TranspositionTable.scoreToTable(best, ply), depth, bound);
+        return best;
+    }
+
+    private int quiesce(int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if (outOfBudget()) {
+            return 0;
+        }
+        int known = tablebaseScore(ply);
+        if (known != UNKNOWN) {
+            return known;
+        }
+
+        ChessGame.TeamColor us = game.getTeamTurn();
+        boolean inCheck = game.isInCheck(us);
+        MoveList moves = movesByPly[ply];
+        game.legalMoves(us, moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : 0;
+        }
+
+        int standPat = evaluate();
+        if (ply == MAX_PLY - 1) {
+            return standPat;
+        }
+        int best = -INFINITY;
+        if (!inCheck) {
+            // Not capturing is always an option, except when in check
+            if (standPat >= beta) {
+                return standPat;
+            }
+            best = standPat;
+            alpha = Math.max(alpha, standPat);
+            keepTactical(moves);
+        }
+        orderer.order(game.getBoard(), us, moves, ply, 0, 0);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            game.doMove(move);
+            int score = -quiesce(ply + 1, -beta, -alpha);
+            game.undoMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private int evaluate() {
+        return game.evaluate();
+    }
+
+    private void keepTactical(MoveList moves) {
+        int kept = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            boolean tactical = PackedMove.hasFlag(move, PackedMove.CAPTURE) || PackedMove.isPromotion(move);
+            if (tactical && !orderer.losesMaterial(game.getBoard(), move)) {
+                moves.set(kept++, move);
+            }
+        }
+        moves.truncate(kept);
+    }
+
+    private void updatePv(int ply, int move) {
+        int[] line = pvTable[ply];
+        line[ply] = move;
+        int childLength = pvLength[ply + 1];
+        System.arraycopy(pvTable[ply + 1], ply + 1, line, ply + 1, childLength - (ply + 1));
+        pvLength[ply] = Math.max(childLength, ply + 1);
+    }
+}
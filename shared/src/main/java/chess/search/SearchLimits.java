@@ -0,0 +1,46 @@
+package chess.search;
+
+/**
+ * How far and how long a search may run. Whichever limit is reached first stops
+ * the search; the best move from the deepest completed iteration is returned.
+ *
+ * @param maxDepth      deepest iteration to search, in plies
+ * @param maxTimeMillis wall-clock budget in milliseconds, or 0 for none
+ * @param maxNodes      node budget, or 0 for none
+ */
+public record SearchLimits(int maxDepth, long maxTimeMillis, long maxNodes) {
+    public static final int MAX_DEPTH = 64;
+
+    public SearchLimits {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("maxDepth must be between 1 and " + MAX_DEPTH);
+        }
+        if (maxTimeMillis < 0 || maxNodes < 0) {
+            throw new IllegalArgumentException("limits cannot be negative");
+        }
+    }
+
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    public static SearchLimits timeMillis(long millis) {
+        return new SearchLimits(MAX_DEPTH, millis, 0);
+    }
+
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(MAX_DEPTH, 0, nodes);
+    }
+
+    public SearchLimits withMaxDepth(int depth) {
+        return new SearchLimits(depth, maxTimeMillis, maxNodes);
+    }
+
+    public SearchLimits withTimeMillis(long millis) {
+        return new SearchLimits(maxDepth, millis, maxNodes);
+    }
+
+    public SearchLimits withNodes(long nodes) {
+        return new SearchLimits(maxDepth, maxTimeMillis, nodes);
+    }
+}
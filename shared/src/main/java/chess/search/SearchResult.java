@@ -0,0 +1,33 @@
+package chess.search;
+
+import chess.ChessMove;
+
+import java.util.List;
+
+/**
+ * The outcome of a search
+ *
+ * @param bestMove           the move to play, or null if the side to move has no legal move
+ * @param score              centipawn score for the side to move; mate scores are
+ *                           at least {@link Search#MATE_BOUND} from zero
+ * @param depth              the deepest fully completed iteration
+ * @param principalVariation the expected line of play, starting with the best move
+ * @param nodes              positions visited, including quiescence nodes
+ * @param elapsedNanos       wall-clock time spent
+ */
+public record SearchResult(
+        ChessMove bestMove,
+        int score,
+        int depth,
+        List<ChessMove> principalVariation,
+        long nodes,
+        long elapsedNanos) {
+
+    public long nodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+    }
+
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE_BOUND;
+    }
+}
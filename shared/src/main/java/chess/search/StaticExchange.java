@@ -0,0 +1,91 @@
+package chess.search;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.PackedMove;
+
+/**
+ * Static exchange evaluation: the material a move wins or loses once every
+ * capture and recapture on its target square has been played out, each side
+ * always recapturing with its least valuable attacker and free to stop when
+ * going on would lose material. Sliders hidden behind a capturing piece join
+ * in once it has moved off the line.
+ * <p>
+ * The exchange is resolved by recursion rather than a swap list, so nothing
+ * is allocated.
+ */
+public final class StaticExchange {
+    // High enough that trading the king for anything never looks worthwhile, so
+    // a king only recaptures when nothing can take it back
+    private static final int KING_VALUE = 20_000;
+
+    private static final ChessPiece.PieceType[] LEAST_VALUABLE_FIRST = {
+            ChessPiece.PieceType.PAWN, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING
+    };
+
+    private StaticExchange() {
+    }
+
+    /**
+     * @param board the position the move is played from
+     * @param move  a legal {@link PackedMove}; quiet moves are scored by whether
+     *              the moved piece can be won on its new square
+     * @return the material balance of the exchange for the side making the
+     * move, in centipawns
+     */
+    public static int evaluate(ChessBoard board, int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece mover = board.getPiece(from);
+        ChessPiece target = board.getPiece(to);
+
+        long occupied = board.occupied() & ~(1L << from);
+        int gain = (target == null) ? 0 : value(target.getPieceType());
+        if (PackedMove.hasFlag(move, PackedMove.EN_PASSANT)) {
+            // The captured pawn stands beside the mover, not on the target square
+            gain = value(ChessPiece.PieceType.PAWN);
+            occupied &= ~(1L << (to ^ 8));
+        }
+        int onSquare = value(mover.getPieceType());
+        if (PackedMove.isPromotion(move)) {
+            int promoted = value(PackedMove.promotion(move));
+            gain += promoted - onSquare;
+            onSquare = promoted;
+        }
+
+        return gain - exchange(board, to, opponent(mover.getTeamColor()), occupied, onSquare);
+    }
+
+    /**
+     * @param side      the side that may capture next
+     * @param occupied  the pieces still on the board
+     * @param onSquare  the value of the piece standing on the square
+     * @return what {@code side} gains by capturing on the square, or 0 if it is
+     * better off not capturing
+     */
+    private static int exchange(ChessBoard board, int square, ChessGame.TeamColor side, long occupied, int onSquare) {
+        long attackers = board.attackersOf(square, side, occupied) & occupied;
+        if (attackers == 0) {
+            return 0;
+        }
+        for (ChessPiece.PieceType type : LEAST_VALUABLE_FIRST) {
+            long candidates = attackers & board.pieces(side, type);
+            if (candidates != 0) {
+                long capturer = Long.lowestOneBit(candidates);
+                int gain = onSquare - exchange(board, square, opponent(side), occupied & ~capturer, value(type));
+                return Math.max(0, gain);
+            }
+        }
+        return 0;
+    }
+
+    private static int value(ChessPiece.PieceType type) {
+        return (type == ChessPiece.PieceType.KING) ? KING_VALUE : PieceValues.pieceValue(type);
+    }
+
+    private static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return (color == ChessGame.TeamColor.WHITE) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
@@ -0,0 +1,200 @@
+package chess.search;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash table of search results keyed by {@link chess.ChessGame#zobristKey()},
+ * safe to share between threads without locks.
+ * <p>
+ * The table is one {@code long[]}. Each entry is two longs: the packed data
+ * word and the key XORed with it. A reader accepts an entry only if the two
+ * words XOR back to its key, so an entry torn by racing writers is simply seen
+ * as a miss, never as wrong data. Entries are grouped in buckets of four (one
+ * 64-byte cache line); a new result replaces the entry for the same key, an
+ * empty entry, or else the entry that is shallowest once older searches'
+ * entries are penalised.
+ * <p>
+ * Data word layout: bits 0-15 move ({@link chess.PackedMove#identity}), 16-31
+ * score, 32-39 depth, 40-41 bound, 42-49 search generation.
+ */
+public final class TranspositionTable {
+    public static final int BOUND_LOWER = 1;
+    public static final int BOUND_UPPER = 2;
+    public static final int BOUND_EXACT = 3;
+
+    /** Returned by {@link #probe(long)} when the position is not in the table */
+    public static final long MISS = 0L;
+
+    private static final int ENTRY_LONGS = 2;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int BUCKET_LONGS = ENTRY_LONGS * BUCKET_ENTRIES;
+    private static final int BYTES_PER_BUCKET = BUCKET_LONGS * Long.BYTES;
+    private static final int AGE_PENALTY = 8;
+
+    private final long[] table;
+    private final int bucketMask;
+    private volatile int generation;
+
+    /**
+     * @param megabytes memory to use; rounded down to a power-of-two number of buckets
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1 || megabytes > 16384) {
+            throw new IllegalArgumentException("table size must be between 1 and 16384 MB");
+        }
+        long buckets = Long.highestOneBit((long) megabytes * 1024 * 1024 / BYTES_PER_BUCKET);
+        table = new long[Math.toIntExact(buckets * BUCKET_LONGS)];
+        bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * Marks the start of a new search, so entries from earlier searches are
+     * replaced before fresher ones of the same depth
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+        generation = 0;
+    }
+
+    /**
+     * @return the number of entries the table can hold
+     */
+    public long capacity() {
+        return (long) table.length / ENTRY_LONGS;
+    }
+
+    /**
+     * Looks up a position
+     *
+     * @param key the position's Zobrist key
+     * @return the packed data word, to be read with {@link #move}, {@link #score},
+     * {@link #depth} and {@link #bound}, or {@link #MISS}
+     */
+    public long probe(long key) {
+        int base = bucketOf(key);
+        for (int i = base; i < base + BUCKET_LONGS; i += ENTRY_LONGS) {
+            long data = table[i];
+            if (data != MISS && (table[i + 1] ^ data) == key) {
+                return data;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * Records a search result
+     *
+     * @param key   the position's Zobrist key
+     * @param move  the best move found, or 0 if none
+     * @param score the score, already adjusted with {@link #scoreToTable}
+     * @param depth the remaining depth the score was searched to, 0-255
+     * @param bound which of the BOUND_ constants the score is
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int base = bucketOf(key);
+        int age = generation;
+        int target = base;
+        int worst = Integer.MAX_VALUE;
+        for (int i = base; i < base + BUCKET_LONGS; i += ENTRY_LONGS) {
+            long data = table[i];
+            if (data == MISS) {
+                target = i;
+                break;
+            }
+            if ((table[i + 1] ^ data) == key) {
+                if (move == 0) {
+                    // Keep the old best move rather than forget it
+                    move = move(data);
+                }
+                target = i;
+                break;
+            }
+            int value = depth(data) - AGE_PENALTY * ((age - generation(data)) & 0xFF);
+            if (value < worst) {
+                worst = value;
+                target = i;
+            }
+        }
+
+        long data = (move & 0xFFFFL)
+                | ((score & 0xFFFFL) << 16)
+                | ((long) (depth & 0xFF) << 32)
+                | ((long) bound << 40)
+                | ((long) age << 42);
+        table[target] = data;
+        table[target + 1] = key ^ data;
+    }
+
+    /**
+     * @return how full the table is in permille, sampled from the first thousand
+     * entries and counting only entries from the current search
+     */
+    public int hashfull() {
+        int sample = (int) Math.min(1000, capacity());
+        int used = 0;
+        for (int entry = 0; entry < sample; entry++) {
+            long data = table[entry * ENTRY_LONGS];
+            if (data != MISS && generation(data) == generation) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> 16);
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> 32) & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> 40) & 0x3);
+    }
+
+    private static int generation(long data) {
+        return (int) ((data >>> 42) & 0xFF);
+    }
+
+    /**
+     * Converts a mate score from "mate in n plies from the root" to "mate in n
+     * plies from this position", so it stays correct when reached by another path
+     */
+    public static int scoreToTable(int score, int ply) {
+        if (score >= Search.MATE_BOUND) {
+            return score + ply;
+        }
+        if (score <= -Search.MATE_BOUND) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * Inverse of {@link #scoreToTable}
+     */
+    public static int scoreFromTable(int score, int ply) {
+        if (score >= Search.MATE_BOUND) {
+            return score - ply;
+        }
+        if (score <= -Search.MATE_BOUND) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    private int bucketOf(long key) {
+        // The low bits pick the bucket; mixing in the high bits spreads keys that
+        // differ only there
+        return ((int) (key ^ (key >>> 32)) & bucketMask) * BUCKET_LONGS;
+    }
+}
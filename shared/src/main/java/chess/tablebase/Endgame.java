@@ -0,0 +1,56 @@
+package chess.tablebase;
+
+import chess.ChessPiece;
+
+/**
+ * The material signatures covered by endgame tablebases. Each is stored with
+ * White as the side that has the extra pieces; positions where Black has them
+ * are probed with the colors swapped.
+ */
+public enum Endgame {
+    KQK(ChessPiece.PieceType.QUEEN),
+    KRK(ChessPiece.PieceType.ROOK),
+    KPK(ChessPiece.PieceType.PAWN),
+    KBNK(ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT);
+
+    private final ChessPiece.PieceType[] pieces;
+    private final boolean pawns;
+
+    Endgame(ChessPiece.PieceType... pieces) {
+        this.pieces = pieces;
+        boolean hasPawn = false;
+        for (ChessPiece.PieceType piece : pieces) {
+            hasPawn |= piece == ChessPiece.PieceType.PAWN;
+        }
+        this.pawns = hasPawn;
+    }
+
+    /**
+     * @return how many pieces the strong side has besides its king
+     */
+    public int pieceCount() {
+        return pieces.length;
+    }
+
+    /**
+     * @return the type of the strong side's i-th non-king piece
+     */
+    public ChessPiece.PieceType piece(int i) {
+        return pieces[i];
+    }
+
+    boolean hasPawns() {
+        return pawns;
+    }
+
+    /**
+     * @return the number of entries in this endgame's table
+     */
+    public int size() {
+        return TablebaseIndex.size(this);
+    }
+
+    public String fileName() {
+        return name() + ".tb";
+    }
+}
@@ -0,0 +1,486 @@
+package chess.tablebase;
+
+import chess.Bitboards;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Builds endgame tables by retrograde analysis.
+ * <p>
+ * Every index is first scored from its own moves: checkmates are losses in 0,
+ * stalemates draws, and moves that leave the table (captures, promotions) are
+ * resolved directly or from an already generated table. Then, one distance at
+ * a time, every position lost in {@code n} makes each of its predecessors a
+ * win in {@code n + 1}, and every position won in {@code n} has each of its
+ * predecessors checked: if all that predecessor's moves reach opponent wins,
+ * it is lost. Positions never reached are draws.
+ * <p>
+ * Each pass runs over the whole table in parallel on a {@link ForkJoinPool}.
+ * Results are claimed with compare-and-set, so threads never lock, and the
+ * distance-by-distance order keeps every stored distance the shortest one.
+ */
+public final class TablebaseGenerator {
+    private static final VarHandle RESULTS = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final int MAX_DISTANCE = 127;
+    private static final int MAX_MOVES = 64;
+
+    private final ForkJoinPool pool;
+    private final Tablebases tablebases = new Tablebases();
+
+    public TablebaseGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Generates on the common pool, which uses every core
+     */
+    public TablebaseGenerator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @return every table generated so far, ready to probe
+     */
+    public Tablebases tablebases() {
+        return tablebases;
+    }
+
+    /**
+     * Generates a table, first generating the tables its promotions lead to
+     *
+     * @return the table, header included
+     */
+    public ByteBuffer generate(Endgame endgame) {
+        if (endgame.hasPawns()) {
+            for (Endgame promotion : new Endgame[] {Endgame.KQK, Endgame.KRK}) {
+                if (!tablebases.covers(promotion)) {
+                    generate(promotion);
+                }
+            }
+        }
+
+        byte[] results = new Generation(endgame).run();
+        ByteBuffer table = ByteBuffer.allocate(Tablebases.HEADER_BYTES + results.length);
+        table.putInt(Tablebases.MAGIC).putInt(Tablebases.VERSION).putInt(endgame.ordinal()).putInt(results.length);
+        table.put(results).flip();
+        tablebases.add(endgame, table);
+        return table;
+    }
+
+    /**
+     * Writes a generated table to its {@link Endgame#fileName()} in a directory
+     */
+    public static void write(ByteBuffer table, Endgame endgame, Path directory) throws IOException {
+        ByteBuffer bytes = table.duplicate().rewind();
+        try (FileChannel channel = FileChannel.open(directory.resolve(endgame.fileName()), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+    }
+
+    private void parallel(int size, IntConsumer action) {
+        pool.submit(() -> IntStream.range(0, size).parallel().forEach(action)).join();
+    }
+
+    /**
+     * The state of one table while it is generated
+     */
+    private final class Generation {
+        private final Endgame endgame;
+        private final byte[] results;
+        private final AtomicInteger maxDistance = new AtomicInteger();
+        private final ThreadLocal<Worker> workers;
+
+        Generation(Endgame endgame) {
+            this.endgame = endgame;
+            this.results = new byte[endgame.size()];
+            this.workers = ThreadLocal.withInitial(Worker::new);
+        }
+
+        byte[] run() {
+            parallel(results.length, index -> workers.get().initialize(index));
+            for (int distance = 0; distance <= maxDistance.get(); distance++) {
+                int level = distance;
+                parallel(results.length, index -> {
+                    int code = result(index);
+                    if (code != Tablebases.DRAW && Tablebases.distanceToMate(code) == level) {
+                        workers.get().propagate(index, code, level);
+                    }
+                });
+            }
+            return results;
+        }
+
+        private int result(int index) {
+            return (byte) RESULTS.getVolatile(results, index) & 0xFF;
+        }
+
+        private void reached(int distance) {
+            if (distance > MAX_DISTANCE) {
+                throw new IllegalStateException(endgame + " has mates longer than " + MAX_DISTANCE + " plies");
+            }
+            maxDistance.accumulateAndGet(distance, Math::max);
+        }
+
+        /**
+         * Records a win unless the position already has a shorter one
+         */
+        private void setWin(int index, int distance) {
+            while (true) {
+                int current = result(index);
+                if (current != Tablebases.DRAW
+                        && !(Tablebases.isWin(current) && Tablebases.distanceToMate(current) > distance)) {
+                    return;
+                }
+                if (RESULTS.compareAndSet(results, index, (byte) current, (byte) Tablebases.win(distance))) {
+                    reached(distance);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * One thread's scratch space: a decoded position and its moves
+         */
+        private final class Worker {
+            private final int[] squares = new int[5];
+            private final int[] pieces = new int[2];
+            private final int[] next = new int[MAX_MOVES];
+            private final int[] exits = new int[MAX_MOVES];
+            private int nextCount;
+            private int exitCount;
+            private int stm;
+            private int whiteKing;
+            private int blackKing;
+            private long occupied;
+            private Worker verifier;
+
+            /**
+             * Decodes an index
+             *
+             * @return whether it is a legal position
+             */
+            boolean load(int index) {
+                if (!TablebaseIndex.isCanonical(endgame, index, squares)) {
+                    return false;
+                }
+                stm = squares[0];
+                whiteKing = squares[1];
+                blackKing = squares[2];
+                occupied = bit(whiteKing);
+                if ((occupied & bit(blackKing)) != 0) {
+                    return false;
+                }
+                occupied |= bit(blackKing);
+                for (int i = 0; i < endgame.pieceCount(); i++) {
+                    pieces[i] = squares[3 + i];
+                    if ((occupied & bit(pieces[i])) != 0) {
+                        return false;
+                    }
+                    int rank = pieces[i] >>> 3;
+                    if (endgame.piece(i) == ChessPiece.PieceType.PAWN && (rank == 0 || rank == 7)) {
+                        return false;
+                    }
+                    occupied |= bit(pieces[i]);
+                }
+                if ((Bitboards.kingAttacks(whiteKing) & bit(blackKing)) != 0) {
+                    return false;
+                }
+                // The side not to move cannot be in check
+                return stm == 1 || !attackedByWhite(blackKing, occupied, -1);
+            }
+
+            /**
+             * @param captured a piece to leave out, or -1
+             * @return whether White's pieces attack the square
+             */
+            private boolean attackedByWhite(int square, long occupied, int captured) {
+                if ((Bitboards.kingAttacks(whiteKing) & bit(square)) != 0) {
+                    return true;
+                }
+                for (int i = 0; i < endgame.pieceCount(); i++) {
+                    if (i == captured) {
+                        continue;
+                    }
+                    ChessPiece.PieceType type = endgame.piece(i);
+                    long attacks = (type == ChessPiece.PieceType.PAWN)
+                            ? Bitboards.pawnAttacks(ChessGame.TeamColor.WHITE, pieces[i])
+                            : Bitboards.attacks(type, pieces[i], occupied);
+                    if ((attacks & bit(square)) != 0) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            private int index(int stm, int whiteKing, int blackKing, int moved, int to) {
+                int piece0 = (moved == 0) ? to : pieces[0];
+                int piece1 = (moved == 1) ? to : pieces[1];
+                return TablebaseIndex.index(endgame, stm, whiteKing, blackKing, piece0, piece1);
+            }
+
+            /**
+             * Lists the loaded position's legal moves: indices of positions still
+             * in this table, and result codes (for the opponent) of the rest
+             */
+            void generate() {
+                nextCount = 0;
+                exitCount = 0;
+                if (stm == 0) {
+                    long targets = Bitboards.kingAttacks(whiteKing) & ~occupied & ~Bitboards.kingAttacks(blackKing);
+                    for (; targets != 0; targets &= targets - 1) {
+                        next[nextCount++] = index(1, Long.numberOfTrailingZeros(targets), blackKing, -1, 0);
+                    }
+                    for (int i = 0; i < endgame.pieceCount(); i++) {
+                        if (endgame.piece(i) == ChessPiece.PieceType.PAWN) {
+                            generatePawn(i);
+                            continue;
+                        }
+                        targets = Bitboards.attacks(endgame.piece(i), pieces[i], occupied) & ~occupied;
+                        for (; targets != 0; targets &= targets - 1) {
+                            next[nextCount++] = index(1, whiteKing, blackKing, i, Long.numberOfTrailingZeros(targets));
+                        }
+                    }
+                    return;
+                }
+
+                long targets = Bitboards.kingAttacks(blackKing) & ~Bitboards.kingAttacks(whiteKing);
+                for (; targets != 0; targets &= targets - 1) {
+                    int to = Long.numberOfTrailingZeros(targets);
+                    int captured = -1;
+                    for (int i = 0; i < endgame.pieceCount(); i++) {
+                        if (pieces[i] == to) {
+                            captured = i;
+                        }
+                    }
+                    long after = (occupied & ~bit(blackKing)) | bit(to);
+                    if (attackedByWhite(to, after, captured)) {
+                        continue;
+                    }
+                    if (captured >= 0) {
+                        // What is left is a king and at most one minor piece
+                        exits[exitCount++] = Tablebases.DRAW;
+                    } else {
+                        next[nextCount++] = index(0, whiteKing, to, -1, 0);
+                    }
+                }
+            }
+
+            private void generatePawn(int i) {
+                int from = pieces[i];
+                int to = from + 8;
+                if ((occupied & bit(to)) != 0) {
+                    return;
+                }
+                if ((to >>> 3) == 7) {
+                    exits[exitCount++] = promote(Endgame.KQK, to);
+                    exits[exitCount++] = promote(Endgame.KRK, to);
+                    // Underpromoting to a bishop or knight leaves a draw
+                    exits[exitCount++] = Tablebases.DRAW;
+                    return;
+                }
+                next[nextCount++] = index(1, whiteKing, blackKing, i, to);
+                if ((from >>> 3) == 1 && (occupied & bit(to + 8)) == 0) {
+                    next[nextCount++] = index(1, whiteKing, blackKing, i, to + 8);
+                }
+            }
+
+            private int promote(Endgame promoted, int square) {
+                return tablebases.probe(promoted, TablebaseIndex.index(promoted, 1, whiteKing, blackKing, square, 0));
+            }
+
+            void initialize(int index) {
+                if (!load(index)) {
+                    return;
+                }
+                generate();
+                if (nextCount == 0 && exitCount == 0) {
+                    if (stm == 1 && attackedByWhite(blackKing, occupied, -1)) {
+                        RESULTS.setVolatile(results, index, (byte) Tablebases.loss(0));
+                    }
+                    return;
+                }
+
+                int bestWin = Integer.MAX_VALUE;
+                int longestLoss = 0;
+                boolean allLose = nextCount == 0;
+                for (int i = 0; i < exitCount; i++) {
+                    int code = exits[i];
+                    if (Tablebases.isLoss(code)) {
+                        bestWin = Math.min(bestWin, Tablebases.distanceToMate(code) + 1);
+                    } else if (Tablebases.isWin(code)) {
+                        longestLoss = Math.max(longestLoss, Tablebases.distanceToMate(code) + 1);
+                    } else {
+                        allLose = false;
+                    }
+                }
+                if (bestWin != Integer.MAX_VALUE) {
+                    setWin(index, bestWin);
+                } else if (allLose) {
+                    reached(longestLoss);
+                    RESULTS.setVolatile(results, index, (byte) Tablebases.loss(longestLoss));
+                }
+            }
+
+            /**
+             * Updates the predecessors of a position decided at this distance
+             */
+            void propagate(int index, int code, int distance) {
+                load(index);
+                boolean lost = Tablebases.isLoss(code);
+                if (stm == 1) {
+                    // White moved last
+                    long from = Bitboards.kingAttacks(whiteKing) & ~occupied & ~Bitboards.kingAttacks(blackKing);
+                    for (; from != 0; from &= from - 1) {
+                        int square = Long.numberOfTrailingZeros(from);
+                        long before = occupied ^ bit(whiteKing) ^ bit(square);
+                        if (!attackedFrom(square, -1, 0, before)) {
+                            predecessor(index(0, square, blackKing, -1, 0), lost, distance);
+                        }
+                    }
+                    for (int i = 0; i < endgame.pieceCount(); i++) {
+                        int to = pieces[i];
+                        if (endgame.piece(i) == ChessPiece.PieceType.PAWN) {
+                            if ((to >>> 3) >= 2 && (occupied & bit(to - 8)) == 0) {
+                                unmovePiece(i, to - 8, lost, distance);
+                                if ((to >>> 3) == 3 && (occupied & bit(to - 16)) == 0) {
+                                    unmovePiece(i, to - 16, lost, distance);
+                                }
+                            }
+                            continue;
+                        }
+                        from = Bitboards.attacks(endgame.piece(i), to, occupied) & ~occupied;
+                        for (; from != 0; from &= from - 1) {
+                            unmovePiece(i, Long.numberOfTrailingZeros(from), lost, distance);
+                        }
+                    }
+                } else {
+                    // Black moved last; a lone king can never leave White in check
+                    long from = Bitboards.kingAttacks(blackKing) & ~occupied & ~Bitboards.kingAttacks(whiteKing);
+                    for (; from != 0; from &= from - 1) {
+                        predecessor(index(1, whiteKing, Long.numberOfTrailingZeros(from), -1, 0), lost, distance);
+                    }
+                }
+            }
+
+            private void unmovePiece(int i, int from, boolean lost, int distance) {
+                long before = occupied ^ bit(pieces[i]) ^ bit(from);
+                if (!attackedFrom(whiteKing, i, from, before)) {
+                    predecessor(index(0, whiteKing, blackKing, i, from), lost, distance);
+                }
+            }
+
+            /**
+             * @return whether Black's king would be in check with White's king on
+             * {@code king} and piece {@code moved} (or none, -1) on {@code square}
+             */
+            private boolean attackedFrom(int king, int moved, int square, long occupied) {
+                if ((Bitboards.kingAttacks(king) & bit(blackKing)) != 0) {
+                    return true;
+                }
+                for (int i = 0; i < endgame.pieceCount(); i++) {
+                    int at = (i == moved) ? square : pieces[i];
+                    ChessPiece.PieceType type = endgame.piece(i);
+                    long attacks = (type == ChessPiece.PieceType.PAWN)
+                            ? Bitboards.pawnAttacks(ChessGame.TeamColor.WHITE, at)
+                            : Bitboards.attacks(type, at, occupied);
+                    if ((attacks & bit(blackKing)) != 0) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            private void predecessor(int index, boolean lost, int distance) {
+                if (lost) {
+                    setWin(index, distance + 1);
+                } else if (result(index) == Tablebases.DRAW) {
+                    if (verifier == null) {
+                        verifier = new Worker();
+                    }
+                    verifier.verifyLoss(index, distance);
+                }
+            }
+
+            /**
+             * Marks a position lost if every move reaches an opponent win no
+             * longer than the given distance
+             */
+            private void verifyLoss(int index, int distance) {
+                load(index);
+                generate();
+                int longest = 0;
+                for (int i = 0; i < nextCount; i++) {
+                    int code = result(next[i]);
+                    if (!Tablebases.isWin(code) || Tablebases.distanceToMate(code) > distance) {
+                        return;
+                    }
+                    longest = Math.max(longest, Tablebases.distanceToMate(code) + 1);
+                }
+                for (int i = 0; i < exitCount; i++) {
+                    if (!Tablebases.isWin(exits[i])) {
+                        return;
+                    }
+                    longest = Math.max(longest, Tablebases.distanceToMate(exits[i]) + 1);
+                }
+                if (nextCount + exitCount > 0
+                        && RESULTS.compareAndSet(results, index, (byte) Tablebases.DRAW, (byte) Tablebases.loss(longest))) {
+                    reached(longest);
+                }
+            }
+        }
+    }
+
+    private static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * Generates tables and writes them to a directory.
+     * <p>
+     * Usage: {@code TablebaseGenerator <directory> [endgame...]}, generating
+     * every {@link Endgame} when none are named
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: TablebaseGenerator <directory> [endgame...]");
+            System.exit(1);
+        }
+        Path directory = Path.of(args[0]);
+        Files.createDirectories(directory);
+
+        List<Endgame> endgames = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            endgames.add(Endgame.valueOf(args[i].toUpperCase()));
+        }
+        if (endgames.isEmpty()) {
+            endgames.addAll(List.of(Endgame.values()));
+        }
+
+        TablebaseGenerator generator = new TablebaseGenerator();
+        for (Endgame endgame : endgames) {
+            long start = System.nanoTime();
+            ByteBuffer table = generator.generate(endgame);
+            write(table, endgame, directory);
+            System.out.printf("%s: %d entries in %d ms%n", endgame, endgame.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package chess.tablebase;
+
+/**
+ * Maps endgame positions to table indices and back.
+ * <p>
+ * An index is {@code (((stm * kingCodes + whiteKing) * 64 + blackKing) * 64 + piece0) * 64 + piece1},
+ * with one 64-way term per non-king piece. Symmetry shrinks the white king's
+ * range: pawnless positions are flipped and transposed until the white king
+ * is in the a1-d1-d4 triangle (10 squares), and pawn positions, which only have
+ * left-right symmetry, until it is on files a-d (32 squares). Every other piece
+ * is moved with the same symmetry.
+ * <p>
+ * Squares are 0-63 with a1 = 0, as on {@link chess.ChessBoard}; stm is 0 for
+ * White to move and 1 for Black.
+ */
+final class TablebaseIndex {
+    private static final int FLIP_FILE = 1;
+    private static final int FLIP_RANK = 2;
+    private static final int TRANSPOSE = 4;
+
+    private static final int[] PAWNLESS_KING_CODE = new int[64];
+    private static final int[] PAWNLESS_KING_SQUARE = new int[10];
+    private static final int[] PAWN_KING_CODE = new int[64];
+    private static final int[] PAWN_KING_SQUARE = new int[32];
+
+    static {
+        int pawnless = 0;
+        int pawn = 0;
+        for (int square = 0; square < 64; square++) {
+            int rank = square >>> 3;
+            int file = square & 7;
+            PAWNLESS_KING_CODE[square] = -1;
+            PAWN_KING_CODE[square] = -1;
+            if (file <= 3 && rank <= file) {
+                PAWNLESS_KING_SQUARE[pawnless] = square;
+                PAWNLESS_KING_CODE[square] = pawnless++;
+            }
+            if (file <= 3) {
+                PAWN_KING_SQUARE[pawn] = square;
+                PAWN_KING_CODE[square] = pawn++;
+            }
+        }
+    }
+
+    private TablebaseIndex() {
+    }
+
+    static int size(Endgame endgame) {
+        int size = 2 * kingCodes(endgame) * 64;
+        for (int i = 0; i < endgame.pieceCount(); i++) {
+            size *= 64;
+        }
+        return size;
+    }
+
+    private static int kingCodes(Endgame endgame) {
+        return endgame.hasPawns() ? PAWN_KING_SQUARE.length : PAWNLESS_KING_SQUARE.length;
+    }
+
+    /**
+     * @return the symmetry that brings the white king into the canonical region.
+     * A king on the a1-d4 diagonal is unchanged by transposing, so the first
+     * other piece off that diagonal decides, keeping one index per position.
+     */
+    private static int symmetry(Endgame endgame, int whiteKing, int blackKing, int piece0, int piece1) {
+        int symmetry = 0;
+        if ((whiteKing & 7) > 3) {
+            symmetry |= FLIP_FILE;
+        }
+        if (endgame.hasPawns()) {
+            return symmetry;
+        }
+        if ((whiteKing >>> 3) > 3) {
+            symmetry |= FLIP_RANK;
+        }
+        int moved = transform(symmetry, whiteKing);
+        if ((moved >>> 3) > (moved & 7)) {
+            return symmetry | TRANSPOSE;
+        }
+        if ((moved >>> 3) < (moved & 7)) {
+            return symmetry;
+        }
+        int side = diagonalSide(symmetry, blackKing);
+        if (side == 0) {
+            side = diagonalSide(symmetry, piece0);
+        }
+        if (side == 0 && endgame.pieceCount() > 1) {
+            side = diagonalSide(symmetry, piece1);
+        }
+        return (side > 0) ? symmetry | TRANSPOSE : symmetry;
+    }
+
+    /**
+     * @return positive above the a1-h8 diagonal, negative below, 0 on it
+     */
+    private static int diagonalSide(int symmetry, int square) {
+        int moved = transform(symmetry, square);
+        return (moved >>> 3) - (moved & 7);
+    }
+
+    private static int transform(int symmetry, int square) {
+        if ((symmetry & FLIP_FILE) != 0) {
+            square ^= 7;
+        }
+        if ((symmetry & FLIP_RANK) != 0) {
+            square ^= 56;
+        }
+        if ((symmetry & TRANSPOSE) != 0) {
+            square = ((square & 7) << 3) | (square >>> 3);
+        }
+        return square;
+    }
+
+    /**
+     * @param piece1 the second piece's square; ignored for three-piece endgames
+     * @return the index of the position after moving it into canonical form
+     */
+    static int index(Endgame endgame, int stm, int whiteKing, int blackKing, int piece0, int piece1) {
+        int symmetry = symmetry(endgame, whiteKing, blackKing, piece0, piece1);
+        int kingCode = endgame.hasPawns()
+                ? PAWN_KING_CODE[transform(symmetry, whiteKing)]
+                : PAWNLESS_KING_CODE[transform(symmetry, whiteKing)];
+
+        int index = ((stm * kingCodes(endgame) + kingCode) * 64 + transform(symmetry, blackKing)) * 64
+                + transform(symmetry, piece0);
+        if (endgame.pieceCount() > 1) {
+            index = index * 64 + transform(symmetry, piece1);
+        }
+        return index;
+    }
+
+    /**
+     * @return whether positions map to this index, rather than to an equal one
+     * that differs by symmetry
+     */
+    static boolean isCanonical(Endgame endgame, int index, int[] squares) {
+        decode(endgame, index, squares);
+        int piece1 = (endgame.pieceCount() > 1) ? squares[4] : 0;
+        return index(endgame, squares[0], squares[1], squares[2], squares[3], piece1) == index;
+    }
+
+    /**
+     * Decodes an index into {@code squares}: stm, white king, black king, then
+     * the non-king pieces in {@link Endgame} order
+     */
+    static void decode(Endgame endgame, int index, int[] squares) {
+        int pieces = endgame.pieceCount();
+        for (int i = pieces - 1; i >= 0; i--) {
+            squares[3 + i] = index & 63;
+            index >>>= 6;
+        }
+        squares[2] = index & 63;
+        index >>>= 6;
+        int codes = kingCodes(endgame);
+        int kingCode = index % codes;
+        squares[0] = index / codes;
+        squares[1] = endgame.hasPawns() ? PAWN_KING_SQUARE[kingCode] : PAWNLESS_KING_SQUARE[kingCode];
+    }
+}
@@ -0,0 +1,195 @@
+package chess.tablebase;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Probes endgame tablebases for the exact result of a position and its
+ * distance to mate.
+ * <p>
+ * A table file (see {@link TablebaseGenerator}) is a 16-byte header of magic
+ * {@code "CHTB"}, format version, {@link Endgame} ordinal and entry count,
+ * followed by one byte per {@link TablebaseIndex} position. Files are
+ * memory-mapped, so opening them costs nothing and processes share them
+ * through the page cache. Probing is a few arithmetic operations and one byte
+ * read, never allocates and is safe from any thread.
+ * <p>
+ * Probe results are result codes for the side to move: 0 is a draw, 1-127 a
+ * win and 128-255 a loss, with the distance to mate in plies read by
+ * {@link #distanceToMate(int)}. Positions are assumed to have no castling
+ * rights.
+ */
+public final class Tablebases {
+    /** Returned when no loaded table covers the position */
+    public static final int NOT_FOUND = -1;
+    public static final int DRAW = 0;
+
+    static final int MAGIC = 0x43485442;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+
+    private static final int LOSS = 0x80;
+
+    private final ByteBuffer[] tables = new ByteBuffer[Endgame.values().length];
+
+    Tablebases() {
+    }
+
+    /**
+     * @return tablebases that cover nothing but trivially drawn material
+     */
+    public static Tablebases empty() {
+        return new Tablebases();
+    }
+
+    /**
+     * Maps every table file present in a directory; missing endgames are simply
+     * not covered
+     *
+     * @throws IllegalArgumentException if a file is not a valid table
+     */
+    public static Tablebases open(Path directory) throws IOException {
+        Tablebases tablebases = new Tablebases();
+        for (Endgame endgame : Endgame.values()) {
+            Path file = directory.resolve(endgame.fileName());
+            if (Files.isRegularFile(file)) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    tablebases.add(endgame, mapped);
+                }
+            }
+        }
+        return tablebases;
+    }
+
+    /**
+     * Adds a table held in memory, header included
+     */
+    void add(Endgame endgame, ByteBuffer table) {
+        if (table.capacity() < HEADER_BYTES || table.getInt(0) != MAGIC || table.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("not a tablebase file: " + endgame.fileName());
+        }
+        if (table.getInt(8) != endgame.ordinal() || table.getInt(12) != endgame.size()
+                || table.capacity() < HEADER_BYTES + endgame.size()) {
+            throw new IllegalArgumentException("tablebase file does not match " + endgame);
+        }
+        tables[endgame.ordinal()] = table;
+    }
+
+    /**
+     * Reads the result code stored at a table index; the table must be loaded
+     */
+    int probe(Endgame endgame, int index) {
+        return tables[endgame.ordinal()].get(HEADER_BYTES + index) & 0xFF;
+    }
+
+    public boolean covers(Endgame endgame) {
+        return tables[endgame.ordinal()] != null;
+    }
+
+    /**
+     * Looks up the game's position for its side to move
+     *
+     * @return a result code, or {@link #NOT_FOUND}
+     */
+    public int probe(ChessGame game) {
+        return probe(game.getBoard(), game.getTeamTurn());
+    }
+
+    /**
+     * Looks up a position. Bare kings, and a lone bishop or knight against a
+     * king, are answered as draws without a table.
+     *
+     * @param board  the position
+     * @param toMove the side to move
+     * @return a result code for the side to move, or {@link #NOT_FOUND}
+     */
+    public int probe(ChessBoard board, ChessGame.TeamColor toMove) {
+        int count = Long.bitCount(board.occupied());
+        if (count > 4) {
+            return NOT_FOUND;
+        }
+
+        ChessGame.TeamColor strong = (Long.bitCount(board.pieces(ChessGame.TeamColor.WHITE)) > 1)
+                ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        ChessGame.TeamColor weak = (strong == ChessGame.TeamColor.WHITE)
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        if (Long.bitCount(board.pieces(weak)) != 1 || board.kingSquare(strong) < 0 || board.kingSquare(weak) < 0) {
+            return NOT_FOUND;
+        }
+        if (count == 2) {
+            return DRAW;
+        }
+        if (count == 3 && (board.pieces(strong, ChessPiece.PieceType.BISHOP)
+                | board.pieces(strong, ChessPiece.PieceType.KNIGHT)) != 0) {
+            return DRAW;
+        }
+
+        Endgame endgame = endgameOf(board, strong, count - 2);
+        if (endgame == null || tables[endgame.ordinal()] == null) {
+            return NOT_FOUND;
+        }
+
+        // Tables have White as the strong side; mirroring the ranks swaps colors
+        int flip = (strong == ChessGame.TeamColor.WHITE) ? 0 : 56;
+        int piece0 = Long.numberOfTrailingZeros(board.pieces(strong, endgame.piece(0))) ^ flip;
+        int piece1 = (endgame.pieceCount() > 1)
+                ? Long.numberOfTrailingZeros(board.pieces(strong, endgame.piece(1))) ^ flip : 0;
+        int stm = (toMove == strong) ? 0 : 1;
+        int index = TablebaseIndex.index(endgame, stm, board.kingSquare(strong) ^ flip,
+                board.kingSquare(weak) ^ flip, piece0, piece1);
+        return probe(endgame, index);
+    }
+
+    private static Endgame endgameOf(ChessBoard board, ChessGame.TeamColor strong, int pieces) {
+        for (Endgame endgame : Endgame.values()) {
+            if (endgame.pieceCount() != pieces) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < pieces; i++) {
+                matches &= Long.bitCount(board.pieces(strong, endgame.piece(i))) == 1;
+            }
+            if (matches) {
+                return endgame;
+            }
+        }
+        return null;
+    }
+
+    public static boolean isWin(int code) {
+        return code > 0 && code < LOSS;
+    }
+
+    public static boolean isLoss(int code) {
+        return code >= LOSS;
+    }
+
+    public static boolean isDraw(int code) {
+        return code == DRAW;
+    }
+
+    /**
+     * @return plies to mate with best play for a win or loss code, 0 for a draw
+     */
+    public static int distanceToMate(int code) {
+        return (code >= LOSS) ? code - LOSS : code;
+    }
+
+    static int win(int plies) {
+        return plies;
+    }
+
+    static int loss(int plies) {
+        return LOSS | plies;
+    }
+}
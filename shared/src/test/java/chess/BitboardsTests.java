@@ -0,0 +1,54 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitboardsTests {
+
+    private static long rayAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] dir : directions) {
+            int row = (square >>> 3) + dir[0];
+            int col = (square & 7) + dir[1];
+            while (row >= 0 && row < 8 && col >= 0 && col < 8) {
+                long bit = 1L << (row * 8 + col);
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                row += dir[0];
+                col += dir[1];
+            }
+        }
+        return attacks;
+    }
+
+    @Test
+    public void magicSlidersMatchRayWalk() {
+        int[][] rookDirections = {{0, 1}, {1, 0}, {0, -1}, {-1, 0}};
+        int[][] bishopDirections = {{1, 1}, {1, -1}, {-1, -1}, {-1, 1}};
+        Random random = new Random(240);
+
+        for (int i = 0; i < 2000; i++) {
+            long occupied = random.nextLong() & random.nextLong();
+            for (int square = 0; square < 64; square++) {
+                assertEquals(rayAttacks(square, occupied, rookDirections), Bitboards.rookAttacks(square, occupied));
+                assertEquals(rayAttacks(square, occupied, bishopDirections), Bitboards.bishopAttacks(square, occupied));
+            }
+        }
+    }
+
+    @Test
+    public void leaperTables() {
+        // b1 knight reaches a3, c3 and d2
+        assertEquals((1L << 16) | (1L << 18) | (1L << 11), Bitboards.knightAttacks(1));
+        // a1 king reaches a2, b1 and b2
+        assertEquals((1L << 1) | (1L << 8) | (1L << 9), Bitboards.kingAttacks(0));
+        // e4 pawns
+        assertEquals((1L << 35) | (1L << 37), Bitboards.pawnAttacks(ChessGame.TeamColor.WHITE, 28));
+        assertEquals((1L << 19) | (1L << 21), Bitboards.pawnAttacks(ChessGame.TeamColor.BLACK, 28));
+    }
+}
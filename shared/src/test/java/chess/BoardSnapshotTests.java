@@ -0,0 +1,136 @@
+package chess;
+
+import chess.analysis.PositionAnalyzer;
+import chess.analysis.PositionReport;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static chess.GameTestUtilities.play;
+
+public class BoardSnapshotTests {
+
+    @Test
+    public void snapshotIsReusedUntilTheGameChanges() {
+        ChessGame game = new ChessGame();
+        BoardSnapshot start = game.snapshot();
+        assertSame(start, game.snapshot());
+
+        play(game, "e2e4");
+        BoardSnapshot afterE4 = game.snapshot();
+        assertNotSame(start, afterE4);
+        assertSame(afterE4, game.snapshot());
+
+        // A trial move that is taken back leaves the same position
+        game.doMove(PackedMove.fromCoordinate("e7e5"));
+        game.undoMove();
+        assertSame(afterE4, game.snapshot());
+
+        game.setGameEnded();
+        assertTrue(game.snapshot().isGameEnded());
+        assertFalse(afterE4.isGameEnded());
+
+        assertEquals(Fen.START, start.toGame().toFen());
+        assertEquals(ChessGame.TeamColor.BLACK, afterE4.getTeamTurn());
+        assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                afterE4.getPiece(new ChessPosition(4, 5)));
+        assertNull(afterE4.getPiece(new ChessPosition(2, 5)));
+    }
+
+    @Test
+    public void snapshotsMatchTheirPositionOverRandomGames() {
+        Random random = new Random(5);
+        MoveList moves = new MoveList();
+        for (int gameNumber = 0; gameNumber < 20; gameNumber++) {
+            ChessGame game = new ChessGame();
+            List<BoardSnapshot> snapshots = new ArrayList<>();
+            List<String> fens = new ArrayList<>();
+            for (int ply = 0; ply < 80 && !game.isGameEnded(); ply++) {
+                BoardSnapshot snapshot = game.snapshot();
+                snapshots.add(snapshot);
+                fens.add(game.toFen());
+                for (int square = 0; square < 64; square++) {
+                    assertEquals(game.getBoard().getPiece(square), snapshot.getPiece(square));
+                }
+                assertEquals(game.getStatus(), snapshot.getStatus());
+                assertEquals(game.zobristKey(), snapshot.zobristKey());
+
+                game.legalMoves(game.getTeamTurn(), moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                game.doMove(moves.get(random.nextInt(moves.size())));
+            }
+
+            // Later moves never reach into earlier snapshots
+            for (int i = 0; i < snapshots.size(); i++) {
+                ChessGame copy = snapshots.get(i).toGame();
+                assertEquals(fens.get(i), copy.toFen());
+                assertEquals(snapshots.get(i).zobristKey(), copy.zobristKey());
+            }
+        }
+    }
+
+    @Test
+    public void gamesFromSnapshotsRememberRepetitions() {
+        ChessGame game = new ChessGame();
+        play(game, "g1f3", "g8f6", "f3g1", "f6g8", "g1f3", "g8f6", "f3g1");
+
+        ChessGame copy = game.snapshot().toGame();
+        assertFalse(copy.isDrawByRepetition());
+        play(copy, "f6g8");
+        assertTrue(copy.isDrawByRepetition());
+        assertTrue(copy.snapshot().isGameEnded());
+    }
+
+    @Test
+    public void snapshotJsonIsTheGamesJson() {
+        Gson gson = new Gson();
+        ChessGame game = ChessGame.fromFen("r3k2r/ppp2ppp/8/3pP3/8/8/PPP2PPP/R3K2R w Kq d6 0 12");
+        for (String move : new String[] {"e1d1", "e8d8", "d1e1", "d8e8"}) {
+            // doMove keeps no timeline, which the snapshot's JSON leaves out
+            game.doMove(PackedMove.fromCoordinate(move));
+        }
+        BoardSnapshot snapshot = game.snapshot();
+        String json = gson.toJson(snapshot);
+        assertEquals(gson.toJson(game), json);
+
+        ChessGame read = gson.fromJson(json, ChessGame.class);
+        assertEquals(game.toFen(), read.toFen());
+        assertEquals(game.getHalfmoveClock(), read.getHalfmoveClock());
+        assertEquals(snapshot.zobristKey(), gson.fromJson(json, BoardSnapshot.class).zobristKey());
+
+        game.setGameEnded();
+        assertEquals(gson.toJson(game), gson.toJson(game.snapshot()));
+    }
+
+    @Test
+    public void snapshotsCanBeAnalyzedOffTheGameThread() throws Exception {
+        ChessGame game = new ChessGame();
+        play(game, "f2f3", "e7e5", "g2g4");
+        BoardSnapshot beforeMate = game.snapshot();
+        play(game, "d8h4");
+        BoardSnapshot mate = game.snapshot();
+
+        PositionAnalyzer analyzer = new PositionAnalyzer();
+        PositionReport[] reports = new PositionReport[2];
+        Thread reader = new Thread(() -> {
+            reports[0] = analyzer.analyze(beforeMate);
+            reports[1] = analyzer.analyze(mate);
+        });
+        reader.start();
+        // The game keeps changing while the reader works
+        game.undoMove();
+        play(game, "a7a6");
+        reader.join();
+
+        assertEquals(PositionReport.Status.ONGOING, reports[0].status());
+        assertEquals(beforeMate.getStatus().legalMoves(), reports[0].legalMoves());
+        assertEquals(PositionReport.Status.CHECKMATE, reports[1].status());
+        assertEquals(mate.zobristKey(), reports[1].zobristKey());
+    }
+}
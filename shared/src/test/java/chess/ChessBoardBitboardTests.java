@@ -0,0 +1,86 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChessBoardBitboardTests {
+
+    @Test
+    public void resetBoardOccupancy() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        assertEquals(0x000000000000FFFFL, board.pieces(ChessGame.TeamColor.WHITE));
+        assertEquals(0xFFFF000000000000L, board.pieces(ChessGame.TeamColor.BLACK));
+        assertEquals(0xFFFF00000000FFFFL, board.occupied());
+        assertEquals(1L << 4, board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        assertEquals(0x00FF000000000000L, board.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+    }
+
+    @Test
+    public void replacingAndClearingKeepsBitboardsInSync() {
+        ChessBoard board = new ChessBoard();
+        ChessPosition d4 = new ChessPosition(4, 4);
+
+        board.addPiece(d4, new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.addPiece(d4, new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+
+        long bit = 1L << ChessBoard.squareIndex(d4);
+        assertEquals(0L, board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        assertEquals(0L, board.pieces(ChessGame.TeamColor.WHITE));
+        assertEquals(bit, board.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+
+        board.addPiece(d4, null);
+        assertEquals(0L, board.occupied());
+        assertEquals(new ChessBoard(), board);
+    }
+
+    @Test
+    public void jsonKeepsLegacyMatrixShape() {
+        Gson gson = new Gson();
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        String json = gson.toJson(board);
+        assertTrue(json.startsWith("{\"piecesMatrix\":[["));
+
+        ChessBoard copy = gson.fromJson(json, ChessBoard.class);
+        assertEquals(board, copy);
+        assertEquals(board.occupied(), copy.occupied());
+    }
+
+    @Test
+    public void kingSquareFollowsTheKing() {
+        ChessBoard board = new ChessBoard();
+        ChessPiece king = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
+        assertEquals(-1, board.kingSquare(ChessGame.TeamColor.BLACK));
+
+        board.addPiece(new ChessPosition(8, 5), king);
+        assertEquals(60, board.kingSquare(ChessGame.TeamColor.BLACK));
+
+        board.addPiece(new ChessPosition(8, 5), null);
+        board.addPiece(new ChessPosition(7, 4), king);
+        assertEquals(51, board.kingSquare(ChessGame.TeamColor.BLACK));
+        assertEquals(-1, board.kingSquare(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    public void squareAttacks() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(4, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        board.addPiece(new ChessPosition(1, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+
+        // a1 rook sees up to and including the d1 knight, but not past it
+        assertTrue(board.isSquareAttacked(ChessBoard.squareIndex(1, 4), ChessGame.TeamColor.WHITE));
+        assertFalse(board.isSquareAttacked(ChessBoard.squareIndex(1, 5), ChessGame.TeamColor.WHITE));
+        // d4 black pawn attacks c3 and e3, not d3
+        assertTrue(board.isSquareAttacked(ChessBoard.squareIndex(3, 5), ChessGame.TeamColor.BLACK));
+        assertFalse(board.isSquareAttacked(ChessBoard.squareIndex(3, 4), ChessGame.TeamColor.BLACK));
+        // c3 is hit by both the pawn and the knight
+        assertEquals(2, Long.bitCount(board.attackersOf(ChessBoard.squareIndex(3, 3),
+                ChessGame.TeamColor.BLACK, board.occupied())));
+    }
+}
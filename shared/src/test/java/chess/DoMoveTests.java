@@ -0,0 +1,69 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DoMoveTests {
+
+    private static ChessBoard copyOf(ChessBoard board) {
+        ChessBoard copy = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            copy.setSquare(square, board.getPiece(square));
+        }
+        return copy;
+    }
+
+    @Test
+    public void undoRestoresEveryOpeningMove() {
+        ChessGame game = new ChessGame();
+        ChessBoard before = copyOf(game.getBoard());
+        MoveList moves = new MoveList();
+
+        for (int square = 0; square < 16; square++) {
+            moves.clear();
+            game.getBoard().getPiece(square).pieceMoves(game.getBoard(), square, moves);
+            for (int i = 0; i < moves.size(); i++) {
+                game.doMove(moves.get(i));
+                assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+                assertNotEquals(before, game.getBoard());
+
+                game.undoMove();
+                assertEquals(before, game.getBoard());
+                assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+            }
+        }
+        assertEquals(0, game.undoDepth());
+    }
+
+    @Test
+    public void undoCapturePromotion() {
+        ChessGame game = new ChessGame();
+        ChessBoard board = new ChessBoard();
+        ChessPiece pawn = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+        ChessPiece rook = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        board.addPiece(new ChessPosition(7, 2), pawn);
+        board.addPiece(new ChessPosition(8, 1), rook);
+        game.setBoard(board);
+
+        game.doMove(PackedMove.of(ChessBoard.squareIndex(7, 2), ChessBoard.squareIndex(8, 1), ChessPiece.PieceType.QUEEN));
+        assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN),
+                board.getPiece(new ChessPosition(8, 1)));
+        assertNull(board.getPiece(new ChessPosition(7, 2)));
+
+        game.undoMove();
+        assertSame(pawn, board.getPiece(new ChessPosition(7, 2)));
+        assertSame(rook, board.getPiece(new ChessPosition(8, 1)));
+        assertThrows(IllegalStateException.class, game::undoMove);
+    }
+
+    @Test
+    public void makeMoveCanBeTakenBack() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        assertEquals(1, game.undoDepth());
+
+        game.undoMove();
+        assertEquals(new ChessGame(), game);
+    }
+}
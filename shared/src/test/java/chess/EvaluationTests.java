@@ -0,0 +1,105 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvaluationTests {
+
+    private static ChessBoard rebuild(ChessBoard board) {
+        ChessBoard copy = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            if (board.getPiece(square) != null) {
+                copy.addPiece(ChessBoard.positionOf(square), board.getPiece(square));
+            }
+        }
+        return copy;
+    }
+
+    private static ChessBoard mirror(ChessBoard board) {
+        ChessBoard mirrored = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(square);
+            if (piece != null) {
+                ChessGame.TeamColor other = (piece.getTeamColor() == ChessGame.TeamColor.WHITE)
+                        ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+                mirrored.addPiece(ChessBoard.positionOf(square ^ 56), ChessPiece.of(other, piece.getPieceType()));
+            }
+        }
+        return mirrored;
+    }
+
+    @Test
+    public void startingPositionIsBalanced() {
+        ChessGame game = new ChessGame();
+        assertEquals(0, game.getBoard().evaluate());
+        assertEquals(0, game.evaluate());
+        assertEquals(PieceSquareTables.MAX_PHASE, game.getBoard().phase());
+    }
+
+    @Test
+    public void incrementalScoreMatchesFreshBoard() {
+        Random random = new Random(11);
+        ChessGame game = new ChessGame();
+        MoveList moves = new MoveList();
+
+        for (int ply = 0; ply < 120; ply++) {
+            game.legalMoves(game.getTeamTurn(), moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            game.doMove(moves.get(random.nextInt(moves.size())));
+
+            ChessBoard fresh = rebuild(game.getBoard());
+            assertEquals(fresh.evaluate(), game.getBoard().evaluate());
+            assertEquals(fresh.phase(), game.getBoard().phase());
+            assertEquals(-game.getBoard().evaluate(), mirror(game.getBoard()).evaluate());
+        }
+
+        while (game.undoDepth() > 0) {
+            game.undoMove();
+        }
+        assertEquals(0, game.getBoard().evaluate());
+    }
+
+    @Test
+    public void extraMaterialFavoursItsOwner() {
+        ChessGame game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |Q| | | | |
+                | | | | |K| | | |
+                """));
+
+        assertEquals(PieceSquareTables.phase(ChessPiece.PieceType.QUEEN), game.getBoard().phase());
+        assertTrue(game.getBoard().evaluate() > 800);
+        assertTrue(game.evaluate() > 800);
+
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        assertEquals(-game.getBoard().evaluate(), game.evaluate());
+    }
+
+    @Test
+    public void taperBlendsByPhase() {
+        assertEquals(100, PieceSquareTables.taper(100, -50, PieceSquareTables.MAX_PHASE));
+        assertEquals(-50, PieceSquareTables.taper(100, -50, 0));
+        assertEquals(25, PieceSquareTables.taper(100, -50, PieceSquareTables.MAX_PHASE / 2));
+        assertEquals(100, PieceSquareTables.taper(100, -50, PieceSquareTables.MAX_PHASE + 4));
+    }
+
+    @Test
+    public void copiesKeepTheScore() {
+        ChessGame game = new ChessGame();
+        game.doMove(PackedMove.fromCoordinate("e2e4"));
+        assertEquals(game.getBoard().evaluate(), new ChessBoard(game.getBoard()).evaluate());
+        assertEquals(game.evaluate(), new ChessGame(game).evaluate());
+    }
+}
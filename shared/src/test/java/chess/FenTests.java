@@ -0,0 +1,89 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static chess.GameTestUtilities.play;
+
+public class FenTests {
+
+    @Test
+    public void startPositionRoundTrips() {
+        ChessGame game = ChessGame.fromFen(Fen.START);
+        assertEquals(new ChessGame(), game);
+        assertEquals(Fen.START, new ChessGame().toFen());
+    }
+
+    @Test
+    public void writesStateReachedByMoves() {
+        ChessGame game = new ChessGame();
+        play(game, "e2e4", "g8f6", "e4e5", "d7d5");
+        assertEquals("rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3", game.toFen());
+
+        play(game, "e1e2", "h8g8");
+        assertEquals("rnbqkbr1/ppp1pppp/5n2/3pP3/8/8/PPPPKPPP/RNBQ1BNR w q - 2 4", game.toFen());
+    }
+
+    @Test
+    public void readGameMatchesPlayedGame() {
+        ChessGame played = new ChessGame();
+        play(played, "e2e4", "g8f6", "e4e5", "d7d5");
+        ChessGame read = ChessGame.fromFen(played.toFen());
+
+        assertEquals(played, read);
+        assertEquals(played.zobristKey(), read.zobristKey());
+        assertTrue(read.validMoves(ChessPosition.of(5, 5))
+                .contains(new ChessMove(ChessPosition.of(5, 5), ChessPosition.of(6, 4), null)));
+        assertEquals(3, read.getFullmoveNumber());
+    }
+
+    @Test
+    public void readsBoardsLikeTestUtilities() {
+        ChessBoard board = new ChessBoard();
+        Fen.readPlacement("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8", board);
+        assertEquals(TestUtilities.loadBoard("""
+                | | | | | | | | |
+                | | |p| | | | | |
+                | | | |p| | | | |
+                |K|P| | | | | |r|
+                | |R| | | |p| |k|
+                | | | | | | | | |
+                | | | | |P| |P| |
+                | | | | | | | | |
+                """), board);
+    }
+
+    @Test
+    public void optionalFieldsDefault() {
+        ChessGame game = ChessGame.fromFen("k7/8/1Q6/8/8/8/8/7K b");
+        assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        assertEquals(CastlingRights.NONE, game.getCastlingRights());
+        assertEquals("k7/8/1Q6/8/8/8/8/7K b - - 0 1", game.toFen());
+
+        // Rights for pieces off their squares and an en passant square nobody can use are dropped
+        game = ChessGame.fromFen("4k3/8/8/8/4P3/8/8/4K2R b KQkq e3 12 40");
+        assertEquals("4k3/8/8/8/4P3/8/8/4K2R b K - 12 40", game.toFen());
+        assertEquals(12, game.getHalfmoveClock());
+    }
+
+    @Test
+    public void readingStartsAGameOver() {
+        ChessGame game = new ChessGame();
+        game.setGameEnded();
+        Fen.read(Fen.START, game);
+        assertFalse(game.isGameEnded());
+    }
+
+    @Test
+    public void rejectsMalformedText() {
+        String[] malformed = {
+                "", "8/8/8/8/8/8/8 w", "9/8/8/8/8/8/8/8 w", "8/8/8/8/8/8/8/7X w",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x", "8/8/8/8/8/8/8/8 w KQx",
+                "8/8/8/8/8/8/8/8 w - e9", "8/8/8/8/8/8/8/8 w - - 0 1 extra"
+        };
+        for (String text : malformed) {
+            assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(text), text);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static chess.GameTestUtilities.play;
+
+public class GameRulesTests {
+
+    @Test
+    public void threefoldRepetitionEndsTheGame() {
+        ChessGame game = new ChessGame();
+        play(game, "g1f3", "g8f6", "f3g1", "f6g8");
+        assertTrue(game.isRepetition());
+        assertFalse(game.isDrawByRepetition());
+        assertFalse(game.isGameEnded());
+
+        play(game, "g1f3", "g8f6", "f3g1", "f6g8");
+        assertTrue(game.isDrawByRepetition());
+        assertTrue(game.isGameEnded());
+
+        game.undoMove();
+        assertFalse(game.isDrawByRepetition());
+    }
+
+    @Test
+    public void lostCastlingRightsMakeADifferentPosition() {
+        ChessGame game = new ChessGame();
+        play(game, "e2e4", "e7e5", "e1e2", "e8e7", "e2e1", "e7e8");
+        assertEquals(CastlingRights.NONE, game.getCastlingRights());
+        assertFalse(game.isRepetition());
+
+        play(game, "e1e2", "e8e7", "e2e1", "e7e8");
+        assertTrue(game.isRepetition());
+    }
+
+    @Test
+    public void equalityIgnoresCastlingAndEnPassant() {
+        ChessGame kingWalked = new ChessGame();
+        play(kingWalked, "e2e4", "e7e5", "e1e2", "e8e7", "e2e1", "e7e8");
+        ChessGame direct = new ChessGame();
+        play(direct, "e2e4", "e7e5");
+
+        assertNotEquals(kingWalked.zobristKey(), direct.zobristKey());
+        assertEquals(direct, kingWalked);
+        assertEquals(direct.hashCode(), kingWalked.hashCode());
+
+        ChessGame otherTurn = new ChessGame(direct);
+        otherTurn.setTeamTurn(ChessGame.TeamColor.BLACK);
+        assertNotEquals(direct, otherTurn);
+    }
+
+    @Test
+    public void fiftyMoveRuleCountsSinceCaptureOrPawnMove() {
+        ChessGame game = new ChessGame();
+        play(game, "e2e4", "e7e5");
+        for (int cycle = 0; cycle < 25; cycle++) {
+            play(game, "g1f3", "g8f6", "f3g1", "f6g8");
+        }
+        assertEquals(100, game.getHalfmoveClock());
+        assertTrue(game.isDrawByFiftyMoveRule());
+
+        game.undoMove();
+        assertEquals(99, game.getHalfmoveClock());
+        assertFalse(game.isDrawByFiftyMoveRule());
+
+        play(game, "c7c6");
+        assertEquals(0, game.getHalfmoveClock());
+    }
+
+    @Test
+    public void undoRestoresEnPassantAndCastling() {
+        ChessGame game = new ChessGame();
+        play(game, "e2e4", "g8f6", "e4e5", "d7d5");
+        assertEquals(ChessBoard.squareIndex(6, 4), game.getEnPassantSquare());
+        long key = game.zobristKey();
+
+        play(game, "e5d6");
+        assertNull(game.getBoard().getPiece(ChessPosition.of(5, 4)));
+        game.undoMove();
+        assertEquals(key, game.zobristKey());
+        assertNotNull(game.getBoard().getPiece(ChessPosition.of(5, 4)));
+
+        play(game, "g1f3", "e7e6", "f1e2", "f8e7", "e1g1");
+        assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK),
+                game.getBoard().getPiece(ChessPosition.of(1, 6)));
+        assertEquals(CastlingRights.BLACK_KINGSIDE | CastlingRights.BLACK_QUEENSIDE, game.getCastlingRights());
+        game.undoMove();
+        assertEquals(CastlingRights.ALL, game.getCastlingRights());
+        assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK),
+                game.getBoard().getPiece(ChessPosition.of(1, 8)));
+    }
+
+    @Test
+    public void historySurvivesSerialization() {
+        Gson gson = new Gson();
+        ChessGame game = new ChessGame();
+        play(game, "g1f3", "g8f6", "f3g1", "f6g8", "g1f3", "g8f6");
+
+        ChessGame copy = gson.fromJson(gson.toJson(game), ChessGame.class);
+        assertEquals(game, copy);
+        assertEquals(game.getHalfmoveClock(), copy.getHalfmoveClock());
+
+        play(copy, "f3g1", "f6g8");
+        assertTrue(copy.isDrawByRepetition());
+    }
+}
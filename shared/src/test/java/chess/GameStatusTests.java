@@ -0,0 +1,69 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static chess.GameTestUtilities.play;
+
+public class GameStatusTests {
+
+    @Test
+    public void statusFollowsMovesAndUndo() {
+        ChessGame game = new ChessGame();
+        assertEquals(new GameStatus(ChessGame.TeamColor.WHITE, false, 20, GameStatus.Result.ONGOING),
+                game.getStatus());
+
+        play(game, "f2f3", "e7e5", "g2g4", "d8h4");
+        GameStatus mate = game.getStatus();
+        assertEquals(new GameStatus(ChessGame.TeamColor.WHITE, true, 0, GameStatus.Result.CHECKMATE), mate);
+        assertSame(mate, game.getStatus());
+        assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+        assertTrue(game.isInCheck(ChessGame.TeamColor.WHITE));
+        assertFalse(game.isInStalemate(ChessGame.TeamColor.WHITE));
+        assertFalse(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+        assertTrue(game.isGameEnded());
+        assertTrue(game.snapshot().isGameEnded());
+
+        game.undoMove();
+        assertFalse(game.isGameEnded());
+        assertEquals(GameStatus.Result.ONGOING, game.getStatus().result());
+        assertEquals(ChessGame.TeamColor.BLACK, game.getStatus().sideToMove());
+        assertFalse(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    public void statusFollowsBoardChanges() {
+        ChessGame game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard("""
+                | | | | | | | |k|
+                | | | | | | | | |
+                | | | | | | |Q|K|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        assertEquals(GameStatus.Result.STALEMATE, game.getStatus().result());
+        assertTrue(game.isGameEnded());
+
+        game.getBoard().addPiece(new ChessPosition(1, 1),
+                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        game.getBoard().addPiece(new ChessPosition(6, 7), null);
+        GameStatus status = game.getStatus();
+        assertEquals(GameStatus.Result.ONGOING, status.result());
+        assertFalse(game.isInStalemate(ChessGame.TeamColor.BLACK));
+        assertFalse(game.isGameEnded());
+    }
+
+    @Test
+    public void repetitionIsReportedAsADraw() {
+        ChessGame game = new ChessGame();
+        play(game, "g1f3", "g8f6", "f3g1", "f6g8", "g1f3", "g8f6", "f3g1", "f6g8");
+        assertEquals(GameStatus.Result.DRAW_BY_REPETITION, game.getStatus().result());
+        assertTrue(game.getStatus().isRuleDraw());
+        assertTrue(game.isGameEnded());
+    }
+}
@@ -0,0 +1,20 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+
+public class GameTestUtilities {
+
+    /**
+     * Plays moves given in coordinate notation, such as "e2e4" or "e7e8q",
+     * through {@link ChessGame#makeMove}, failing the test on an illegal one
+     */
+    public static void play(ChessGame game, String... moves) {
+        for (String move : moves) {
+            try {
+                game.makeMove(PackedMove.toChessMove(PackedMove.fromCoordinate(move)));
+            } catch (InvalidMoveException e) {
+                Assertions.fail("illegal move " + move);
+            }
+        }
+    }
+}
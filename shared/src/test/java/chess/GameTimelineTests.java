@@ -0,0 +1,179 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static chess.GameTestUtilities.play;
+
+public class GameTimelineTests {
+
+    /**
+     * Plays random legal moves through makeMove, returning the FEN before each
+     * move and after the last
+     */
+    private static List<String> playRandom(ChessGame game, Random random, int plies) {
+        MoveList moves = new MoveList();
+        List<String> fens = new ArrayList<>();
+        fens.add(game.toFen());
+        for (int ply = 0; ply < plies; ply++) {
+            game.legalMoves(game.getTeamTurn(), moves);
+            if (moves.isEmpty() || game.isGameEnded()) {
+                break;
+            }
+            play(game, PackedMove.toCoordinate(moves.get(random.nextInt(moves.size()))));
+            fens.add(game.toFen());
+        }
+        return fens;
+    }
+
+    @Test
+    public void everyPlyCanBeRebuilt() {
+        Random random = new Random(31);
+        for (int gameNumber = 0; gameNumber < 10; gameNumber++) {
+            ChessGame game = new ChessGame();
+            List<String> fens = playRandom(game, random, 150);
+            GameTimeline timeline = game.getTimeline();
+            assertEquals(fens.size() - 1, timeline.size());
+
+            ChessGame replayed = new ChessGame();
+            for (int ply = 0; ply <= timeline.size(); ply++) {
+                assertEquals(fens.get(ply), timeline.positionAt(ply).toGame().toFen(), "ply " + ply);
+                timeline.replay(ply, replayed);
+                assertEquals(fens.get(ply), replayed.toFen(), "ply " + ply);
+            }
+            assertSame(timeline.start(), timeline.positionAt(0));
+        }
+    }
+
+    @Test
+    public void takeBackRestoresEarlierPositions() {
+        ChessGame game = new ChessGame();
+        List<String> fens = playRandom(game, new Random(8), 60);
+        int played = fens.size() - 1;
+
+        game.takeBack(1);
+        assertEquals(fens.get(played - 1), game.toFen());
+        game.takeBack(20);
+        assertEquals(fens.get(played - 21), game.toFen());
+        assertEquals(played - 21, game.getTimeline().size());
+
+        // Play on from the taken-back position, over the dropped checkpoints
+        List<String> more = playRandom(game, new Random(9), 30);
+        assertEquals(played - 21 + more.size() - 1, game.getTimeline().size());
+        assertEquals(more.get(more.size() - 1), game.getTimeline().positionAt(game.getTimeline().size())
+                .toGame().toFen());
+
+        game.takeBack(game.getTimeline().size());
+        assertEquals(Fen.START, game.toFen());
+        assertThrows(IllegalArgumentException.class, () -> game.takeBack(1));
+    }
+
+    @Test
+    public void undoMoveCrossesCheckpoints() {
+        ChessGame game = new ChessGame();
+        List<String> fens = playRandom(game, new Random(12), 40);
+        int played = fens.size() - 1;
+        for (int i = 0; i < 10; i++) {
+            game.undoMove();
+        }
+        GameTimeline timeline = game.getTimeline();
+        assertEquals(played - 10, timeline.size());
+
+        List<String> more = playRandom(game, new Random(13), 20);
+        for (int ply = 0; ply < more.size(); ply++) {
+            assertEquals(more.get(ply), timeline.positionAt(played - 10 + ply).toGame().toFen(), "ply " + ply);
+        }
+        assertEquals(fens.get(16), timeline.positionAt(16).toGame().toFen());
+    }
+
+    @Test
+    public void takeBackKeepsRepetitionsAndRules() {
+        ChessGame game = new ChessGame();
+        play(game, "e2e4", "e7e5", "g1f3", "b8c6", "f3g1", "c6b8", "g1f3", "b8c6", "f3g1", "c6b8");
+        assertTrue(game.isDrawByRepetition());
+        assertTrue(game.isGameEnded());
+
+        game.takeBack(1);
+        assertFalse(game.isDrawByRepetition());
+        play(game, "c6b8");
+        assertTrue(game.isDrawByRepetition());
+
+        game.takeBack(8);
+        play(game, "e1e2");
+        assertEquals(CastlingRights.BLACK_KINGSIDE | CastlingRights.BLACK_QUEENSIDE, game.getCastlingRights());
+        game.takeBack(1);
+        assertEquals(CastlingRights.ALL, game.getCastlingRights());
+    }
+
+    @Test
+    public void timelineStartsOverAfterOtherChanges() {
+        ChessGame game = new ChessGame();
+        play(game, "e2e4", "e7e5");
+        assertEquals(2, game.getTimeline().size());
+
+        // Undoing a recorded move takes it off the timeline, which carries on
+        GameTimeline timeline = game.getTimeline();
+        game.undoMove();
+        assertSame(timeline, game.getTimeline());
+        assertEquals(1, timeline.size());
+        play(game, "c7c5", "g1f3");
+        assertEquals(3, timeline.size());
+        assertEquals(PackedMove.fromCoordinate("c7c5"), timeline.move(1));
+
+        // A trial move with doMove leaves it alone
+        game.doMove(PackedMove.fromCoordinate("d7d6"));
+        game.undoMove();
+        assertSame(timeline, game.getTimeline());
+        assertEquals(3, timeline.size());
+
+        game.setBoard(ChessGame.fromFen(Fen.START).getBoard());
+        assertEquals(0, game.getTimeline().size());
+
+        // Resetting to the same position still starts over
+        play(game, "e7e5", "d2d4");
+        game.copyFrom(game.snapshot());
+        assertEquals(0, game.getTimeline().size());
+        play(game, "g8f6");
+        Fen.read(game.toFen(), game);
+        assertEquals(0, game.getTimeline().size());
+    }
+
+    @Test
+    public void timelineSurvivesJson() {
+        Gson gson = new Gson();
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        play(game, "e1g1", "e8c8", "a1a7");
+        List<String> fens = playRandom(game, new Random(4), 40);
+
+        String json = gson.toJson(game);
+        assertFalse(json.contains("\"moves\":["), json);
+        ChessGame loaded = gson.fromJson(json, ChessGame.class);
+        GameTimeline timeline = loaded.getTimeline();
+        assertEquals(game.getTimeline().size(), timeline.size());
+        for (int ply = 0; ply < timeline.size(); ply++) {
+            assertEquals(game.getTimeline().move(ply), timeline.move(ply));
+        }
+        assertEquals("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", timeline.start().toGame().toFen());
+        assertEquals(fens.get(0), timeline.positionAt(3).toGame().toFen());
+
+        // Moves played after loading join the timeline before its checkpoints are taken
+        ChessGame fresh = gson.fromJson(json, ChessGame.class);
+        List<String> more = playRandom(fresh, new Random(6), 20);
+        GameTimeline extended = fresh.getTimeline();
+        assertEquals(timeline.size() + more.size() - 1, extended.size());
+        for (int ply = 0; ply < more.size(); ply++) {
+            assertEquals(more.get(ply), extended.positionAt(timeline.size() + ply).toGame().toFen());
+        }
+        for (int ply = 0; ply < fens.size(); ply++) {
+            assertEquals(fens.get(ply), extended.positionAt(3 + ply).toGame().toFen());
+        }
+
+        loaded.takeBack(timeline.size());
+        assertEquals("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", loaded.toFen());
+    }
+}
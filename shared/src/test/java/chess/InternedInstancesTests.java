@@ -0,0 +1,39 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InternedInstancesTests {
+
+    @Test
+    public void factoriesReturnSharedInstances() {
+        assertSame(ChessPosition.of(4, 5), ChessPosition.of(4, 5));
+        assertSame(ChessPosition.of(4, 5), ChessPosition.of(ChessBoard.squareIndex(4, 5)));
+        assertEquals(new ChessPosition(4, 5), ChessPosition.of(4, 5));
+        assertEquals(new ChessPosition(0, 9), ChessPosition.of(0, 9));
+
+        ChessPiece queen = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
+        assertSame(queen, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN), queen);
+    }
+
+    @Test
+    public void gsonResolvesToSharedInstances() {
+        Gson gson = new Gson();
+        ChessGame game = new ChessGame();
+
+        String json = gson.toJson(game);
+        ChessGame copy = gson.fromJson(json, ChessGame.class);
+
+        assertEquals(game, copy);
+        assertSame(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING),
+                copy.getBoard().getPiece(ChessPosition.of(1, 5)));
+
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        ChessMove parsed = gson.fromJson(gson.toJson(move), ChessMove.class);
+        assertEquals(move, parsed);
+        assertSame(ChessPosition.of(2, 5), parsed.getStartPosition());
+    }
+}
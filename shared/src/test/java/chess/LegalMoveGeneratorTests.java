@@ -0,0 +1,131 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LegalMoveGeneratorTests {
+
+    /**
+     * The slow reference: every pseudo-legal move that does not leave the king
+     * attacked once it has been played, plus castling and en passant worked out
+     * the same way
+     */
+    private static Set<Integer> trialLegalMoves(ChessGame game, ChessGame.TeamColor color) {
+        ChessBoard board = game.getBoard();
+        Set<Integer> legal = new HashSet<>();
+        MoveList pseudo = new MoveList();
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(square);
+            if (piece == null || piece.getTeamColor() != color) {
+                continue;
+            }
+            pseudo.clear();
+            piece.pieceMoves(board, square, pseudo);
+            for (int i = 0; i < pseudo.size(); i++) {
+                game.doMove(pseudo.get(i));
+                if (!game.isInCheck(color)) {
+                    legal.add(PackedMove.identity(pseudo.get(i)));
+                }
+                game.undoMove();
+            }
+        }
+
+        int rank = (color == ChessGame.TeamColor.WHITE) ? 0 : 56;
+        ChessPiece rook = new ChessPiece(color, ChessPiece.PieceType.ROOK);
+        boolean kingAtHome = new ChessPiece(color, ChessPiece.PieceType.KING).equals(board.getPiece(rank + 4));
+        if (kingAtHome && !game.isInCheck(color)) {
+            int[][] sides = {{CastlingRights.kingside(color), 1, 3}, {CastlingRights.queenside(color), -1, 4}};
+            for (int[] side : sides) {
+                int step = side[1];
+                int corner = rank + 4 + step * side[2];
+                boolean empty = true;
+                for (int square = rank + 4 + step; square != corner; square += step) {
+                    empty &= board.getPiece(square) == null;
+                }
+                if ((game.getCastlingRights() & side[0]) == 0 || !rook.equals(board.getPiece(corner)) || !empty) {
+                    continue;
+                }
+                game.doMove(PackedMove.of(rank + 4, rank + 4 + step));
+                boolean crossesAttack = game.isInCheck(color);
+                game.undoMove();
+                int castle = PackedMove.of(rank + 4, rank + 4 + 2 * step);
+                game.doMove(castle);
+                if (!crossesAttack && !game.isInCheck(color)) {
+                    legal.add(castle);
+                }
+                game.undoMove();
+            }
+        }
+
+        int target = game.getEnPassantSquare();
+        ChessPiece pawn = new ChessPiece(color, ChessPiece.PieceType.PAWN);
+        if (color == game.getTeamTurn() && target >= 0) {
+            int from = (color == ChessGame.TeamColor.WHITE) ? target - 8 : target + 8;
+            for (int file = -1; file <= 1; file += 2) {
+                int square = from + file;
+                if ((square >>> 3) != (from >>> 3) || !pawn.equals(board.getPiece(square))) {
+                    continue;
+                }
+                game.doMove(PackedMove.of(square, target));
+                if (!game.isInCheck(color)) {
+                    legal.add(PackedMove.of(square, target));
+                }
+                game.undoMove();
+            }
+        }
+        return legal;
+    }
+
+    private static Set<Integer> generatedLegalMoves(ChessGame game, ChessGame.TeamColor color) {
+        MoveList moves = new MoveList();
+        game.legalMoves(color, moves);
+        Set<Integer> legal = new HashSet<>();
+        for (int i = 0; i < moves.size(); i++) {
+            assertTrue(legal.add(PackedMove.identity(moves.get(i))), "duplicate move generated");
+        }
+        return legal;
+    }
+
+    @Test
+    public void matchesTrialFilterOverRandomGames() {
+        Random random = new Random(42);
+        MoveList moves = new MoveList();
+
+        for (int gameNumber = 0; gameNumber < 60; gameNumber++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 120; ply++) {
+                for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+                    assertEquals(trialLegalMoves(game, color), generatedLegalMoves(game, color));
+                }
+
+                game.legalMoves(game.getTeamTurn(), moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                game.doMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    @Test
+    public void doubleCheckOnlyAllowsKingMoves() {
+        ChessGame game = new ChessGame();
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(2, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(3, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        game.setBoard(board);
+
+        for (ChessMove move : game.legalMoves(ChessGame.TeamColor.WHITE)) {
+            assertEquals(new ChessPosition(1, 5), move.getStartPosition());
+        }
+        assertEquals(trialLegalMoves(game, ChessGame.TeamColor.WHITE),
+                generatedLegalMoves(game, ChessGame.TeamColor.WHITE));
+    }
+}
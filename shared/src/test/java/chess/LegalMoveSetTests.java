@@ -0,0 +1,89 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LegalMoveSetTests {
+
+    @Test
+    public void membershipMatchesMoveListOverRandomGames() throws InvalidMoveException {
+        Random random = new Random(23);
+        MoveList moves = new MoveList();
+        LegalMoveSet set = new LegalMoveSet();
+
+        for (int gameNumber = 0; gameNumber < 10; gameNumber++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 100; ply++) {
+                game.legalMoves(game.getTeamTurn(), moves);
+                set.setAll(moves);
+                assertEquals(moves.isEmpty(), set.isEmpty());
+                for (int from = 0; from < 64; from++) {
+                    for (int to = 0; to < 64; to++) {
+                        for (int promotion = 0; promotion <= ChessPiece.PieceType.values().length; promotion++) {
+                            int move = PackedMove.of(from, to) | (promotion << 12);
+                            boolean listed = moves.indexOf(move) >= 0;
+                            assertEquals(listed, set.contains(move), PackedMove.toCoordinate(move));
+                            assertEquals(listed, game.isLegalMove(move), PackedMove.toCoordinate(move));
+                        }
+                    }
+                }
+                if (moves.isEmpty()) {
+                    break;
+                }
+                game.makeMove(PackedMove.toChessMove(moves.get(random.nextInt(moves.size()))));
+            }
+        }
+    }
+
+    @Test
+    public void promotionsNeedAPromotionPiece() {
+        ChessGame game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard("""
+                | | | | | | | |k|
+                | | | | |P| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |K| | | | | | | |
+                """));
+        game.getStatus();
+
+        assertTrue(game.isLegalMove(PackedMove.fromCoordinate("e7e8q")));
+        assertTrue(game.isLegalMove(PackedMove.fromCoordinate("e7e8n")));
+        assertFalse(game.isLegalMove(PackedMove.fromCoordinate("e7e8")));
+        assertFalse(game.isLegalMove(PackedMove.of(52, 60, ChessPiece.PieceType.KING)));
+        assertFalse(game.isLegalMove(PackedMove.of(52, 60, ChessPiece.PieceType.PAWN)));
+        assertFalse(game.isLegalMove(PackedMove.fromCoordinate("a1a2q")));
+    }
+
+    @Test
+    public void makeMoveRejectsOffBoardAndWrongColorMoves() {
+        ChessGame game = new ChessGame();
+        assertThrows(InvalidMoveException.class, () -> game.makeMove(
+                new ChessMove(new ChessPosition(2, 5), new ChessPosition(9, 5), null)));
+        assertThrows(InvalidMoveException.class, () -> game.makeMove(
+                new ChessMove(new ChessPosition(0, 1), new ChessPosition(1, 1), null)));
+        assertThrows(InvalidMoveException.class, () -> game.makeMove(
+                new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null)));
+        assertEquals(Fen.START, game.toFen());
+    }
+
+    @Test
+    public void shortEncodingRoundTrips() {
+        ChessGame game = new ChessGame();
+        MoveList moves = new MoveList();
+        game.legalMoves(ChessGame.TeamColor.WHITE, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            assertEquals(PackedMove.identity(move), PackedMove.fromShort(PackedMove.toShort(move)));
+        }
+        int promotion = PackedMove.of(55, 63, ChessPiece.PieceType.ROOK);
+        assertEquals(promotion, PackedMove.fromShort(PackedMove.toShort(promotion | PackedMove.CAPTURE)));
+    }
+}
@@ -0,0 +1,52 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveListTests {
+
+    @Test
+    public void packedMoveRoundTrip() {
+        ChessMove promotion = new ChessMove(new ChessPosition(7, 2), new ChessPosition(8, 1), ChessPiece.PieceType.KNIGHT);
+        ChessMove quiet = new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null);
+
+        assertEquals(promotion, PackedMove.toChessMove(PackedMove.fromChessMove(promotion)));
+        assertEquals(quiet, PackedMove.toChessMove(PackedMove.fromChessMove(quiet)));
+        assertTrue(PackedMove.isPromotion(PackedMove.fromChessMove(promotion)));
+        assertFalse(PackedMove.isPromotion(PackedMove.fromChessMove(quiet)));
+    }
+
+    @Test
+    public void bufferedGenerationMatchesCollection() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        MoveList moves = new MoveList(1);
+
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(square);
+            if (piece == null) {
+                continue;
+            }
+            moves.clear();
+            piece.pieceMoves(board, square, moves);
+
+            Collection<ChessMove> buffered = new ArrayList<>();
+            moves.addTo(buffered);
+            assertEquals(new HashSet<>(piece.pieceMoves(board, ChessBoard.positionOf(square))), new HashSet<>(buffered));
+        }
+    }
+
+    @Test
+    public void containsIgnoresFlags() {
+        MoveList moves = new MoveList();
+        moves.add(PackedMove.of(12, 28) | PackedMove.DOUBLE_PUSH);
+
+        assertTrue(moves.contains(PackedMove.of(12, 28)));
+        assertFalse(moves.contains(PackedMove.of(12, 20)));
+    }
+}
@@ -0,0 +1,68 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZobristTests {
+
+    private static ChessBoard rebuild(ChessBoard board) {
+        ChessBoard copy = new ChessBoard();
+        for (int square = 63; square >= 0; square--) {
+            if (board.getPiece(square) != null) {
+                copy.addPiece(ChessBoard.positionOf(square), board.getPiece(square));
+            }
+        }
+        return copy;
+    }
+
+    @Test
+    public void incrementalKeyMatchesFreshBoard() {
+        Random random = new Random(7);
+        ChessGame game = new ChessGame();
+        MoveList moves = new MoveList();
+        long startKey = game.zobristKey();
+
+        for (int ply = 0; ply < 80; ply++) {
+            game.legalMoves(game.getTeamTurn(), moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            game.doMove(moves.get(random.nextInt(moves.size())));
+            assertEquals(rebuild(game.getBoard()).zobristKey(), game.getBoard().zobristKey());
+        }
+
+        while (game.undoDepth() > 0) {
+            game.undoMove();
+        }
+        assertEquals(startKey, game.zobristKey());
+    }
+
+    @Test
+    public void sideToMoveChangesGameKey() {
+        ChessGame white = new ChessGame();
+        ChessGame black = new ChessGame();
+        black.setTeamTurn(ChessGame.TeamColor.BLACK);
+
+        assertEquals(white.getBoard().zobristKey(), black.getBoard().zobristKey());
+        assertNotEquals(white.zobristKey(), black.zobristKey());
+    }
+
+    @Test
+    public void transpositionsShareAKey() throws InvalidMoveException {
+        ChessGame first = new ChessGame();
+        first.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        first.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        first.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+
+        ChessGame second = new ChessGame();
+        second.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+        second.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        second.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+
+        assertEquals(first.zobristKey(), second.zobristKey());
+        assertEquals(first, second);
+    }
+}
@@ -0,0 +1,83 @@
+package chess.analysis;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelAnalysisTests {
+
+    @Test
+    public void parallelPerftMatchesSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ChessGame game = new ChessGame();
+            ParallelPerft parallel = new ParallelPerft(pool, 2);
+
+            assertEquals(197281, parallel.perft(game, 4));
+            assertEquals(new Perft(game).divide(3), parallel.divide(game, 3));
+            assertEquals(new ChessGame(), game);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void analyzerReportsStatusWithoutTouchingInput() throws InvalidMoveException {
+        ChessGame foolsMate = new ChessGame();
+        foolsMate.makeMove(new ChessMove(new ChessPosition(2, 6), new ChessPosition(3, 6), null));
+        foolsMate.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        foolsMate.makeMove(new ChessMove(new ChessPosition(2, 7), new ChessPosition(4, 7), null));
+        foolsMate.makeMove(new ChessMove(new ChessPosition(8, 4), new ChessPosition(4, 8), null));
+
+        ChessGame stalemate = new ChessGame();
+        stalemate.setBoard(TestUtilities.loadBoard("""
+                |k| | | | | | | |
+                | | | | | | | | |
+                | |Q| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | |K|
+                """));
+        stalemate.setTeamTurn(ChessGame.TeamColor.BLACK);
+
+        ChessGame start = new ChessGame();
+        ChessGame foolsMateBefore = new ChessGame(foolsMate);
+
+        PositionAnalyzer analyzer = new PositionAnalyzer(new ForkJoinPool(3));
+        List<PositionReport> reports = analyzer.analyzeAll(List.of(start, foolsMate, stalemate, start));
+
+        assertEquals(new PositionReport(start.zobristKey(), ChessGame.TeamColor.WHITE, 20, false,
+                PositionReport.Status.ONGOING, 0), reports.get(0));
+        assertEquals(PositionReport.Status.CHECKMATE, reports.get(1).status());
+        assertTrue(reports.get(1).inCheck());
+        assertEquals(PositionReport.Status.STALEMATE, reports.get(2).status());
+        assertEquals(0, reports.get(2).legalMoves());
+        assertEquals(reports.get(0), reports.get(3));
+
+        assertEquals(foolsMateBefore, foolsMate);
+        assertEquals(4, foolsMate.undoDepth());
+    }
+
+    @Test
+    public void analyzerStreamsToSink() {
+        ConcurrentLinkedQueue<PositionReport> sink = new ConcurrentLinkedQueue<>();
+        new PositionAnalyzer().analyze(Stream.generate(ChessGame::new).limit(500), sink::add);
+
+        assertEquals(500, sink.size());
+        for (PositionReport report : sink) {
+            assertEquals(20, report.legalMoves());
+        }
+    }
+}
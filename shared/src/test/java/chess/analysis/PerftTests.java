@@ -0,0 +1,93 @@
+package chess.analysis;
+
+import chess.ChessGame;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Perft counts for standard test positions (see the chessprogramming wiki),
+ * deep enough to cover castling, en passant, promotions and checks by
+ * discovery.
+ */
+public class PerftTests {
+
+    @Test
+    public void startingPosition() {
+        Perft perft = new Perft(new ChessGame());
+        assertEquals(1, perft.perft(0));
+        assertEquals(20, perft.perft(1));
+        assertEquals(400, perft.perft(2));
+        assertEquals(8902, perft.perft(3));
+        assertEquals(197281, perft.perft(4));
+        assertEquals(4865609, perft.perft(5));
+    }
+
+    @Test
+    public void kiwipete() {
+        // Position 2
+        ChessGame game = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        Perft perft = new Perft(game);
+        assertEquals(48, perft.perft(1));
+        assertEquals(2039, perft.perft(2));
+        assertEquals(97862, perft.perft(3));
+    }
+
+    @Test
+    public void rookEndgame() {
+        // Position 3
+        ChessGame game = ChessGame.fromFen("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1");
+        Perft perft = new Perft(game);
+        assertEquals(14, perft.perft(1));
+        assertEquals(191, perft.perft(2));
+        assertEquals(2812, perft.perft(3));
+        assertEquals(43238, perft.perft(4));
+        assertEquals(674624, perft.perft(5));
+    }
+
+    @Test
+    public void promotionsAndBlackCastling() {
+        // Position 4
+        ChessGame game = ChessGame.fromFen("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1");
+        Perft perft = new Perft(game);
+        assertEquals(6, perft.perft(1));
+        assertEquals(264, perft.perft(2));
+        assertEquals(9467, perft.perft(3));
+        assertEquals(422333, perft.perft(4));
+    }
+
+    @Test
+    public void pinnedPromotion() {
+        // Position 5
+        ChessGame game = ChessGame.fromFen("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 0 1");
+        Perft perft = new Perft(game);
+        assertEquals(44, perft.perft(1));
+        assertEquals(1486, perft.perft(2));
+        assertEquals(62379, perft.perft(3));
+    }
+
+    @Test
+    public void developedMiddlegame() {
+        // Position 6
+        ChessGame game = ChessGame.fromFen("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 1");
+        Perft perft = new Perft(game);
+        assertEquals(46, perft.perft(1));
+        assertEquals(2079, perft.perft(2));
+        assertEquals(89890, perft.perft(3));
+    }
+
+    @Test
+    public void divideSumsToPerftAndRestoresGame() {
+        ChessGame game = new ChessGame();
+        Perft perft = new Perft(game);
+
+        Map<String, Long> divide = perft.divide(3);
+        assertEquals(20, divide.size());
+        assertEquals(8902, divide.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(600, divide.get("e2e4"));
+        assertEquals(new ChessGame(), game);
+        assertEquals(0, game.undoDepth());
+    }
+}
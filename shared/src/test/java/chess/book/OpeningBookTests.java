@@ -0,0 +1,164 @@
+package chess.book;
+
+import chess.ChessGame;
+import chess.PackedMove;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpeningBookTests {
+
+    private static final String CORPUS = """
+            e2e4 e7e5 g1f3 b8c6 f1b5
+            e2e4 e7e5 g1f3 b8c6 f1c4 1-0
+            e2e4 c7c5 g1f3
+            d2d4 d7d5 c2c4
+            c2c4 d7d5 d2d4 e7e6 0-1
+            d2d4 g8f6 c2c4 e7e6
+            e2e4 e7e5 e1e3 g1f3
+            """;
+
+    private static OpeningBook build(Path dir, int maxPly, int minWeight) throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(maxPly);
+        assertEquals(7, builder.addCoordinateGames(new StringReader(CORPUS)));
+        Path file = dir.resolve("book.bin");
+        builder.write(file, minWeight);
+        return OpeningBook.open(file);
+    }
+
+    private static int move(String coordinate) {
+        return PackedMove.fromCoordinate(coordinate);
+    }
+
+    @Test
+    public void heaviestMoveComesFirst(@TempDir Path dir) throws IOException {
+        OpeningBook book = build(dir, 16, 1);
+        ChessGame start = new ChessGame();
+
+        assertEquals(move("e2e4"), book.bestMove(start));
+        assertEquals(3, book.moveCount(start.zobristKey()));
+        int first = book.find(start.zobristKey());
+        assertEquals(4, book.weightAt(first));
+        assertEquals(2, book.weightAt(first + 1));
+        assertEquals(1, book.weightAt(first + 2));
+    }
+
+    @Test
+    public void transpositionsShareEntries(@TempDir Path dir) throws Exception {
+        OpeningBook book = build(dir, 16, 1);
+
+        // 1.d4 d5 2.c4 reaches the position recorded from 1.c4 d5 2.d4
+        ChessGame game = new ChessGame();
+        game.makeMove(PackedMove.toChessMove(move("d2d4")));
+        game.makeMove(PackedMove.toChessMove(move("d7d5")));
+        assertEquals(move("c2c4"), book.bestMove(game));
+        game.makeMove(PackedMove.toChessMove(move("c2c4")));
+
+        assertEquals(1, book.moveCount(game.zobristKey()));
+        assertEquals(move("e7e6"), book.bestMove(game));
+    }
+
+    @Test
+    public void illegalMovesEndAGame(@TempDir Path dir) throws Exception {
+        OpeningBook book = build(dir, 16, 1);
+        ChessGame game = new ChessGame();
+        game.makeMove(PackedMove.toChessMove(move("e2e4")));
+        game.makeMove(PackedMove.toChessMove(move("e7e5")));
+
+        // e1e3 is illegal, so only g1f3 is in the book here
+        assertEquals(1, book.moveCount(game.zobristKey()));
+        assertEquals(move("g1f3"), book.bestMove(game));
+    }
+
+    @Test
+    public void unknownPositionsMiss(@TempDir Path dir) throws Exception {
+        OpeningBook book = build(dir, 2, 1);
+        ChessGame game = new ChessGame();
+        game.makeMove(PackedMove.toChessMove(move("e2e4")));
+        game.makeMove(PackedMove.toChessMove(move("e7e5")));
+
+        assertEquals(-1, book.find(game.zobristKey()));
+        assertEquals(0, book.bestMove(game));
+        assertEquals(0, book.pickMove(game, 12345L));
+    }
+
+    @Test
+    public void pickMoveFollowsWeights(@TempDir Path dir) throws IOException {
+        OpeningBook book = build(dir, 16, 1);
+        ChessGame start = new ChessGame();
+
+        // Weights 4, 2, 1: values 0-3 pick e2e4, 4-5 d2d4, 6 c2c4
+        assertEquals(move("e2e4"), book.pickMove(start, 3));
+        assertEquals(move("d2d4"), book.pickMove(start, 4));
+        assertEquals(move("d2d4"), book.pickMove(start, 12));
+        assertEquals(move("c2c4"), book.pickMove(start, 6));
+        assertEquals(move("e2e4"), book.pickMove(start, -1L));
+    }
+
+    @Test
+    public void minWeightDropsRareMoves(@TempDir Path dir) throws IOException {
+        OpeningBook book = build(dir, 16, 2);
+        ChessGame start = new ChessGame();
+        assertEquals(2, book.moveCount(start.zobristKey()));
+        for (int i = 1; i < book.size(); i++) {
+            assertTrue(Long.compareUnsigned(book.keyAt(i - 1), book.keyAt(i)) <= 0);
+        }
+    }
+
+    @Test
+    public void booksCanBeBuiltFromPgn(@TempDir Path dir) throws Exception {
+        String pgn = """
+                [Event "One"]
+                [Result "1-0"]
+
+                1. e4 e5 2. Nf3 {main line} Nc6 3. Bb5 a6 1-0
+
+                [Event "Two"]
+                [Result "*"]
+
+                1. e4 c5 2. Nf3 d6 *
+
+                [Event "Three"]
+                [Result "0-1"]
+
+                1. d4 d5 2. Ke3 Nf6 0-1
+                """;
+        OpeningBookBuilder builder = new OpeningBookBuilder(4);
+        assertEquals(3, builder.addPgnGames(new StringReader(pgn)));
+        assertEquals(3, builder.games());
+        Path file = dir.resolve("book.bin");
+        builder.write(file, 1);
+        OpeningBook book = OpeningBook.open(file);
+
+        ChessGame start = new ChessGame();
+        assertEquals(move("e2e4"), book.bestMove(start));
+        assertEquals(2, book.moveCount(start.zobristKey()));
+
+        // Only the first four plies are kept
+        ChessGame game = ChessGame.fromFen("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3");
+        assertEquals(-1, book.find(game.zobristKey()));
+
+        // Ke3 is illegal, so the third game stops after 1.d4 d5
+        game = ChessGame.fromFen("rnbqkbnr/ppp1pppp/8/3p4/3P4/8/PPP1PPPP/RNBQKBNR w KQkq - 0 2");
+        assertEquals(-1, book.find(game.zobristKey()));
+        game = ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/3P4/8/PPP1PPPP/RNBQKBNR b KQkq - 0 1");
+        assertEquals(move("d7d5"), book.bestMove(game));
+    }
+
+    @Test
+    public void rejectsOtherFiles(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("not-a-book.bin");
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        assertThrows(IllegalArgumentException.class, () -> OpeningBook.open(file));
+
+        ByteBuffer truncated = ByteBuffer.allocate(16).putInt(OpeningBook.MAGIC).putInt(OpeningBook.VERSION).putLong(3);
+        assertThrows(IllegalArgumentException.class, () -> OpeningBook.wrap(truncated.flip()));
+    }
+}
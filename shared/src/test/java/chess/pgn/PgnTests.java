@@ -0,0 +1,201 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.MoveList;
+import chess.PackedMove;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PgnTests {
+
+    private static final String OPERA_GAME = """
+            [Event "Paris"]
+            [Site "Paris FRA"]
+            [Date "1858.??.??"]
+            [Round "?"]
+            [White "Paul Morphy"]
+            [Black "Duke Karl / Count Isouard"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Nf3 d6 3. d4 Bg4 {This is a weak move already.} 4. dxe5 Bxf3
+            5. Qxf3 dxe5 6. Bc4 Nf6 7. Qb3 Qe7 8. Nc3 c6 9. Bg5 $1 b5 (9... Qb4 10. Qxb4
+            (10. Qxb7 Qxb2) 10... Bxb4) 10. Nxb5 cxb5 11. Bxb5+ Nbd7 12. O-O-O Rd8
+            13. Rxd7 Rxd7 14. Rd1 Qe6 15. Bxd7+ Nxd7 16. Qb8+ Nxb8 17. Rd8# 1-0
+            """;
+
+    private static List<ChessMove> randomGame(long seed, int plies) {
+        Random random = new Random(seed);
+        ChessGame game = new ChessGame();
+        MoveList moves = new MoveList();
+        List<ChessMove> played = new ArrayList<>();
+        for (int ply = 0; ply < plies; ply++) {
+            game.legalMoves(game.getTeamTurn(), moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            int move = moves.get(random.nextInt(moves.size()));
+            played.add(PackedMove.toChessMove(move));
+            game.doMove(move);
+        }
+        return played;
+    }
+
+    @Test
+    public void sanRoundTripsOverRandomGames() {
+        MoveList scratch = new MoveList();
+        MoveList legal = new MoveList();
+        for (int seed = 0; seed < 40; seed++) {
+            ChessGame game = new ChessGame();
+            for (ChessMove move : randomGame(seed, 150)) {
+                game.legalMoves(game.getTeamTurn(), legal);
+                for (int i = 0; i < legal.size(); i++) {
+                    String san = San.format(game, legal.get(i));
+                    assertEquals(PackedMove.identity(legal.get(i)), PackedMove.identity(San.parse(game, san, scratch)),
+                            san);
+                }
+                game.doMove(San.parse(game, San.format(game, PackedMove.fromChessMove(move)), scratch));
+            }
+        }
+    }
+
+    @Test
+    public void sanDisambiguatesAndMarksChecks() throws IOException {
+        PgnGame opera = new PgnReader(new StringReader(OPERA_GAME)).next();
+        ChessGame game = opera.startingPosition();
+        List<ChessMove> moves = opera.play(game, new MoveList());
+        assertEquals(33, moves.size());
+        assertTrue(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+
+        ChessGame replay = new ChessGame();
+        List<String> written = new ArrayList<>();
+        for (ChessMove move : moves) {
+            String san = San.format(replay, PackedMove.fromChessMove(move));
+            written.add(san);
+            replay.doMove(San.parse(replay, san));
+        }
+        assertEquals(opera.moves(), written);
+        assertEquals("Nbd7", written.get(21));
+        assertEquals("O-O-O", written.get(22));
+        assertEquals("Rd8#", written.get(32));
+
+        assertThrows(IllegalArgumentException.class, () -> San.parse(new ChessGame(), "Nd2"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(new ChessGame(), "e5"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(new ChessGame(), "Zf3"));
+    }
+
+    @Test
+    public void readerSkipsCommentsVariationsAndGlyphs() throws IOException {
+        String text = OPERA_GAME + """
+
+                % an escape line
+                [Event "Second"]
+                1.e4 ; rest of line is a comment
+                e5 2.Nf3 $2 {note} Nc6!? *
+
+                1. d4 d5
+                [Event "No result marker before this"]
+                1. c4
+                """;
+        PgnReader reader = new PgnReader(new StringReader(text));
+
+        PgnGame first = reader.next();
+        assertEquals("Paul Morphy", first.tag("White"));
+        assertEquals("Duke Karl / Count Isouard", first.tag("Black"));
+        assertEquals("1-0", first.result());
+        assertEquals(List.of("e4", "e5", "Nf3", "d6"), first.moves().subList(0, 4));
+        assertEquals("b5", first.moves().get(17));
+
+        PgnGame second = reader.next();
+        assertEquals("Second", second.tag("Event"));
+        assertEquals(List.of("e4", "e5", "Nf3", "Nc6!?"), second.moves());
+        assertEquals("*", second.result());
+
+        PgnGame third = reader.next();
+        assertEquals(Map.of(), third.tags());
+        assertEquals(List.of("d4", "d5"), third.moves());
+
+        PgnGame fourth = reader.next();
+        assertEquals("No result marker before this", fourth.tag("Event"));
+        assertEquals(List.of("c4"), fourth.moves());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void writtenGamesReadBack() throws IOException {
+        StringWriter out = new StringWriter();
+        PgnWriter writer = new PgnWriter(out);
+        List<ChessMove> moves = randomGame(7, 120);
+        writer.write(Map.of("White", "A \"quoted\" name", "Annotator", "test"), new ChessGame(), moves, "*");
+
+        ChessGame start = ChessGame.fromFen("4k3/8/8/8/8/8/4P3/4K3 b - - 3 20");
+        writer.write(Map.of(), start, List.of(new ChessMove(ChessPosition.of(8, 5), ChessPosition.of(7, 5), null)),
+                "1/2-1/2");
+
+        String text = out.toString();
+        assertTrue(text.startsWith("[Event \"?\"]\n[Site \"?\"]\n[Date \"????.??.??\"]"), text);
+        for (String line : text.split("\n")) {
+            assertTrue(line.length() <= 80, line);
+        }
+
+        PgnReader reader = new PgnReader(new StringReader(text));
+        PgnGame first = reader.next();
+        assertEquals("A \"quoted\" name", first.tag("White"));
+        assertEquals("test", first.tag("Annotator"));
+        assertEquals(moves, first.play(first.startingPosition(), new MoveList()));
+
+        PgnGame second = reader.next();
+        assertEquals("1", second.tag("SetUp"));
+        assertEquals("1/2-1/2", second.result());
+        assertTrue(text.contains("20... Ke7"), text);
+        ChessGame end = second.startingPosition();
+        second.play(end, new MoveList());
+        assertEquals("8/4k3/8/8/8/8/4P3/4K3 w - - 4 21", end.toFen());
+    }
+
+    @Test
+    public void importerReplaysEveryGameInParallel() throws IOException {
+        StringWriter out = new StringWriter();
+        PgnWriter writer = new PgnWriter(out);
+        for (int seed = 0; seed < 25; seed++) {
+            writer.write(Map.of("Round", Integer.toString(seed)), new ChessGame(), randomGame(seed, 80), "*");
+        }
+        out.write("[Round \"bad\"]\n\n1. e4 e5 2. Ke3 *\n\n");
+
+        List<String> accepted = Collections.synchronizedList(new ArrayList<>());
+        List<String> rejected = Collections.synchronizedList(new ArrayList<>());
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            long read = new PgnImporter(pool, 4).importGames(new StringReader(out.toString()), new PgnSink() {
+                @Override
+                public void accept(PgnGame source, List<ChessMove> moves, ChessGame finalPosition) {
+                    assertEquals(source.moves().size(), moves.size());
+                    accepted.add(source.tag("Round"));
+                }
+
+                @Override
+                public void reject(PgnGame source, IllegalArgumentException error) {
+                    assertTrue(error.getMessage().startsWith("Ply 3"), error.getMessage());
+                    rejected.add(source.tag("Round"));
+                }
+            });
+            assertEquals(26, read);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(25, accepted.size());
+        assertEquals(List.of("bad"), rejected);
+    }
+}
@@ -0,0 +1,101 @@
+package chess.search;
+
+import chess.ChessGame;
+import chess.MoveList;
+import chess.PackedMove;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveOrdererTests {
+
+    private static int move(ChessGame game, String coordinate) {
+        MoveList moves = new MoveList();
+        game.legalMoves(game.getTeamTurn(), moves);
+        int index = moves.indexOf(PackedMove.fromCoordinate(coordinate));
+        assertTrue(index >= 0, coordinate + " is not legal");
+        return moves.get(index);
+    }
+
+    private static final String EXCHANGES = "3r2k1/8/2p5/3p1n2/4P3/8/3R4/3R2K1 w - - 0 1";
+
+    @Test
+    public void staticExchangeCountsRecaptures() {
+        ChessGame game = ChessGame.fromFen(EXCHANGES);
+
+        // Pawn takes a knight that nothing defends
+        assertEquals(320, StaticExchange.evaluate(game.getBoard(), move(game, "e4f5")));
+        // exd5 cxd5 Rxd5 Rxd5 Rxd5: the doubled rooks win the last pawn
+        assertEquals(100, StaticExchange.evaluate(game.getBoard(), move(game, "e4d5")));
+        // Rxd5 cxd5 exd5: a rook for two pawns, and Black stops there
+        assertEquals(-300, StaticExchange.evaluate(game.getBoard(), move(game, "d2d5")));
+        // A quiet move onto a square the rook attacks after d2 moves
+        assertEquals(0, StaticExchange.evaluate(game.getBoard(), move(game, "d2e2")));
+    }
+
+    @Test
+    public void staticExchangeSeesBatteries() {
+        ChessGame game = ChessGame.fromFen("3r2k1/8/8/3p4/8/8/3R4/3R2K1 w - - 0 1");
+
+        // Rxd5 Rxd5 Rxd5: the d1 rook recaptures through the square d2 left
+        assertEquals(100, StaticExchange.evaluate(game.getBoard(), move(game, "d2d5")));
+    }
+
+    @Test
+    public void ordersByCategory() {
+        ChessGame game = ChessGame.fromFen(EXCHANGES);
+        MoveOrderer orderer = new MoveOrderer();
+        orderer.recordCutoff(ChessGame.TeamColor.WHITE, move(game, "g1h1"), 3, 4);
+        orderer.recordCutoff(ChessGame.TeamColor.WHITE, move(game, "d1b1"), 0, 6);
+
+        MoveList moves = new MoveList();
+        game.legalMoves(ChessGame.TeamColor.WHITE, moves);
+        int hashMove = PackedMove.identity(move(game, "d1a1"));
+        orderer.order(game.getBoard(), ChessGame.TeamColor.WHITE, moves, 3, hashMove, 0);
+
+        assertEquals(hashMove, PackedMove.identity(moves.get(0)));
+        assertEquals("e4f5", PackedMove.toCoordinate(moves.get(1)));
+        assertEquals("e4d5", PackedMove.toCoordinate(moves.get(2)));
+        assertEquals("g1h1", PackedMove.toCoordinate(moves.get(3)));
+        assertEquals("d1b1", PackedMove.toCoordinate(moves.get(4)));
+        assertEquals("d2d5", PackedMove.toCoordinate(moves.get(moves.size() - 1)));
+    }
+
+    @Test
+    public void recordsOnlyQuietCutoffs() {
+        ChessGame game = ChessGame.fromFen(EXCHANGES);
+        MoveOrderer orderer = new MoveOrderer();
+        int quiet = move(game, "g1h1");
+        int capture = move(game, "e4f5");
+
+        orderer.recordCutoff(ChessGame.TeamColor.WHITE, capture, 2, 5);
+        assertEquals(0, orderer.killer(2, 0));
+        assertEquals(0, orderer.history(ChessGame.TeamColor.WHITE, capture));
+
+        orderer.recordCutoff(ChessGame.TeamColor.WHITE, quiet, 2, 5);
+        orderer.recordCutoff(ChessGame.TeamColor.WHITE, quiet, 2, 3);
+        assertEquals(PackedMove.identity(quiet), orderer.killer(2, 0));
+        assertEquals(0, orderer.killer(2, 1));
+        assertEquals(34, orderer.history(ChessGame.TeamColor.WHITE, quiet));
+        assertEquals(0, orderer.history(ChessGame.TeamColor.BLACK, quiet));
+
+        orderer.newSearch();
+        assertEquals(0, orderer.killer(2, 0));
+        assertEquals(17, orderer.history(ChessGame.TeamColor.WHITE, quiet));
+    }
+
+    @Test
+    public void heuristicsSearchFewerNodes() {
+        ChessGame game = new ChessGame();
+        SearchResult plain = new Search(new TranspositionTable(16),
+                new MoveOrderer(EnumSet.noneOf(MoveOrderer.Heuristic.class))).search(game, SearchLimits.depth(5));
+        SearchResult ordered = new Search(new TranspositionTable(16), new MoveOrderer())
+                .search(game, SearchLimits.depth(5));
+
+        assertEquals(5, plain.depth());
+        assertEquals(5, ordered.depth());
+        assertTrue(ordered.nodes() < plain.nodes(), ordered.nodes() + " >= " + plain.nodes());
+    }
+}
@@ -0,0 +1,78 @@
+package chess.search;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelSearchTests {
+
+    @Test
+    public void singleThreadMatchesPlainSearch() {
+        ChessGame game = new ChessGame();
+        SearchResult plain = new Search(new TranspositionTable(4)).search(game, SearchLimits.depth(5));
+        try (ParallelSearch parallel = new ParallelSearch(new TranspositionTable(4), 1)) {
+            SearchResult result = parallel.search(game, SearchLimits.depth(5));
+            assertEquals(plain.bestMove(), result.bestMove());
+            assertEquals(plain.score(), result.score());
+            assertEquals(plain.principalVariation(), result.principalVariation());
+            assertEquals(plain.nodes(), result.nodes());
+        }
+    }
+
+    @Test
+    public void helpersFindTheSameMate() {
+        ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+
+        try (ParallelSearch parallel = new ParallelSearch(new TranspositionTable(4), 4)) {
+            SearchResult result = parallel.search(game, SearchLimits.depth(6));
+            assertEquals(new ChessMove(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null), result.bestMove());
+            assertEquals(Search.MATE - 1, result.score());
+        }
+    }
+
+    @Test
+    public void searchesAreRepeatable() {
+        try (ParallelSearch parallel = new ParallelSearch(new TranspositionTable(8), 4)) {
+            for (int i = 0; i < 3; i++) {
+                SearchResult result = parallel.search(new ChessGame(), SearchLimits.depth(5));
+                assertNotNull(result.bestMove());
+                assertTrue(result.depth() >= 5);
+                assertEquals(result.bestMove(), result.principalVariation().get(0));
+            }
+        }
+    }
+
+    @Test
+    public void stopCancelsARunningSearch() throws Exception {
+        TranspositionTable table = new TranspositionTable(8);
+        ChessGame game = new ChessGame();
+        try (ParallelSearch parallel = new ParallelSearch(table, 4)) {
+            CompletableFuture<SearchResult> running = CompletableFuture.supplyAsync(
+                    () -> parallel.search(game, SearchLimits.depth(SearchLimits.MAX_DEPTH)));
+            // The stop may well arrive before the search has started
+            parallel.stop();
+
+            SearchResult result = running.get(5, TimeUnit.SECONDS);
+            assertNotNull(result.bestMove());
+            assertTrue(result.depth() < SearchLimits.MAX_DEPTH);
+
+            // The stop is used up, so the next search runs to its limit
+            assertEquals(4, parallel.search(game, SearchLimits.depth(4)).depth());
+        }
+    }
+
+    @Test
+    public void nodeBudgetCoversAllThreads() {
+        try (ParallelSearch parallel = new ParallelSearch(new TranspositionTable(4), 4)) {
+            SearchResult result = parallel.search(new ChessGame(), SearchLimits.nodes(20_000));
+            assertNotNull(result.bestMove());
+            assertTrue(result.nodes() <= 20_000);
+        }
+    }
+}
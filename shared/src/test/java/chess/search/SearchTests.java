@@ -0,0 +1,79 @@
+package chess.search;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchTests {
+
+    @Test
+    public void findsMateInOne() {
+        ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+
+        SearchResult result = new Search().search(game, SearchLimits.depth(4));
+        assertEquals(new ChessMove(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null), result.bestMove());
+        assertTrue(result.isMate());
+        assertEquals(Search.MATE - 1, result.score());
+    }
+
+    @Test
+    public void winsHangingQueen() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/3q4/5N2/8/8/4K3 w - - 0 1");
+
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+        assertEquals(new ChessMove(ChessPosition.of(4, 6), ChessPosition.of(5, 4), null), result.bestMove());
+        assertTrue(result.score() > 0);
+    }
+
+    @Test
+    public void principalVariationIsPlayable() throws Exception {
+        ChessGame game = new ChessGame();
+        SearchResult result = new Search().search(game, SearchLimits.depth(4));
+
+        assertEquals(4, result.depth());
+        assertFalse(result.principalVariation().isEmpty());
+        assertEquals(result.bestMove(), result.principalVariation().get(0));
+        for (ChessMove move : result.principalVariation()) {
+            game.makeMove(move);
+        }
+    }
+
+    @Test
+    public void searchLeavesCallerGameUntouched() {
+        ChessGame game = new ChessGame();
+        ChessGame before = new ChessGame(game);
+        new Search().search(game, SearchLimits.depth(3));
+        assertEquals(before, game);
+        assertEquals(0, game.undoDepth());
+    }
+
+    @Test
+    public void nodeBudgetIsRespected() {
+        SearchResult result = new Search().search(new ChessGame(), SearchLimits.nodes(5_000));
+        assertNotNull(result.bestMove());
+        assertTrue(result.nodes() <= 5_000);
+        assertTrue(result.depth() < SearchLimits.MAX_DEPTH);
+    }
+
+    @Test
+    public void timeBudgetIsRespected() {
+        SearchResult result = new Search().search(new ChessGame(), SearchLimits.timeMillis(100));
+
+        assertNotNull(result.bestMove());
+        assertTrue(result.depth() >= 1);
+        // Generous, for slow build machines; a search ignoring its budget runs for minutes
+        assertTrue(result.elapsedNanos() < 1_000_000_000L, result.elapsedNanos() / 1_000_000 + " ms");
+    }
+
+    @Test
+    public void noMoveWhenCheckmated() {
+        ChessGame game = ChessGame.fromFen("R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1");
+
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+        assertNull(result.bestMove());
+        assertEquals(-Search.MATE, result.score());
+    }
+}
@@ -0,0 +1,130 @@
+package chess.search;
+
+import chess.ChessGame;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTests {
+
+    @Test
+    public void storedEntryRoundTrips() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x123456789ABCDEFL;
+        table.store(key, 0x0A1C, -1234, 7, TranspositionTable.BOUND_LOWER);
+
+        long entry = table.probe(key);
+        assertNotEquals(TranspositionTable.MISS, entry);
+        assertEquals(0x0A1C, TranspositionTable.move(entry));
+        assertEquals(-1234, TranspositionTable.score(entry));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.BOUND_LOWER, TranspositionTable.bound(entry));
+        assertEquals(TranspositionTable.MISS, table.probe(key + 1));
+    }
+
+    @Test
+    public void restoringKeepsPreviousMoveWhenNoneGiven() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(42L, 0x0123, 10, 3, TranspositionTable.BOUND_EXACT);
+        table.store(42L, 0, -50, 4, TranspositionTable.BOUND_UPPER);
+
+        long entry = table.probe(42L);
+        assertEquals(0x0123, TranspositionTable.move(entry));
+        assertEquals(-50, TranspositionTable.score(entry));
+        assertEquals(4, TranspositionTable.depth(entry));
+    }
+
+    @Test
+    public void mateScoresAreRelativeToTheStoredPosition() {
+        int mateFromRoot = Search.MATE - 9;
+        int stored = TranspositionTable.scoreToTable(mateFromRoot, 4);
+        assertEquals(Search.MATE - 5, stored);
+        assertEquals(Search.MATE - 7, TranspositionTable.scoreFromTable(stored, 2));
+        assertEquals(-Search.MATE + 7, TranspositionTable.scoreFromTable(-stored, 2));
+        assertEquals(150, TranspositionTable.scoreToTable(150, 12));
+
+        // A tablebase win 65 plies long, probed 70 plies from the root
+        int tablebaseMate = Search.MATE - 70 - 65;
+        stored = TranspositionTable.scoreToTable(tablebaseMate, 70);
+        assertEquals(Search.MATE - 65, stored);
+        assertEquals(Search.MATE - 68, TranspositionTable.scoreFromTable(stored, 3));
+        assertEquals(-Search.MATE + 65, TranspositionTable.scoreToTable(-tablebaseMate, 70));
+    }
+
+    @Test
+    public void replacementPrefersDeepAndCurrentEntries() {
+        TranspositionTable table = new TranspositionTable(1);
+        long buckets = table.capacity() / 4;
+        // Keys that differ only above the bucket bits all land in bucket 0
+        long[] keys = new long[6];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (i + 1L) * buckets * (1L << 32) + (i + 1L) * buckets;
+        }
+
+        table.store(keys[0], 1, 0, 20, TranspositionTable.BOUND_EXACT);
+        table.store(keys[1], 1, 0, 2, TranspositionTable.BOUND_EXACT);
+        table.store(keys[2], 1, 0, 15, TranspositionTable.BOUND_EXACT);
+        table.store(keys[3], 1, 0, 12, TranspositionTable.BOUND_EXACT);
+        table.store(keys[4], 1, 0, 5, TranspositionTable.BOUND_EXACT);
+
+        assertEquals(TranspositionTable.MISS, table.probe(keys[1]), "shallowest entry should be replaced");
+        assertNotEquals(TranspositionTable.MISS, table.probe(keys[0]));
+
+        // After enough searches the old deep entry is worth less than a fresh shallow one
+        for (int i = 0; i < 3; i++) {
+            table.newSearch();
+        }
+        table.store(keys[5], 1, 0, 1, TranspositionTable.BOUND_EXACT);
+        assertNotEquals(TranspositionTable.MISS, table.probe(keys[5]));
+        assertEquals(TranspositionTable.MISS, table.probe(keys[4]), "oldest shallow entry should be replaced");
+    }
+
+    @Test
+    public void racingWritersNeverProduceMismatchedData() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        AtomicInteger corrupt = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long seed = t;
+            threads.add(new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    // Few distinct keys so the threads keep colliding on the same entries
+                    long key = random.nextInt(64) * 0x9E3779B97F4A7C15L;
+                    int score = (int) (key & 0x3FFF);
+                    table.store(key, score, score, score & 0xFF, TranspositionTable.BOUND_EXACT);
+                    long entry = table.probe(key);
+                    if (entry != TranspositionTable.MISS && TranspositionTable.score(entry) != score) {
+                        corrupt.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, corrupt.get());
+    }
+
+    @Test
+    public void repeatedSearchHitsWarmEntries() {
+        TranspositionTable table = new TranspositionTable(8);
+        ChessGame game = new ChessGame();
+
+        SearchResult cold = new Search(table).search(game, SearchLimits.depth(5));
+        assertTrue(table.hashfull() > 0);
+        SearchResult warm = new Search(table).search(game, SearchLimits.depth(5));
+
+        assertEquals(cold.bestMove(), warm.bestMove());
+        assertTrue(warm.nodes() < cold.nodes() / 2,
+                "warm search visited " + warm.nodes() + " nodes, cold " + cold.nodes());
+    }
+}
@@ -0,0 +1,147 @@
+package chess.tablebase;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.search.Search;
+import chess.search.SearchLimits;
+import chess.search.SearchResult;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TablebaseTests {
+
+    private static TablebaseGenerator generator;
+    private static ByteBuffer kqk;
+    private static ByteBuffer krk;
+    private static ByteBuffer kpk;
+
+    @BeforeAll
+    public static void generate() {
+        // KBNK takes far longer than the others, so only its own test generates it
+        generator = new TablebaseGenerator();
+        kqk = generator.generate(Endgame.KQK);
+        krk = generator.generate(Endgame.KRK);
+        kpk = generator.generate(Endgame.KPK);
+    }
+
+    private static int longestWin(ByteBuffer table) {
+        int longest = 0;
+        for (int i = Tablebases.HEADER_BYTES; i < table.limit(); i++) {
+            int code = table.get(i) & 0xFF;
+            if (Tablebases.isWin(code)) {
+                longest = Math.max(longest, Tablebases.distanceToMate(code));
+            }
+        }
+        return longest;
+    }
+
+    @Test
+    public void longestMatesMatchKnownValues() {
+        // Mate in 10 with the queen and in 16 with the rook, counted in plies
+        assertEquals(19, longestWin(kqk));
+        assertEquals(31, longestWin(krk));
+    }
+
+    @Test
+    @Tag("slow")
+    public void bishopAndKnightMates() {
+        ByteBuffer kbnk = generator.generate(Endgame.KBNK);
+        // Mate in 33, counted in plies
+        assertEquals(65, longestWin(kbnk));
+
+        Tablebases tablebases = generator.tablebases();
+        int mateInOne = tablebases.probe(ChessGame.fromFen("k7/3B4/NK6/8/8/8/8/8 w - - 0 1"));
+        assertTrue(Tablebases.isWin(mateInOne));
+        assertEquals(1, Tablebases.distanceToMate(mateInOne));
+        int mated = tablebases.probe(ChessGame.fromFen("k7/8/NKB5/8/8/8/8/8 b - - 0 1"));
+        assertTrue(Tablebases.isLoss(mated));
+        assertEquals(0, Tablebases.distanceToMate(mated));
+        // The same mate with the bishop on the other color and the colors swapped
+        assertEquals(mateInOne, tablebases.probe(ChessGame.fromFen("8/8/8/8/8/nk6/3b4/K7 b - - 0 1")));
+        // Black takes the undefended knight
+        assertEquals(Tablebases.DRAW, tablebases.probe(ChessGame.fromFen("7K/7B/8/8/8/8/1N6/k7 b - - 0 1")));
+    }
+
+    @Test
+    public void kingAndPawnResults() {
+        String cornerDraw = "k7/8/8/8/8/8/P7/K7";
+        String sixthRankWin = "3k4/8/3K4/3P4/8/8/8/8";
+        Tablebases tablebases = generator.tablebases();
+        assertTrue(Tablebases.isDraw(tablebases.probe(ChessGame.fromFen(cornerDraw + " w"))));
+        assertTrue(Tablebases.isDraw(tablebases.probe(ChessGame.fromFen(cornerDraw + " b"))));
+        assertTrue(Tablebases.isWin(tablebases.probe(ChessGame.fromFen(sixthRankWin + " w"))));
+        assertTrue(Tablebases.isLoss(tablebases.probe(ChessGame.fromFen(sixthRankWin + " b"))));
+    }
+
+    @Test
+    public void colorsAreSymmetric() {
+        ChessGame white = ChessGame.fromFen("3k4/8/3K4/3P4/8/8/8/8 b - - 0 1");
+        ChessGame black = ChessGame.fromFen("8/8/8/8/3p4/3k4/8/3K4 w - - 0 1");
+        Tablebases tablebases = generator.tablebases();
+        assertEquals(tablebases.probe(white), tablebases.probe(black));
+        assertEquals(Tablebases.DRAW, tablebases.probe(ChessGame.fromFen("8/8/5n2/8/8/4k3/8/3K4 w - - 0 1")));
+    }
+
+    @Test
+    public void tablebaseLineEndsInMate() throws Exception {
+        ChessGame game = ChessGame.fromFen("8/8/8/4k3/8/8/8/R5K1 w - - 0 1");
+        int code = generator.tablebases().probe(game);
+        assertTrue(Tablebases.isWin(code));
+
+        Search search = new Search();
+        search.setTablebases(generator.tablebases());
+        SearchResult result = search.search(game, SearchLimits.depth(1));
+        assertEquals(0, result.depth());
+        assertEquals(0, result.nodes());
+        assertEquals(Search.MATE - Tablebases.distanceToMate(code), result.score());
+        assertEquals(Tablebases.distanceToMate(code), result.principalVariation().size());
+
+        for (ChessMove move : result.principalVariation()) {
+            game.makeMove(move);
+        }
+        assertTrue(game.isInCheckmate(game.getTeamTurn()));
+    }
+
+    @Test
+    public void searchScoresCapturesIntoTables() {
+        // Taking the knight leaves a won rook ending well beyond depth 2
+        ChessGame game = ChessGame.fromFen("8/8/8/4k3/8/8/8/R3n1K1 w - - 0 1");
+        Search search = new Search();
+        search.setTablebases(generator.tablebases());
+        SearchResult result = search.search(game, SearchLimits.depth(2));
+        assertTrue(result.isMate());
+        assertTrue(result.score() > 0);
+    }
+
+    @Test
+    public void filesRoundTrip(@TempDir Path dir) throws IOException {
+        TablebaseGenerator.write(kqk, Endgame.KQK, dir);
+        TablebaseGenerator.write(kpk, Endgame.KPK, dir);
+        Tablebases opened = Tablebases.open(dir);
+        assertTrue(opened.covers(Endgame.KQK));
+        assertTrue(opened.covers(Endgame.KPK));
+        assertFalse(opened.covers(Endgame.KRK));
+
+        ChessGame game = ChessGame.fromFen("3k4/8/3K4/3P4/8/8/8/8 w - - 0 1");
+        assertEquals(generator.tablebases().probe(game), opened.probe(game));
+        assertEquals(Tablebases.NOT_FOUND, Tablebases.empty().probe(game));
+    }
+
+    @Test
+    public void rejectsOtherFiles(@TempDir Path dir) throws IOException {
+        Files.write(dir.resolve(Endgame.KRK.fileName()), new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        assertThrows(IllegalArgumentException.class, () -> Tablebases.open(dir));
+
+        TablebaseGenerator.write(kqk, Endgame.KRK, dir);
+        assertThrows(IllegalArgumentException.class, () -> Tablebases.open(dir));
+    }
+}